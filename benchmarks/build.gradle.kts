@@ -0,0 +1,32 @@
+plugins {
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmhImplementation(projects.common)
+    jmhImplementation(testFixtures(projects.common))
+    jmhImplementation(libs.lavaplayer.v1)
+
+    jmhImplementation(libs.rhino.engine)
+    jmhImplementation(libs.nanojson)
+    jmhImplementation(libs.slf4j)
+    jmhImplementation(libs.annotations)
+}
+
+// Every script in the corpus is benchmarked, alongside a synthetic script generated at runtime.
+val corpus = layout.projectDirectory.dir("corpus").asFile
+val corpusScripts = corpus.listFiles { file -> file.name.endsWith(".js") }
+    ?.map { it.name }
+    ?.sorted()
+    .orEmpty()
+
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    jvmArgsAppend = listOf("-Dyoutube.playerScriptCorpus=${corpus.absolutePath}")
+    benchmarkParameters.put("script", objects.listProperty<String>().value(listOf("synthetic") + corpusScripts))
+
+    // Allows running a subset, e.g. -Pjmh.includes=ResolveFormatUrlBenchmark
+    (findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
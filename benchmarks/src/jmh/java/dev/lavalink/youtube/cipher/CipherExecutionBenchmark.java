@@ -0,0 +1,69 @@
+package dev.lavalink.youtube.cipher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.script.ScriptException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deciphering signatures and transforming n parameters with an extracted cipher, both interpreted
+ * and compiled to bytecode. The nested classes run the same benchmarks at increasing thread counts, to
+ * show how the cipher's execution contexts hold up under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class CipherExecutionBenchmark {
+    @Param(PlayerScriptCorpus.SYNTHETIC)
+    public String script;
+
+    @Param({"-1", "9"})
+    public int optimizationLevel;
+
+    private SignatureCipher cipher;
+
+    @Setup
+    public void setup() throws IOException {
+        LocalSignatureCipherManager cipherManager = new LocalSignatureCipherManager(
+            SignatureCipher.DEFAULT_MAX_EXECUTION_CONTEXTS, optimizationLevel, new CipherResultCache(0, 0), null);
+
+        cipher = cipherManager.extractFromScript(PlayerScriptCorpus.load(script), script);
+    }
+
+    @Benchmark
+    public String apply() throws ScriptException, NoSuchMethodException {
+        return cipher.apply(CipherTestScripts.SIGNATURE);
+    }
+
+    @Benchmark
+    public String transform() throws ScriptException, NoSuchMethodException {
+        return cipher.transform(CipherTestScripts.N_PARAMETER);
+    }
+
+    @Threads(1)
+    public static class OneThread extends CipherExecutionBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends CipherExecutionBenchmark {
+    }
+
+    @Threads(16)
+    public static class SixteenThreads extends CipherExecutionBenchmark {
+    }
+}
@@ -0,0 +1,51 @@
+package dev.lavalink.youtube.cipher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extracting the cipher from a player script, which happens once for every new player script.
+ * {@link #extractWithFullScan()} is the previous approach of searching the whole script with each pattern,
+ * kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+    @Param(PlayerScriptCorpus.SYNTHETIC)
+    public String script;
+
+    private String content;
+    private LocalSignatureCipherManager cipherManager;
+
+    @Setup
+    public void setup() throws IOException {
+        content = PlayerScriptCorpus.load(script);
+        cipherManager = new LocalSignatureCipherManager(1);
+    }
+
+    @Benchmark
+    public SignatureCipher extractFromScript() {
+        return cipherManager.extractFromScript(content, script);
+    }
+
+    @Benchmark
+    public PlayerScriptExtractor.Components extractWithFullScan() {
+        return PlayerScriptExtractor.extractWithFullScan(content);
+    }
+}
@@ -0,0 +1,32 @@
+package dev.lavalink.youtube.cipher;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Loads the player scripts benchmarked by the suites in this module. Scripts are read from the directory
+ * given by the {@code youtube.playerScriptCorpus} system property, except for {@link #SYNTHETIC}, which
+ * is generated so that the benchmarks can run without any saved scripts. The synthetic script, and the
+ * signature and n parameter to apply its cipher to, are shared with the tests through {@link CipherTestScripts}.
+ */
+final class PlayerScriptCorpus {
+    static final String SYNTHETIC = "synthetic";
+    static final String PLAYER_SCRIPT_URL = "/s/player/00000000/player_ias.vflset/en_US/base.js";
+
+    private PlayerScriptCorpus() {
+    }
+
+    @NotNull
+    static String load(@NotNull String name) throws IOException {
+        if (SYNTHETIC.equals(name)) {
+            return CipherTestScripts.createSyntheticPlayerScript();
+        }
+
+        String directory = System.getProperty("youtube.playerScriptCorpus", "corpus");
+        return new String(Files.readAllBytes(Paths.get(directory, name)), StandardCharsets.UTF_8);
+    }
+}
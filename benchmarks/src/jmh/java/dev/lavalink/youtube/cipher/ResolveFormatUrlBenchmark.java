@@ -0,0 +1,85 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.entity.ContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LocalSignatureCipherManager#resolveFormatUrl} end to end, with the cipher already
+ * extracted so that no requests are made. With the result cache enabled every call after the first is
+ * a cache hit, without it every call runs the cipher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class ResolveFormatUrlBenchmark {
+    @Param(PlayerScriptCorpus.SYNTHETIC)
+    public String script;
+
+    @Param({"true", "false"})
+    public boolean resultCache;
+
+    private LocalSignatureCipherManager cipherManager;
+    private HttpInterfaceManager httpInterfaceManager;
+    private StreamFormat format;
+
+    @Setup
+    public void setup() throws IOException {
+        cipherManager = new LocalSignatureCipherManager(SignatureCipher.DEFAULT_MAX_EXECUTION_CONTEXTS,
+            resultCache ? new CipherResultCache() : new CipherResultCache(0, 0));
+
+        SignatureCipher cipher = cipherManager.extractFromScript(PlayerScriptCorpus.load(script), script);
+        cipherManager.getCipherCache().put(PlayerScriptCorpus.PLAYER_SCRIPT_URL, script, cipher);
+
+        httpInterfaceManager = HttpClientTools.createCookielessThreadLocalManager();
+        format = new StreamFormat(ContentType.parse("audio/webm; codecs=\"opus\""), 251, 160_000, 3_000_000, 2,
+            "https://rr1---sn-example.googlevideo.com/videoplayback?expire=1700000000&itag=251&source=youtube",
+            CipherTestScripts.N_PARAMETER, CipherTestScripts.SIGNATURE, "sig", true, false);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        httpInterfaceManager.close();
+    }
+
+    @Benchmark
+    public URI resolveFormatUrl() throws IOException {
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            return cipherManager.resolveFormatUrl(httpInterface, PlayerScriptCorpus.PLAYER_SCRIPT_URL, format);
+        }
+    }
+
+    @Threads(1)
+    public static class OneThread extends ResolveFormatUrlBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends ResolveFormatUrlBenchmark {
+    }
+
+    @Threads(16)
+    public static class SixteenThreads extends ResolveFormatUrlBenchmark {
+    }
+}
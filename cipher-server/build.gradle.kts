@@ -0,0 +1,32 @@
+plugins {
+    application
+}
+
+base {
+    archivesName = "youtube-cipher-server"
+}
+
+application {
+    mainClass = "dev.lavalink.youtube.server.CipherServer"
+}
+
+dependencies {
+    implementation(projects.common)
+    implementation(libs.lavaplayer.v1)
+
+    implementation(libs.rhino.engine)
+    implementation(libs.nanojson)
+    implementation(libs.slf4j)
+    runtimeOnly(libs.slf4j.simple)
+    compileOnly(libs.annotations)
+
+    testImplementation(testFixtures(projects.common))
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.11.0-M1")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.11.0-M1")
+}
+
+tasks {
+    test {
+        useJUnitPlatform()
+    }
+}
@@ -0,0 +1,153 @@
+package dev.lavalink.youtube.server;
+
+import com.grack.nanojson.JsonWriter;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import com.sun.net.httpserver.HttpServer;
+import dev.lavalink.youtube.cipher.CipherDiskCache;
+import dev.lavalink.youtube.cipher.CipherResultCache;
+import dev.lavalink.youtube.cipher.LocalSignatureCipherManager;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A standalone HTTP server exposing a {@link LocalSignatureCipherManager} through the protocol used by
+ * {@link dev.lavalink.youtube.cipher.RemoteCipherManager}, so that a single node can download and extract
+ * each player script on behalf of many Lavalink nodes.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code POST /get_sts}</li>
+ *     <li>{@code POST /resolve_url}</li>
+ *     <li>{@code GET /metrics}</li>
+ *     <li>{@code GET /health}, which does not require authorization.</li>
+ * </ul>
+ */
+public class CipherServer implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(CipherServer.class);
+
+    private final CipherServerConfig config;
+    private final LocalSignatureCipherManager cipherManager;
+    private final HttpInterfaceManager httpInterfaceManager;
+    private final CipherService service;
+    private final CipherServerMetrics metrics;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public CipherServer(@NotNull CipherServerConfig config) {
+        this.config = config;
+
+        CipherResultCache resultCache = new CipherResultCache(config.getResultCacheMaxEntries(), config.getResultCacheTtlMs());
+        CipherDiskCache diskCache = config.getCipherCacheDirectory() == null ? null
+            : new CipherDiskCache(Paths.get(config.getCipherCacheDirectory()), config.getCipherCacheMaxSizeBytes());
+
+        this.cipherManager = new LocalSignatureCipherManager(config.getCipherExecutionPoolSize(),
+            config.getCipherOptimizationLevel(), resultCache, diskCache);
+        this.httpInterfaceManager = HttpClientTools.createCookielessThreadLocalManager();
+        this.cipherManager.setHttpInterfaceManager(httpInterfaceManager);
+        this.service = new CipherService(cipherManager, httpInterfaceManager);
+        this.metrics = new CipherServerMetrics();
+    }
+
+    /**
+     * Binds the server and starts accepting requests.
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server has already been started");
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        executor = Executors.newFixedThreadPool(config.getRequestThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "cipher-server-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server = HttpServer.create(new InetSocketAddress(config.getHost(), config.getPort()), 0);
+        server.setExecutor(executor);
+
+        addEndpoint("/get_sts", "POST", true, service::getTimestamp);
+        addEndpoint("/resolve_url", "POST", true, service::resolveUrl);
+        addEndpoint("/metrics", "GET", true, body -> metrics.toJson(cipherManager));
+        addEndpoint("/health", "GET", false, body -> JsonWriter.string().object().value("status", "ok").end().done());
+
+        server.start();
+        log.info("Cipher server listening on {} with {} request threads", getAddress(), config.getRequestThreads());
+    }
+
+    @NotNull
+    public InetSocketAddress getAddress() {
+        if (server == null) {
+            throw new IllegalStateException("Server has not been started");
+        }
+
+        return server.getAddress();
+    }
+
+    @NotNull
+    public LocalSignatureCipherManager getCipherManager() {
+        return cipherManager;
+    }
+
+    @NotNull
+    public CipherServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdown();
+
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        cipherManager.close();
+        httpInterfaceManager.close();
+    }
+
+    private void addEndpoint(@NotNull String path,
+                             @NotNull String method,
+                             boolean requiresAuthorization,
+                             @NotNull JsonEndpointHandler.Endpoint endpoint) {
+        String password = requiresAuthorization ? config.getPassword() : null;
+        server.createContext(path, new JsonEndpointHandler(path, method, password, config.getMaxBodyBytes(), metrics, endpoint));
+    }
+
+    public static void main(String[] args) throws IOException {
+        CipherServerConfig config = CipherServerConfig.fromEnvironment(System.getenv());
+
+        if (config.getPassword() == null) {
+            log.warn("No password is configured, anyone able to reach this server may use it.");
+        }
+
+        CipherServer server = new CipherServer(config);
+        server.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                log.warn("Failed to stop cipher server", e);
+            }
+        }, "cipher-server-shutdown"));
+    }
+}
@@ -0,0 +1,205 @@
+package dev.lavalink.youtube.server;
+
+import dev.lavalink.youtube.cipher.CipherDiskCache;
+import dev.lavalink.youtube.cipher.CipherResultCache;
+import dev.lavalink.youtube.cipher.SignatureCipher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Configuration of a {@link CipherServer}. Every option can also be set through an environment
+ * variable, see {@link #fromEnvironment(Map)}.
+ */
+public class CipherServerConfig {
+    public static final int DEFAULT_PORT = 8001;
+    public static final int DEFAULT_MAX_BODY_BYTES = 1024 * 1024;
+
+    private String host = "0.0.0.0";
+    private int port = DEFAULT_PORT;
+    private String password;
+    private int requestThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private int maxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+    private int cipherExecutionPoolSize = SignatureCipher.DEFAULT_MAX_EXECUTION_CONTEXTS;
+    private int cipherOptimizationLevel = SignatureCipher.INTERPRETED_OPTIMIZATION_LEVEL;
+    private int resultCacheMaxEntries = CipherResultCache.DEFAULT_MAX_ENTRIES;
+    private long resultCacheTtlMs = CipherResultCache.DEFAULT_TTL_MS;
+    private String cipherCacheDirectory;
+    private long cipherCacheMaxSizeBytes = CipherDiskCache.DEFAULT_MAX_SIZE_BYTES;
+
+    /**
+     * Reads the configuration from environment variables, using the defaults for any that are not set.
+     * The variables are {@code CIPHER_SERVER_HOST}, {@code CIPHER_SERVER_PORT}, {@code CIPHER_SERVER_PASSWORD},
+     * {@code CIPHER_SERVER_REQUEST_THREADS}, {@code CIPHER_SERVER_MAX_BODY_BYTES},
+     * {@code CIPHER_SERVER_EXECUTION_POOL_SIZE}, {@code CIPHER_SERVER_OPTIMIZATION_LEVEL},
+     * {@code CIPHER_SERVER_RESULT_CACHE_MAX_ENTRIES}, {@code CIPHER_SERVER_RESULT_CACHE_TTL_MS},
+     * {@code CIPHER_SERVER_CACHE_DIRECTORY} and {@code CIPHER_SERVER_CACHE_MAX_SIZE_BYTES}.
+     */
+    @NotNull
+    public static CipherServerConfig fromEnvironment(@NotNull Map<String, String> environment) {
+        CipherServerConfig config = new CipherServerConfig();
+        String host = environment.get("CIPHER_SERVER_HOST");
+
+        if (host != null) {
+            config.setHost(host);
+        }
+
+        config.setPassword(environment.get("CIPHER_SERVER_PASSWORD"));
+        config.setCipherCacheDirectory(environment.get("CIPHER_SERVER_CACHE_DIRECTORY"));
+        config.setPort(getInt(environment, "CIPHER_SERVER_PORT", config.port));
+        config.setRequestThreads(getInt(environment, "CIPHER_SERVER_REQUEST_THREADS", config.requestThreads));
+        config.setMaxBodyBytes(getInt(environment, "CIPHER_SERVER_MAX_BODY_BYTES", config.maxBodyBytes));
+        config.setCipherExecutionPoolSize(getInt(environment, "CIPHER_SERVER_EXECUTION_POOL_SIZE", config.cipherExecutionPoolSize));
+        config.setCipherOptimizationLevel(getInt(environment, "CIPHER_SERVER_OPTIMIZATION_LEVEL", config.cipherOptimizationLevel));
+        config.setResultCacheMaxEntries(getInt(environment, "CIPHER_SERVER_RESULT_CACHE_MAX_ENTRIES", config.resultCacheMaxEntries));
+        config.setResultCacheTtlMs(getLong(environment, "CIPHER_SERVER_RESULT_CACHE_TTL_MS", config.resultCacheTtlMs));
+        config.setCipherCacheMaxSizeBytes(getLong(environment, "CIPHER_SERVER_CACHE_MAX_SIZE_BYTES", config.cipherCacheMaxSizeBytes));
+        return config;
+    }
+
+    @NotNull
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Nullable
+    public String getPassword() {
+        return password;
+    }
+
+    public int getRequestThreads() {
+        return requestThreads;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public int getCipherExecutionPoolSize() {
+        return cipherExecutionPoolSize;
+    }
+
+    public int getCipherOptimizationLevel() {
+        return cipherOptimizationLevel;
+    }
+
+    public int getResultCacheMaxEntries() {
+        return resultCacheMaxEntries;
+    }
+
+    public long getResultCacheTtlMs() {
+        return resultCacheTtlMs;
+    }
+
+    @Nullable
+    public String getCipherCacheDirectory() {
+        return cipherCacheDirectory;
+    }
+
+    public long getCipherCacheMaxSizeBytes() {
+        return cipherCacheMaxSizeBytes;
+    }
+
+    public CipherServerConfig setHost(@NotNull String host) {
+        this.host = host;
+        return this;
+    }
+
+    /**
+     * @param port The port to listen on. Use {@code 0} to pick any free port.
+     */
+    public CipherServerConfig setPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * @param password The password clients must send in the {@code Authorization} header, or {@code null}
+     *                 to accept requests from anyone.
+     */
+    public CipherServerConfig setPassword(@Nullable String password) {
+        this.password = password;
+        return this;
+    }
+
+    /**
+     * @param requestThreads The number of threads handling requests concurrently.
+     */
+    public CipherServerConfig setRequestThreads(int requestThreads) {
+        this.requestThreads = requestThreads;
+        return this;
+    }
+
+    /**
+     * @param maxBodyBytes The largest request body accepted, in bytes.
+     */
+    public CipherServerConfig setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+        return this;
+    }
+
+    /**
+     * @param cipherExecutionPoolSize The maximum number of JavaScript contexts each cipher may use concurrently.
+     * @throws IllegalArgumentException If the size is less than 1.
+     */
+    public CipherServerConfig setCipherExecutionPoolSize(int cipherExecutionPoolSize) {
+        if (cipherExecutionPoolSize < 1) {
+            throw new IllegalArgumentException("cipherExecutionPoolSize must be at least 1");
+        }
+
+        this.cipherExecutionPoolSize = cipherExecutionPoolSize;
+        return this;
+    }
+
+    /**
+     * @param cipherOptimizationLevel The Rhino optimization level to compile cipher functions at.
+     */
+    public CipherServerConfig setCipherOptimizationLevel(int cipherOptimizationLevel) {
+        this.cipherOptimizationLevel = cipherOptimizationLevel;
+        return this;
+    }
+
+    /**
+     * @param resultCacheMaxEntries The maximum number of deciphered values to remember.
+     */
+    public CipherServerConfig setResultCacheMaxEntries(int resultCacheMaxEntries) {
+        this.resultCacheMaxEntries = resultCacheMaxEntries;
+        return this;
+    }
+
+    /**
+     * @param resultCacheTtlMs How long deciphered values are remembered for, in milliseconds.
+     */
+    public CipherServerConfig setResultCacheTtlMs(long resultCacheTtlMs) {
+        this.resultCacheTtlMs = resultCacheTtlMs;
+        return this;
+    }
+
+    /**
+     * @param cipherCacheDirectory The directory to persist extracted ciphers to, or {@code null} to not persist them.
+     */
+    public CipherServerConfig setCipherCacheDirectory(@Nullable String cipherCacheDirectory) {
+        this.cipherCacheDirectory = cipherCacheDirectory;
+        return this;
+    }
+
+    public CipherServerConfig setCipherCacheMaxSizeBytes(long cipherCacheMaxSizeBytes) {
+        this.cipherCacheMaxSizeBytes = cipherCacheMaxSizeBytes;
+        return this;
+    }
+
+    private static int getInt(@NotNull Map<String, String> environment, @NotNull String name, int defaultValue) {
+        String value = environment.get(name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long getLong(@NotNull Map<String, String> environment, @NotNull String name, long defaultValue) {
+        String value = environment.get(name);
+        return value == null || value.isEmpty() ? defaultValue : Long.parseLong(value.trim());
+    }
+}
@@ -0,0 +1,122 @@
+package dev.lavalink.youtube.server;
+
+import com.grack.nanojson.JsonStringWriter;
+import com.grack.nanojson.JsonWriter;
+import dev.lavalink.youtube.cipher.CipherExecutionMetrics;
+import dev.lavalink.youtube.cipher.CipherResultCache;
+import dev.lavalink.youtube.cipher.LocalSignatureCipherManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters for each endpoint of a {@link CipherServer}, reported alongside the metrics of the
+ * cipher manager backing it.
+ */
+public class CipherServerMetrics {
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final long startedAtMs = System.currentTimeMillis();
+
+    @NotNull
+    public EndpointMetrics getEndpoint(@NotNull String name) {
+        return endpoints.computeIfAbsent(name, key -> new EndpointMetrics());
+    }
+
+    /**
+     * Records a request that was rejected before reaching an endpoint, such as one that failed authorization.
+     */
+    public void recordRejected() {
+        rejectedRequests.increment();
+    }
+
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    /**
+     * @return The metrics of this server and the given cipher manager, as a JSON object.
+     */
+    @NotNull
+    public String toJson(@NotNull LocalSignatureCipherManager cipherManager) {
+        CipherExecutionMetrics execution = cipherManager.getExecutionMetrics();
+        CipherResultCache resultCache = cipherManager.getResultCache();
+
+        JsonStringWriter writer = JsonWriter.string()
+            .object()
+            .value("uptime_ms", System.currentTimeMillis() - startedAtMs)
+            .value("rejected_requests", getRejectedRequests())
+            .object("endpoints");
+
+        for (Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
+            EndpointMetrics metrics = entry.getValue();
+
+            writer.object(entry.getKey())
+                .value("requests", metrics.getRequests())
+                .value("failures", metrics.getFailures())
+                .value("average_ms", metrics.getAverageMillis())
+                .value("max_ms", metrics.getMaxMillis())
+                .end();
+        }
+
+        return writer.end()
+            .object("ciphers")
+            .value("cached", cipherManager.getCipherCache().getEntryCount())
+            .value("executions", execution.getExecutions())
+            .value("native_executions", execution.getNativeExecutions())
+            .value("contended_executions", execution.getContendedExecutions())
+            .value("total_wait_ms", execution.getTotalWaitMillis())
+            .value("contexts_created", execution.getContextsCreated())
+            .value("compiled_scripts", execution.getCompiledScripts())
+            .value("interpreted_scripts", execution.getInterpretedScripts())
+            .value("compilation_fallbacks", execution.getCompilationFallbacks())
+            .end()
+            .object("result_cache")
+            .value("size", resultCache.size())
+            .value("hits", resultCache.getHits())
+            .value("misses", resultCache.getMisses())
+            .value("evictions", resultCache.getEvictions())
+            .end()
+            .end()
+            .done();
+    }
+
+    public static class EndpointMetrics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        public void record(long elapsedNanos, boolean success) {
+            requests.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+
+            if (!success) {
+                failures.increment();
+            }
+        }
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public double getAverageMillis() {
+            long count = getRequests();
+            return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(totalNanos.sum()) / count / 1000;
+        }
+
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package dev.lavalink.youtube.server;
+
+import com.grack.nanojson.JsonWriter;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.cipher.LocalSignatureCipherManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Implements the remote cipher protocol spoken by {@link dev.lavalink.youtube.cipher.RemoteCipherManager}
+ * on top of a {@link LocalSignatureCipherManager}.
+ */
+public class CipherService {
+    private static final String DEFAULT_SIGNATURE_KEY = "sig";
+
+    private final LocalSignatureCipherManager cipherManager;
+    private final HttpInterfaceManager httpInterfaceManager;
+
+    public CipherService(@NotNull LocalSignatureCipherManager cipherManager,
+                         @NotNull HttpInterfaceManager httpInterfaceManager) {
+        this.cipherManager = cipherManager;
+        this.httpInterfaceManager = httpInterfaceManager;
+    }
+
+    /**
+     * Handles {@code POST /get_sts}.
+     */
+    @NotNull
+    public String getTimestamp(@Nullable JsonBrowser body) throws IOException {
+        String playerUrl = getPlayerUrl(body);
+
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            String timestamp = cipherManager.getTimestamp(httpInterface, playerUrl);
+            return JsonWriter.string().object().value("sts", timestamp).end().done();
+        }
+    }
+
+    /**
+     * Handles {@code POST /resolve_url}.
+     */
+    @NotNull
+    public String resolveUrl(@Nullable JsonBrowser body) throws IOException {
+        String playerUrl = getPlayerUrl(body);
+
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            URI resolved = resolve(httpInterface, playerUrl, body);
+            return JsonWriter.string().object().value("resolved_url", resolved.toString()).end().done();
+        }
+    }
+
+    @NotNull
+    private URI resolve(@NotNull HttpInterface httpInterface,
+                        @NotNull String playerUrl,
+                        @NotNull JsonBrowser request) throws IOException {
+        String streamUrl = request.get("stream_url").text();
+
+        if (streamUrl == null || streamUrl.isEmpty()) {
+            throw new IllegalArgumentException("stream_url is required");
+        }
+
+        String signatureKey = request.get("signature_key").text();
+
+        return cipherManager.resolveUrl(httpInterface, playerUrl, URI.create(streamUrl),
+            request.get("encrypted_signature").text(), request.get("n_param").text(),
+            signatureKey != null ? signatureKey : DEFAULT_SIGNATURE_KEY);
+    }
+
+    /**
+     * Only player scripts hosted by YouTube are accepted, so that the server cannot be used to fetch
+     * arbitrary URLs.
+     */
+    @NotNull
+    static String getPlayerUrl(@Nullable JsonBrowser body) {
+        if (body == null) {
+            throw new IllegalArgumentException("Request body is required");
+        }
+
+        String playerUrl = body.get("player_url").text();
+
+        if (playerUrl == null || playerUrl.isEmpty()) {
+            throw new IllegalArgumentException("player_url is required");
+        }
+
+        if (playerUrl.startsWith("/") && !playerUrl.startsWith("//")) {
+            return playerUrl;
+        }
+
+        URI uri = URI.create(playerUrl.startsWith("//") ? "https:" + playerUrl : playerUrl);
+        String host = uri.getHost();
+
+        if (!"https".equals(uri.getScheme()) || host == null || !(host.equals("youtube.com") || host.endsWith(".youtube.com"))) {
+            throw new IllegalArgumentException("player_url must be a YouTube player script");
+        }
+
+        return playerUrl;
+    }
+}
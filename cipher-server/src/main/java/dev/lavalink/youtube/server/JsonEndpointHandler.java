@@ -0,0 +1,151 @@
+package dev.lavalink.youtube.server;
+
+import com.grack.nanojson.JsonWriter;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Handles a single endpoint of a {@link CipherServer}, taking care of authorization, reading the JSON
+ * request body, writing the JSON response and recording metrics. Requests the endpoint considers invalid
+ * should be reported by throwing {@link IllegalArgumentException}, which is answered with status code 400.
+ */
+class JsonEndpointHandler implements HttpHandler {
+    private static final Logger log = LoggerFactory.getLogger(JsonEndpointHandler.class);
+
+    private final String path;
+    private final String method;
+    private final byte[] password;
+    private final int maxBodyBytes;
+    private final CipherServerMetrics.EndpointMetrics endpointMetrics;
+    private final CipherServerMetrics metrics;
+    private final Endpoint endpoint;
+
+    JsonEndpointHandler(@NotNull String path,
+                        @NotNull String method,
+                        @Nullable String password,
+                        int maxBodyBytes,
+                        @NotNull CipherServerMetrics metrics,
+                        @NotNull Endpoint endpoint) {
+        this.path = path;
+        this.method = method;
+        this.password = password == null || password.isEmpty() ? null : password.getBytes(StandardCharsets.UTF_8);
+        this.maxBodyBytes = maxBodyBytes;
+        this.endpointMetrics = metrics.getEndpoint(path.substring(1));
+        this.metrics = metrics;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!path.equals(exchange.getRequestURI().getPath())) {
+                sendError(exchange, 404, "Not found");
+            } else if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method);
+                sendError(exchange, 405, "Method not allowed");
+            } else if (!isAuthorized(exchange)) {
+                metrics.recordRejected();
+                sendError(exchange, 401, "Unauthorized");
+            } else {
+                handleAuthorized(exchange);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleAuthorized(@NotNull HttpExchange exchange) throws IOException {
+        String body = readBody(exchange);
+
+        if (body == null) {
+            metrics.recordRejected();
+            sendError(exchange, 413, "Request body exceeds " + maxBodyBytes + " bytes");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+
+        try {
+            JsonBrowser json = body.isEmpty() ? null : JsonBrowser.parse(body);
+            String response = endpoint.handle(json);
+            success = true;
+            send(exchange, 200, response);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Request to {} failed", path, e);
+            sendError(exchange, 500, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            endpointMetrics.record(System.nanoTime() - start, success);
+        }
+    }
+
+    private boolean isAuthorized(@NotNull HttpExchange exchange) {
+        if (password == null) {
+            return true;
+        }
+
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && MessageDigest.isEqual(password, header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The request body, or {@code null} if it is larger than allowed.
+     */
+    @Nullable
+    private String readBody(@NotNull HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+
+        try (InputStream input = exchange.getRequestBody()) {
+            int read;
+
+            while ((read = input.read(buffer)) != -1) {
+                if (output.size() + read > maxBodyBytes) {
+                    return null;
+                }
+
+                output.write(buffer, 0, read);
+            }
+        }
+
+        return new String(output.toByteArray(), StandardCharsets.UTF_8).trim();
+    }
+
+    private static void sendError(@NotNull HttpExchange exchange, int statusCode, @Nullable String message) throws IOException {
+        send(exchange, statusCode, JsonWriter.string().object().value("error", message).end().done());
+    }
+
+    private static void send(@NotNull HttpExchange exchange, int statusCode, @NotNull String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    interface Endpoint {
+        /**
+         * @param body The request body, or {@code null} if it was empty.
+         * @return The response body.
+         */
+        @NotNull
+        String handle(@Nullable JsonBrowser body) throws Exception;
+    }
+}
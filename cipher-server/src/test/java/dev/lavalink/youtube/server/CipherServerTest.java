@@ -0,0 +1,152 @@
+package dev.lavalink.youtube.server;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.cipher.CipherTestScripts;
+import dev.lavalink.youtube.cipher.LocalSignatureCipherManager;
+import dev.lavalink.youtube.cipher.RemoteCipherManager;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class CipherServerTest {
+    private static final String PASSWORD = "hunter2";
+    private static final String PLAYER_SCRIPT = "/s/player/00000000/player_ias.vflset/en_US/base.js";
+    private static final String STS_BODY = "{\"player_url\":\"" + PLAYER_SCRIPT + "\"}";
+
+    private CipherServer server;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testRequiresPassword() throws IOException {
+        start(new CipherServerConfig().setPassword(PASSWORD));
+
+        Assertions.assertEquals(401, request("POST", "/get_sts", null, STS_BODY).statusCode);
+        Assertions.assertEquals(401, request("POST", "/get_sts", "hunter3", STS_BODY).statusCode);
+        Assertions.assertEquals(2, server.getMetrics().getRejectedRequests());
+
+        // Health checks do not need the password.
+        Assertions.assertEquals(200, request("GET", "/health", null, null).statusCode);
+    }
+
+    @Test
+    public void testRejectsOversizedBody() throws IOException {
+        start(new CipherServerConfig().setPassword(PASSWORD).setMaxBodyBytes(1024));
+
+        char[] padding = new char[2048];
+        Arrays.fill(padding, 'a');
+        String body = "{\"player_url\":\"" + PLAYER_SCRIPT + "\",\"padding\":\"" + new String(padding) + "\"}";
+
+        Response response = request("POST", "/get_sts", PASSWORD, body);
+        Assertions.assertEquals(413, response.statusCode);
+        Assertions.assertTrue(response.body.contains("1024"));
+    }
+
+    @Test
+    public void testRejectsUnknownPathsAndMethods() throws IOException {
+        start(new CipherServerConfig());
+
+        Assertions.assertEquals(404, request("POST", "/get_sts/extra", null, STS_BODY).statusCode);
+        Assertions.assertEquals(405, request("GET", "/get_sts", null, null).statusCode);
+    }
+
+    @Test
+    public void testResolvesUrlForRemoteCipherManager() throws IOException {
+        start(new CipherServerConfig());
+        server.getCipherManager().getCipherCache().put(PLAYER_SCRIPT, "hash", CipherTestScripts.createCipher());
+
+        LocalSignatureCipherManager localManager = new LocalSignatureCipherManager();
+        localManager.getCipherCache().put(PLAYER_SCRIPT, "hash", CipherTestScripts.createCipher());
+
+        RemoteCipherManager remoteManager = new RemoteCipherManager("http://127.0.0.1:" + server.getAddress().getPort(),
+            RemoteCipherManager.DEFAULT_MAX_CONCURRENT_REQUESTS, null);
+
+        StreamFormat format = new StreamFormat(ContentType.parse("audio/webm; codecs=\"opus\""), 251, 160_000, 1_000, 2,
+            "https://rr1---sn-example.googlevideo.com/videoplayback?itag=251", CipherTestScripts.N_PARAMETER,
+            CipherTestScripts.SIGNATURE, "sig", true, false);
+
+        try (HttpInterfaceManager interfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+             HttpInterface httpInterface = interfaceManager.getInterface()) {
+            URI expected = localManager.resolveFormatUrl(httpInterface, PLAYER_SCRIPT, format);
+            URI resolved = remoteManager.resolveFormatUrl(httpInterface, PLAYER_SCRIPT, format);
+
+            Assertions.assertEquals(expected, resolved);
+            Assertions.assertEquals(1, remoteManager.getRequestCount());
+        }
+    }
+
+    private void start(CipherServerConfig config) throws IOException {
+        server = new CipherServer(config.setHost("127.0.0.1").setPort(0).setRequestThreads(2));
+        server.start();
+    }
+
+    private Response request(String method, String path, String password, String body) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+
+        if (password != null) {
+            connection.setRequestProperty("Authorization", password);
+        }
+
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        try {
+            int statusCode = connection.getResponseCode();
+            InputStream input = statusCode < 400 ? connection.getInputStream() : connection.getErrorStream();
+            return new Response(statusCode, input == null ? "" : read(input));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String read(InputStream input) throws IOException {
+        try (InputStream stream = input) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class Response {
+        private final int statusCode;
+        private final String body;
+
+        private Response(int statusCode, String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+    }
+}
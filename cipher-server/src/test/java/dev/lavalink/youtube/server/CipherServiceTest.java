@@ -0,0 +1,53 @@
+package dev.lavalink.youtube.server;
+
+import com.grack.nanojson.JsonWriter;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class CipherServiceTest {
+    @Test
+    public void testAcceptsYouTubePlayerUrls() throws IOException {
+        assertAccepted("/s/player/00000000/player_ias.vflset/en_US/base.js");
+        assertAccepted("https://www.youtube.com/s/player/00000000/player_ias.vflset/en_US/base.js");
+        assertAccepted("https://youtube.com/s/player/00000000/player_ias.vflset/en_US/base.js");
+        assertAccepted("//www.youtube.com/s/player/00000000/player_ias.vflset/en_US/base.js");
+    }
+
+    @Test
+    public void testRejectsOtherHosts() throws IOException {
+        assertRejected("https://example.com/s/player/00000000/base.js");
+        assertRejected("https://youtube.com.example.com/s/player/00000000/base.js");
+        assertRejected("https://notyoutube.com/s/player/00000000/base.js");
+        assertRejected("http://www.youtube.com/s/player/00000000/base.js");
+        assertRejected("file:///etc/passwd");
+    }
+
+    @Test
+    public void testRejectsSchemeRelativeUrlsToOtherHosts() throws IOException {
+        assertRejected("//example.com/s/player/00000000/base.js");
+        assertRejected("//127.0.0.1:8080/s/player/00000000/base.js");
+    }
+
+    @Test
+    public void testRejectsMissingPlayerUrl() throws IOException {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CipherService.getPlayerUrl(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CipherService.getPlayerUrl(JsonBrowser.parse("{}")));
+        assertRejected("");
+    }
+
+    private static void assertAccepted(String playerUrl) throws IOException {
+        Assertions.assertEquals(playerUrl, CipherService.getPlayerUrl(body(playerUrl)));
+    }
+
+    private static void assertRejected(String playerUrl) throws IOException {
+        JsonBrowser body = body(playerUrl);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CipherService.getPlayerUrl(body), playerUrl);
+    }
+
+    private static JsonBrowser body(String playerUrl) throws IOException {
+        return JsonBrowser.parse(JsonWriter.string().object().value("player_url", playerUrl).end().done());
+    }
+}
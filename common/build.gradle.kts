@@ -4,6 +4,7 @@ import org.apache.tools.ant.filters.ReplaceTokens
 
 plugins {
     `java-library`
+    `java-test-fixtures`
     alias(libs.plugins.maven.publish.base)
 }
 
@@ -27,6 +28,11 @@ dependencies {
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.11.0-M1")
 }
 
+// The test fixtures are shared with the benchmarks module, but are not published.
+val javaComponent = components["java"] as AdhocComponentWithVariants
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesApiElements"]) { skip() }
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesRuntimeElements"]) { skip() }
+
 mavenPublishing {
     configure(JavaLibrary(JavadocJar.Javadoc()))
 }
@@ -0,0 +1,49 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.BasicAudioPlaylist;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for handing the same loaded item to several callers. Tracks hold playback state, so each caller
+ * must be given its own clones of them.
+ */
+final class AudioItems {
+    private AudioItems() {
+
+    }
+
+    /**
+     * @return A copy of the item with cloned tracks, or the item itself if it holds no tracks, such as an
+     * {@link com.sedmelluq.discord.lavaplayer.track.AudioReference}, which is immutable.
+     */
+    @Nullable
+    static AudioItem copy(@Nullable AudioItem item) {
+        if (item instanceof AudioTrack) {
+            return ((AudioTrack) item).makeClone();
+        } else if (item instanceof AudioPlaylist) {
+            AudioPlaylist playlist = (AudioPlaylist) item;
+            List<AudioTrack> tracks = new ArrayList<>(playlist.getTracks().size());
+            AudioTrack selectedTrack = null;
+
+            for (AudioTrack track : playlist.getTracks()) {
+                AudioTrack clone = track.makeClone();
+
+                if (track == playlist.getSelectedTrack()) {
+                    selectedTrack = clone;
+                }
+
+                tracks.add(clone);
+            }
+
+            return new BasicAudioPlaylist(playlist.getName(), tracks, selectedTrack, playlist.isSearchResult());
+        }
+
+        return item;
+    }
+}
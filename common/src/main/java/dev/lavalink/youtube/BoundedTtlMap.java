@@ -0,0 +1,163 @@
+package dev.lavalink.youtube;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A bounded, least-recently-used map whose entries expire a set time after they were put. Expired entries are
+ * removed when they are next looked up, or evicted by the size bound. All operations are synchronized.
+ * @param <K> The type of the key.
+ * @param <V> The type of the value.
+ */
+public class BoundedTtlMap<K, V> {
+    private final int maxEntries;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries The maximum number of entries to hold. A value of {@code 0} holds none.
+     * @param ttlMs How long an entry may be used for after it was put, in milliseconds.
+     */
+    public BoundedTtlMap(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries The maximum number of entries to hold. A value of {@code 0} holds none.
+     * @param ttlMs How long an entry may be used for after it was put, in milliseconds.
+     * @param clock The source of the current time, in milliseconds.
+     */
+    public BoundedTtlMap(int maxEntries, long ttlMs, @NotNull LongSupplier clock) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        }
+
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlMap.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key The key.
+     * @return The value, or {@code null} if there is none or it has expired.
+     */
+    @Nullable
+    public V get(@NotNull K key) {
+        return get(key, null);
+    }
+
+    /**
+     * @param key The key.
+     * @param valid Whether an unexpired value may still be used. A value that may not is removed.
+     * @return The value, or {@code null} if there is none, it has expired or it may no longer be used.
+     */
+    @Nullable
+    public V get(@NotNull K key, @Nullable Predicate<? super V> valid) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+
+            if (entry != null) {
+                if (clock.getAsLong() < entry.expireTimestampMs && (valid == null || valid.test(entry.value))) {
+                    hits.increment();
+                    return entry.value;
+                }
+
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Puts a value which expires after the time-to-live of this map.
+     */
+    public void put(@NotNull K key, @NotNull V value) {
+        put(key, value, ttlMs);
+    }
+
+    /**
+     * @param key The key.
+     * @param value The value.
+     * @param ttlMs How long the value may be used for, in milliseconds. {@link Long#MAX_VALUE} never expires.
+     */
+    public void put(@NotNull K key, @NotNull V value, long ttlMs) {
+        if (maxEntries == 0) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        long expireTimestampMs = ttlMs > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttlMs;
+
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, expireTimestampMs));
+        }
+    }
+
+    public void remove(@NotNull K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of entries removed due to the size bound, expiry, or no longer being usable.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expireTimestampMs;
+
+        private Entry(V value, long expireTimestampMs) {
+            this.value = value;
+            this.expireTimestampMs = expireTimestampMs;
+        }
+    }
+}
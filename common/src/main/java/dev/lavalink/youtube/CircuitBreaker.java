@@ -0,0 +1,206 @@
+package dev.lavalink.youtube;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the health of a dependency, so that callers can stop using it whilst it is failing. After
+ * enough consecutive failures, or calls slower than the slow call threshold, the breaker opens and
+ * rejects calls. Once the open duration has elapsed, a limited number of probe calls are let through;
+ * should one succeed the breaker closes again, otherwise it re-opens.
+ */
+public class CircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_SLOW_CALL_THRESHOLD_MS = TimeUnit.SECONDS.toMillis(3);
+    public static final long DEFAULT_OPEN_DURATION_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final String name;
+    private final int failureThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationMs;
+    private final long failureWindowMs;
+    private final int halfOpenProbes;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger probesInFlight = new AtomicInteger();
+    private final LongAdder rejectedCalls = new LongAdder();
+    private final LongAdder openings = new LongAdder();
+
+    private volatile State state = State.CLOSED;
+    private volatile long openedAtMs;
+    private volatile long firstFailureAtMs;
+
+    public CircuitBreaker(@NotNull String name) {
+        this(name, DEFAULT_FAILURE_THRESHOLD, DEFAULT_SLOW_CALL_THRESHOLD_MS, DEFAULT_OPEN_DURATION_MS);
+    }
+
+    /**
+     * @param name The name of the dependency, for logging.
+     * @param failureThreshold The number of consecutive failed or slow calls that open the breaker.
+     * @param slowCallThresholdMs How long a call may take before it is treated as a failure, in milliseconds.
+     * @param openDurationMs How long the breaker stays open before a probe call is let through, in milliseconds.
+     */
+    public CircuitBreaker(@NotNull String name, int failureThreshold, long slowCallThresholdMs, long openDurationMs) {
+        this(name, failureThreshold, 0, slowCallThresholdMs, openDurationMs, 1);
+    }
+
+    /**
+     * @param name The name of the dependency, for logging.
+     * @param failureThreshold The number of consecutive failed or slow calls that open the breaker.
+     * @param failureWindowMs The time within which the failures must occur to open the breaker, in milliseconds.
+     *                        Failures older than this are forgotten. {@code 0} keeps them until a call succeeds.
+     * @param slowCallThresholdMs How long a call may take before it is treated as a failure, in milliseconds.
+     * @param openDurationMs How long the breaker stays open before probe calls are let through, in milliseconds.
+     * @param halfOpenProbes The number of probe calls that may be in flight at once whilst the breaker is half-open.
+     */
+    public CircuitBreaker(@NotNull String name,
+                          int failureThreshold,
+                          long failureWindowMs,
+                          long slowCallThresholdMs,
+                          long openDurationMs,
+                          int halfOpenProbes) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+
+        if (halfOpenProbes < 1) {
+            throw new IllegalArgumentException("halfOpenProbes must be at least 1");
+        }
+
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.failureWindowMs = failureWindowMs;
+        this.slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMs);
+        this.openDurationMs = openDurationMs;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * @return Whether a call may be made. When this returns {@code true}, the outcome of the call must be
+     * recorded with {@link #recordSuccess(long)}, {@link #recordFailure()} or {@link #recordAbandoned()}.
+     */
+    public boolean allowRequest() {
+        State current = state;
+
+        if (current == State.CLOSED) {
+            return true;
+        }
+
+        if (current == State.OPEN && System.currentTimeMillis() - openedAtMs >= openDurationMs) {
+            synchronized (this) {
+                if (state == State.OPEN && System.currentTimeMillis() - openedAtMs >= openDurationMs) {
+                    state = State.HALF_OPEN;
+                    probesInFlight.set(0);
+                }
+            }
+        }
+
+        if (state == State.HALF_OPEN) {
+            int probes;
+
+            while ((probes = probesInFlight.get()) < halfOpenProbes) {
+                if (probesInFlight.compareAndSet(probes, probes + 1)) {
+                    log.debug("Probing {} after circuit was opened", name);
+                    return true;
+                }
+            }
+        }
+
+        rejectedCalls.increment();
+        return false;
+    }
+
+    /**
+     * @param elapsedNanos How long the call took. Calls slower than the slow call threshold count as failures.
+     */
+    public void recordSuccess(long elapsedNanos) {
+        if (elapsedNanos > slowCallThresholdNanos) {
+            log.debug("Call to {} took {}ms, treating it as a failure", name, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            recordFailure();
+            return;
+        }
+
+        consecutiveFailures.set(0);
+
+        if (state != State.CLOSED) {
+            synchronized (this) {
+                if (state == State.HALF_OPEN) {
+                    log.info("Circuit for {} closed, it is responding again", name);
+                    state = State.CLOSED;
+                    probesInFlight.set(0);
+                }
+            }
+        }
+    }
+
+    public void recordFailure() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+
+            if (failureWindowMs > 0 && now - firstFailureAtMs > failureWindowMs) {
+                consecutiveFailures.set(0);
+            }
+
+            int failures = consecutiveFailures.incrementAndGet();
+
+            if (failures == 1) {
+                firstFailureAtMs = now;
+            }
+
+            if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+                log.warn("Circuit for {} opened after {} consecutive failures, retrying in {}ms", name, failures, openDurationMs);
+                state = State.OPEN;
+                openedAtMs = now;
+                openings.increment();
+            }
+        }
+    }
+
+    /**
+     * Records that a call allowed by {@link #allowRequest()} was abandoned before its outcome was known, such
+     * as when it was cancelled. This frees the probe slot without affecting the state of the breaker.
+     */
+    public void recordAbandoned() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight.updateAndGet((probes) -> Math.max(0, probes - 1));
+        }
+    }
+
+    @NotNull
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return The number of calls rejected whilst the breaker was open.
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+    /**
+     * @return The number of times the breaker has opened.
+     */
+    public long getOpenings() {
+        return openings.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CircuitBreaker{name=%s, state=%s, rejected=%d, openings=%d}",
+            name, state, getRejectedCalls(), getOpenings());
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,102 @@
+package dev.lavalink.youtube;
+
+import dev.lavalink.youtube.clients.skeleton.Client;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds a {@link CircuitBreaker} for each client and {@link ClientOperation}, so that a client which keeps
+ * failing at an operation is skipped without making a request, whilst it is still used for the operations
+ * it can handle. Only failures count, slow responses do not, as some operations such as loading a large
+ * playlist legitimately take a while.
+ */
+public class ClientCircuitBreakers {
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_FAILURE_WINDOW_MS = TimeUnit.MINUTES.toMillis(1);
+    public static final long DEFAULT_OPEN_DURATION_MS = TimeUnit.SECONDS.toMillis(30);
+    // The number of requests let through at once to check whether a client has recovered.
+    public static final int HALF_OPEN_PROBES = 2;
+
+    private final int failureThreshold;
+    private final long failureWindowMs;
+    private final long openDurationMs;
+    private final Map<ClientOperation, ConcurrentMap<String, CircuitBreaker>> breakers = new EnumMap<>(ClientOperation.class);
+
+    public ClientCircuitBreakers() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_FAILURE_WINDOW_MS, DEFAULT_OPEN_DURATION_MS);
+    }
+
+    /**
+     * @param failureThreshold The number of consecutive failures that open a client's circuit.
+     * @param failureWindowMs The time within which the failures must occur, in milliseconds.
+     * @param openDurationMs How long a client is skipped for before it is probed again, in milliseconds.
+     */
+    public ClientCircuitBreakers(int failureThreshold, long failureWindowMs, long openDurationMs) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+
+        this.failureThreshold = failureThreshold;
+        this.failureWindowMs = failureWindowMs;
+        this.openDurationMs = openDurationMs;
+
+        for (ClientOperation operation : ClientOperation.values()) {
+            breakers.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * @return Whether the client may be used for the operation. When this returns {@code true}, the outcome
+     * must be recorded with {@link #recordSuccess}, {@link #recordFailure} or {@link #recordAbandoned}.
+     */
+    public boolean allowRequest(@NotNull Client client, @NotNull ClientOperation operation) {
+        return getOrCreateBreaker(client, operation).allowRequest();
+    }
+
+    public void recordSuccess(@NotNull Client client, @NotNull ClientOperation operation) {
+        getOrCreateBreaker(client, operation).recordSuccess(0);
+    }
+
+    public void recordFailure(@NotNull Client client, @NotNull ClientOperation operation) {
+        getOrCreateBreaker(client, operation).recordFailure();
+    }
+
+    public void recordAbandoned(@NotNull Client client, @NotNull ClientOperation operation) {
+        getOrCreateBreaker(client, operation).recordAbandoned();
+    }
+
+    /**
+     * @return The circuit breaker of a client for an operation, or {@code null} if the client has not been used for it yet.
+     */
+    @Nullable
+    public CircuitBreaker getCircuitBreaker(@NotNull String clientIdentifier, @NotNull ClientOperation operation) {
+        return breakers.get(operation).get(clientIdentifier);
+    }
+
+    /**
+     * @return The circuit breakers of all clients that have been used for an operation, by client identifier.
+     */
+    @NotNull
+    public Map<String, CircuitBreaker> getCircuitBreakers(@NotNull ClientOperation operation) {
+        return Collections.unmodifiableMap(breakers.get(operation));
+    }
+
+    @Override
+    public String toString() {
+        return "ClientCircuitBreakers" + breakers;
+    }
+
+    @NotNull
+    private CircuitBreaker getOrCreateBreaker(@NotNull Client client, @NotNull ClientOperation operation) {
+        return breakers.get(operation).computeIfAbsent(client.getIdentifier(), (identifier) ->
+            new CircuitBreaker("client " + identifier + " (" + operation + ")", failureThreshold, failureWindowMs,
+                Long.MAX_VALUE, openDurationMs, HALF_OPEN_PROBES));
+    }
+}
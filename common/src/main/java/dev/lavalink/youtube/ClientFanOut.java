@@ -0,0 +1,187 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import dev.lavalink.youtube.clients.skeleton.Client;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queries several clients for the same request concurrently, rather than waiting for each to fail before
+ * trying the next. Clients are started in order, each one stagger delay after the previous, or as soon as
+ * the previous client fails. The first client to return an item wins, and the clients still in flight are
+ * cancelled. With a stagger delay of {@code 0}, all clients are queried at once. Clients are queried on a
+ * bounded pool of threads, so under load, clients wait for a thread rather than each being given their own.
+ */
+class ClientFanOut implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ClientFanOut.class);
+
+    static final int DEFAULT_MAX_THREADS = 32;
+
+    private final long staggerDelayMs;
+    private final ExecutorService executor;
+
+    /**
+     * @param staggerDelayMs How long to wait for a client before also querying the next one, in milliseconds.
+     */
+    ClientFanOut(long staggerDelayMs) {
+        this(staggerDelayMs, DEFAULT_MAX_THREADS);
+    }
+
+    /**
+     * @param staggerDelayMs How long to wait for a client before also querying the next one, in milliseconds.
+     * @param maxThreads The maximum number of clients that may be queried at once, across all loads.
+     */
+    ClientFanOut(long staggerDelayMs, int maxThreads) {
+        if (staggerDelayMs < 0) {
+            throw new IllegalArgumentException("staggerDelayMs must not be negative");
+        }
+
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be at least 1");
+        }
+
+        this.staggerDelayMs = staggerDelayMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "youtube-client-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+    }
+
+    /**
+     * @param clients The clients to query, in order of preference.
+     * @param loader Loads the item with a client. It is called from other threads, so must not use an
+     *               HTTP interface shared with the caller.
+     * @param exceptions The list to add the exceptions thrown by failed clients to, in client order.
+     * @return The first item returned, or {@code null} if no client returned one.
+     * @throws CannotBeLoaded If a client determined that the request cannot be loaded at all.
+     */
+    @Nullable
+    AudioItem load(@NotNull List<Client> clients,
+                   @NotNull Loader loader,
+                   @NotNull List<ClientException> exceptions) throws CannotBeLoaded {
+        if (clients.isEmpty()) {
+            return null;
+        }
+
+        CompletionService<AudioItem> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<AudioItem>, Client> inFlight = new IdentityHashMap<>();
+        List<ClientException> failures = new ArrayList<>();
+        int next = 0;
+
+        try {
+            do {
+                if (next < clients.size() && (inFlight.isEmpty() || staggerDelayMs == 0)) {
+                    next = submit(completionService, inFlight, clients, next, loader);
+                    continue;
+                }
+
+                Future<AudioItem> completed = next < clients.size()
+                    ? completionService.poll(staggerDelayMs, TimeUnit.MILLISECONDS)
+                    : completionService.take();
+
+                if (completed == null) {
+                    log.debug("Client \"{}\" has not responded within {}ms, also querying the next client",
+                        clients.get(next - 1).getIdentifier(), staggerDelayMs);
+                    next = submit(completionService, inFlight, clients, next, loader);
+                    continue;
+                }
+
+                Client client = inFlight.remove(completed);
+
+                try {
+                    AudioItem item = completed.get();
+
+                    if (item != null) {
+                        log.debug("Client \"{}\" won the fan-out with {} clients still in flight",
+                            client.getIdentifier(), inFlight.size());
+                        return item;
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+
+                    if (cause instanceof CompletionException && cause.getCause() instanceof CannotBeLoaded) {
+                        throw (CannotBeLoaded) cause.getCause();
+                    }
+
+                    log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier(), cause);
+                    failures.add(new ClientException(cause.getMessage(), client, cause));
+                }
+
+                // The client failed, so there is no point in waiting out the delay before the next.
+                if (next < clients.size() && inFlight.isEmpty()) {
+                    next = submit(completionService, inFlight, clients, next, loader);
+                }
+            } while (!inFlight.isEmpty());
+
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ExceptionTools.toRuntimeException(e);
+        } finally {
+            for (Future<AudioItem> future : inFlight.keySet()) {
+                future.cancel(true);
+            }
+
+            failures.sort(Comparator.comparingInt(failure -> clients.indexOf(failure.getClient())));
+            exceptions.addAll(failures);
+        }
+    }
+
+    private static int submit(@NotNull CompletionService<AudioItem> completionService,
+                              @NotNull Map<Future<AudioItem>, Client> inFlight,
+                              @NotNull List<Client> clients,
+                              int index,
+                              @NotNull Loader loader) {
+        Client client = clients.get(index);
+
+        Future<AudioItem> future = completionService.submit(() -> {
+            try {
+                return loader.load(client);
+            } catch (CannotBeLoaded e) {
+                throw new CompletionException(e);
+            }
+        });
+
+        inFlight.put(future, client);
+        return index + 1;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    interface Loader {
+        @Nullable
+        AudioItem load(@NotNull Client client) throws CannotBeLoaded, IOException;
+    }
+}
@@ -0,0 +1,13 @@
+package dev.lavalink.youtube;
+
+/**
+ * The kinds of request a client can be asked to handle, which are tracked separately as a client
+ * may fail at one whilst the others keep working.
+ */
+public enum ClientOperation {
+    VIDEO,
+    SEARCH,
+    PLAYLIST,
+    MIX,
+    FORMATS
+}
@@ -0,0 +1,194 @@
+package dev.lavalink.youtube;
+
+import dev.lavalink.youtube.clients.skeleton.Client;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks how well each client performs each {@link ClientOperation}, so that clients which have started
+ * failing can be tried after those that still work. Each client keeps a rolling success rate and latency
+ * per operation, from which a score is derived. Clients are ordered by score, with clients of similar
+ * scores kept in their configured order. Every so often the configured order is used instead, which
+ * gives clients that were moved down the chance to show that they have recovered.
+ */
+public class ClientScoreboard {
+    private static final Logger log = LoggerFactory.getLogger(ClientScoreboard.class);
+
+    public static final int DEFAULT_EXPLORATION_INTERVAL = 20;
+
+    // How much weight each new sample carries in the rolling success rate and latency.
+    static final double SMOOTHING_FACTOR = 0.1;
+    // Responses faster than this are not penalised for their latency.
+    static final long ACCEPTABLE_LATENCY_MS = 1000;
+    // Scores are grouped into this many tiers, clients within the same tier keep their configured order.
+    private static final int SCORE_TIERS = 5;
+
+    private final int explorationInterval;
+    private final Map<ClientOperation, ConcurrentMap<String, ClientScore>> scores = new EnumMap<>(ClientOperation.class);
+    private final Map<ClientOperation, AtomicLong> orderings = new EnumMap<>(ClientOperation.class);
+
+    public ClientScoreboard() {
+        this(DEFAULT_EXPLORATION_INTERVAL);
+    }
+
+    /**
+     * @param explorationInterval Every how many orderings of an operation the configured order is used instead of
+     *                            the scored order. {@code 0} disables this, in which case a client that has been
+     *                            moved down is only used again once the clients ahead of it fail.
+     */
+    public ClientScoreboard(int explorationInterval) {
+        if (explorationInterval < 0) {
+            throw new IllegalArgumentException("explorationInterval must not be negative");
+        }
+
+        this.explorationInterval = explorationInterval;
+
+        for (ClientOperation operation : ClientOperation.values()) {
+            scores.put(operation, new ConcurrentHashMap<>());
+            orderings.put(operation, new AtomicLong());
+        }
+    }
+
+    /**
+     * @param clients The clients, in their configured order.
+     * @param operation The operation the clients are about to be used for.
+     * @return The clients in the order they should be tried.
+     */
+    @NotNull
+    public List<Client> order(@NotNull Client[] clients, @NotNull ClientOperation operation) {
+        List<Client> configured = new ArrayList<>(clients.length);
+        Collections.addAll(configured, clients);
+
+        if (explorationInterval > 0 && orderings.get(operation).incrementAndGet() % explorationInterval == 0) {
+            log.debug("Using configured client order for {} to explore recovered clients", operation);
+            return configured;
+        }
+
+        // Tiers are computed up front, as scores may change whilst sorting.
+        Map<Client, Integer> tiers = new LinkedHashMap<>();
+
+        for (Client client : configured) {
+            ClientScore score = getScore(client.getIdentifier(), operation);
+            tiers.put(client, score == null ? SCORE_TIERS : (int) Math.ceil(score.getScore() * SCORE_TIERS));
+        }
+
+        // List#sort is stable, so clients of the same tier keep their configured order.
+        configured.sort(Comparator.comparing(tiers::get, Comparator.reverseOrder()));
+        return configured;
+    }
+
+    /**
+     * @param elapsedNanos How long the client took to respond.
+     */
+    public void recordSuccess(@NotNull Client client, @NotNull ClientOperation operation, long elapsedNanos) {
+        getOrCreateScore(client, operation).record(true, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    public void recordFailure(@NotNull Client client, @NotNull ClientOperation operation) {
+        getOrCreateScore(client, operation).record(false, -1);
+    }
+
+    /**
+     * @return The score of a client for an operation, or {@code null} if the client has not been used for it yet.
+     */
+    @Nullable
+    public ClientScore getScore(@NotNull String clientIdentifier, @NotNull ClientOperation operation) {
+        return scores.get(operation).get(clientIdentifier);
+    }
+
+    /**
+     * @return The scores of all clients that have been used for an operation, by client identifier.
+     */
+    @NotNull
+    public Map<String, ClientScore> getScores(@NotNull ClientOperation operation) {
+        return Collections.unmodifiableMap(scores.get(operation));
+    }
+
+    /**
+     * Forgets all scores, returning every client to its configured position.
+     */
+    public void reset() {
+        for (Map<String, ClientScore> operationScores : scores.values()) {
+            operationScores.clear();
+        }
+    }
+
+    public int getExplorationInterval() {
+        return explorationInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientScoreboard" + scores;
+    }
+
+    @NotNull
+    private ClientScore getOrCreateScore(@NotNull Client client, @NotNull ClientOperation operation) {
+        return scores.get(operation).computeIfAbsent(client.getIdentifier(), (unused) -> new ClientScore());
+    }
+
+    public static class ClientScore {
+        private double successRate = 1;
+        private double latencyMs = -1;
+        private long samples;
+
+        private synchronized void record(boolean success, long elapsedMs) {
+            successRate += SMOOTHING_FACTOR * ((success ? 1 : 0) - successRate);
+
+            if (elapsedMs >= 0) {
+                latencyMs = latencyMs < 0 ? elapsedMs : latencyMs + SMOOTHING_FACTOR * (elapsedMs - latencyMs);
+            }
+
+            samples++;
+        }
+
+        /**
+         * @return The rolling fraction of calls that succeeded, between {@code 0} and {@code 1}.
+         */
+        public synchronized double getSuccessRate() {
+            return successRate;
+        }
+
+        /**
+         * @return The rolling latency of successful calls in milliseconds, or {@code -1} if none have succeeded yet.
+         */
+        public synchronized double getLatencyMs() {
+            return latencyMs;
+        }
+
+        public synchronized long getSamples() {
+            return samples;
+        }
+
+        /**
+         * @return The success rate, reduced in proportion to how far the latency exceeds
+         * {@link #ACCEPTABLE_LATENCY_MS}. Between {@code 0} and {@code 1}, higher is better.
+         */
+        public synchronized double getScore() {
+            if (latencyMs <= ACCEPTABLE_LATENCY_MS) {
+                return successRate;
+            }
+
+            return successRate * (ACCEPTABLE_LATENCY_MS / latencyMs);
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("{successRate=%.2f, latencyMs=%.0f, samples=%d}", successRate, latencyMs, samples);
+        }
+    }
+}
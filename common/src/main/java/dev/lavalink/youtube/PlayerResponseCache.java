@@ -0,0 +1,161 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A short-lived cache of player responses, keyed by the client that requested them and the video ID, so
+ * that playing a video which was just loaded does not request the same response again. Only playable
+ * responses are cached, and never for longer than the stream URLs within them remain valid. Responses
+ * are bound to the signature timestamp they were requested with, and are not reused once the player
+ * script has changed.
+ */
+public class PlayerResponseCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    // Responses are dropped this long before their stream URLs expire, leaving time to play them.
+    static final long EXPIRY_MARGIN_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final long ttlMs;
+    private final BoundedTtlMap<Key, Entry> entries;
+
+    /**
+     * @param ttlMs How long a response may be reused for, in milliseconds.
+     */
+    public PlayerResponseCache(long ttlMs) {
+        this(DEFAULT_MAX_ENTRIES, ttlMs);
+    }
+
+    /**
+     * @param maxEntries The maximum number of responses to hold.
+     * @param ttlMs How long a response may be reused for, in milliseconds.
+     */
+    public PlayerResponseCache(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries The maximum number of responses to hold.
+     * @param ttlMs How long a response may be reused for, in milliseconds.
+     * @param clock The source of the current time, in milliseconds.
+     */
+    PlayerResponseCache(int maxEntries, long ttlMs, @NotNull LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+
+        this.ttlMs = ttlMs;
+        this.entries = new BoundedTtlMap<>(maxEntries, ttlMs, clock);
+    }
+
+    /**
+     * @param clientIdentifier The identifier of the client that requested the response.
+     * @param videoId The ID of the video.
+     * @param signatureTimestamp The signature timestamp of the current player script, or {@code null} if the
+     *                           client does not use the player script.
+     * @return The cached response, which must not be modified, or {@code null} if there is none.
+     */
+    @Nullable
+    public JsonBrowser get(@NotNull String clientIdentifier, @NotNull String videoId, @Nullable String signatureTimestamp) {
+        Entry entry = entries.get(new Key(clientIdentifier, videoId),
+            (cached) -> Objects.equals(signatureTimestamp, cached.signatureTimestamp));
+
+        return entry == null ? null : entry.response;
+    }
+
+    /**
+     * Caches a response, if it is playable and its stream URLs remain valid for long enough.
+     * @param clientIdentifier The identifier of the client that requested the response.
+     * @param videoId The ID of the video.
+     * @param signatureTimestamp The signature timestamp the response was requested with, if any.
+     * @param response The player response.
+     */
+    public void put(@NotNull String clientIdentifier,
+                    @NotNull String videoId,
+                    @Nullable String signatureTimestamp,
+                    @NotNull JsonBrowser response) {
+        JsonBrowser streamingData = response.get("streamingData");
+
+        if (!"OK".equals(response.get("playabilityStatus").get("status").text()) || streamingData.isNull()) {
+            return;
+        }
+
+        long ttl = ttlMs;
+        long expiresInMs = TimeUnit.SECONDS.toMillis(streamingData.get("expiresInSeconds").asLong(0));
+
+        if (expiresInMs > 0) {
+            ttl = Math.min(ttl, expiresInMs - EXPIRY_MARGIN_MS);
+        }
+
+        if (ttl <= 0) {
+            return;
+        }
+
+        entries.put(new Key(clientIdentifier, videoId), new Entry(response, signatureTimestamp), ttl);
+    }
+
+    /**
+     * Removes a response, such as when its stream URLs turned out not to be playable.
+     */
+    public void remove(@NotNull String clientIdentifier, @NotNull String videoId) {
+        entries.remove(new Key(clientIdentifier, videoId));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return entries.getHits();
+    }
+
+    public long getMisses() {
+        return entries.getMisses();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlayerResponseCache{size=%d, hits=%d, misses=%d}", size(), getHits(), getMisses());
+    }
+
+    private static class Key {
+        private final String clientIdentifier;
+        private final String videoId;
+
+        private Key(String clientIdentifier, String videoId) {
+            this.clientIdentifier = clientIdentifier;
+            this.videoId = videoId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return videoId.equals(other.videoId) && clientIdentifier.equals(other.clientIdentifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clientIdentifier, videoId);
+        }
+    }
+
+    private static class Entry {
+        private final JsonBrowser response;
+        private final String signatureTimestamp;
+
+        private Entry(JsonBrowser response, String signatureTimestamp) {
+            this.response = response;
+            this.signatureTimestamp = signatureTimestamp;
+        }
+    }
+}
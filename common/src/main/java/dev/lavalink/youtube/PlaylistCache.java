@@ -0,0 +1,207 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded, least-recently-used cache of playlist tracks, keyed by playlist ID, so that loading a large
+ * playlist again does not fetch every page of it again. Once a playlist has expired, it is kept so that it can
+ * be revalidated against the first page of the playlist: if the first page and the reported number of videos
+ * are unchanged, the cached tracks are reused rather than fetching the remaining pages.
+ */
+public class PlaylistCache {
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+    public static final long DEFAULT_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final BoundedTtlMap<String, CachedPlaylist> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PlaylistCache(long ttlMs) {
+        this(DEFAULT_MAX_ENTRIES, ttlMs);
+    }
+
+    /**
+     * @param maxEntries The maximum number of playlists to hold.
+     * @param ttlMs How long the tracks of a playlist may be reused for without revalidating them, in milliseconds.
+     */
+    public PlaylistCache(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries The maximum number of playlists to hold.
+     * @param ttlMs How long the tracks of a playlist may be reused for without revalidating them, in milliseconds.
+     * @param clock The source of the current time, in milliseconds.
+     */
+    PlaylistCache(int maxEntries, long ttlMs, @NotNull LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        // Expired playlists are kept for revalidation, so only the size bound removes them.
+        this.entries = new BoundedTtlMap<>(maxEntries, Long.MAX_VALUE, clock);
+    }
+
+    /**
+     * @param playlistId The ID of the playlist.
+     * @return The cached playlist, which may have expired, or {@code null} if it is not cached.
+     */
+    @Nullable
+    public CachedPlaylist get(@NotNull String playlistId) {
+        return entries.get(playlistId);
+    }
+
+    /**
+     * Caches the tracks of a playlist.
+     * @param playlistId The ID of the playlist.
+     * @param name The name of the playlist.
+     * @param tracks The tracks of the playlist, of which copies are cached.
+     * @param firstPageVideoIds The IDs of the videos on the first page of the playlist.
+     * @param videoCount The number of videos the playlist reported having, or {@code -1} if it is unknown.
+     */
+    public void put(@NotNull String playlistId,
+                    @NotNull String name,
+                    @NotNull List<AudioTrack> tracks,
+                    @NotNull List<String> firstPageVideoIds,
+                    long videoCount) {
+        List<AudioTrack> copies = new ArrayList<>(tracks.size());
+
+        for (AudioTrack track : tracks) {
+            copies.add(track.makeClone());
+        }
+
+        entries.put(playlistId, new CachedPlaylist(name, copies, firstPageVideoIds, videoCount, clock, clock.getAsLong() + ttlMs));
+    }
+
+    /**
+     * Checks an expired playlist against its current first page, extending its lifetime if it is unchanged.
+     * @param playlistId The ID of the playlist.
+     * @param playlist The expired playlist, as returned by {@link #get(String)}.
+     * @param name The current name of the playlist, which may have changed without affecting its tracks.
+     * @param firstPageVideoIds The IDs of the videos currently on the first page of the playlist.
+     * @param videoCount The number of videos the playlist currently reports having, or {@code -1} if it is unknown.
+     * @return True if the cached tracks may still be used.
+     */
+    public boolean revalidate(@NotNull String playlistId,
+                              @NotNull CachedPlaylist playlist,
+                              @NotNull String name,
+                              @NotNull List<String> firstPageVideoIds,
+                              long videoCount) {
+        // Without a video count, videos added beyond the first page would go unnoticed.
+        if (videoCount < 0 || videoCount != playlist.videoCount || !firstPageVideoIds.equals(playlist.firstPageVideoIds)) {
+            misses.increment();
+            return false;
+        }
+
+        entries.put(playlistId, new CachedPlaylist(name, playlist.tracks, playlist.firstPageVideoIds, playlist.videoCount,
+            clock, clock.getAsLong() + ttlMs));
+
+        revalidations.increment();
+        return true;
+    }
+
+    /**
+     * Records that a playlist was answered from the cache without making a request.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records that a playlist was not cached.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void remove(@NotNull String playlistId) {
+        entries.remove(playlistId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlaylistCache{size=%d, hits=%d, revalidations=%d, misses=%d}",
+            size(), getHits(), getRevalidations(), getMisses());
+    }
+
+    public static class CachedPlaylist {
+        private final String name;
+        private final List<AudioTrack> tracks;
+        private final List<String> firstPageVideoIds;
+        private final long videoCount;
+        private final LongSupplier clock;
+        private final long expireTimestampMs;
+
+        private CachedPlaylist(String name,
+                               List<AudioTrack> tracks,
+                               List<String> firstPageVideoIds,
+                               long videoCount,
+                               LongSupplier clock,
+                               long expireTimestampMs) {
+            this.name = name;
+            this.tracks = Collections.unmodifiableList(tracks);
+            this.firstPageVideoIds = Collections.unmodifiableList(new ArrayList<>(firstPageVideoIds));
+            this.videoCount = videoCount;
+            this.clock = clock;
+            this.expireTimestampMs = expireTimestampMs;
+        }
+
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return New copies of the tracks of the playlist, which may be given to a caller.
+         */
+        @NotNull
+        public List<AudioTrack> copyTracks() {
+            List<AudioTrack> copies = new ArrayList<>(tracks.size());
+
+            for (AudioTrack track : tracks) {
+                copies.add(track.makeClone());
+            }
+
+            return copies;
+        }
+
+        public boolean isExpired() {
+            return clock.getAsLong() >= expireTimestampMs;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded, least-recently-used cache of search results, keyed by search prefix and normalised query, so that
+ * popular queries are not searched for again each time. Queries are case-folded and have their whitespace
+ * collapsed, as YouTube returns the same results regardless. Concurrent searches for the same query are
+ * coalesced into a single search. Each caller is given its own copy of the results.
+ */
+public class SearchResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final BoundedTtlMap<String, AudioItem> entries;
+    private final SingleFlight<String, AudioItem> searches = new SingleFlight<>();
+    private final ConcurrentMap<String, PrefixStats> stats = new ConcurrentHashMap<>();
+
+    public SearchResultCache(long ttlMs) {
+        this(DEFAULT_MAX_ENTRIES, ttlMs);
+    }
+
+    /**
+     * @param maxEntries The maximum number of queries to hold results for.
+     * @param ttlMs How long the results of a query may be reused for, in milliseconds.
+     */
+    public SearchResultCache(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries The maximum number of queries to hold results for.
+     * @param ttlMs How long the results of a query may be reused for, in milliseconds.
+     * @param clock The source of the current time, in milliseconds.
+     */
+    SearchResultCache(int maxEntries, long ttlMs, @NotNull LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+
+        this.entries = new BoundedTtlMap<>(maxEntries, ttlMs, clock);
+    }
+
+    /**
+     * @param identifier The search identifier, including its prefix, such as {@code ytsearch:}.
+     * @param loader Performs the search, should the results not be cached and no search for the same query be
+     *               in flight.
+     * @return A copy of the search results.
+     * @throws IOException If the search failed with an IOException, or waiting for a concurrent search was interrupted.
+     */
+    @Nullable
+    public AudioItem load(@NotNull String identifier, @NotNull SingleFlight.Loader<AudioItem> loader) throws IOException {
+        String prefix = getPrefix(identifier);
+        String key = prefix + normalizeQuery(identifier.substring(prefix.length()));
+        PrefixStats prefixStats = stats.computeIfAbsent(prefix, (unused) -> new PrefixStats());
+        AudioItem cached = entries.get(key);
+
+        if (cached != null) {
+            prefixStats.hits.increment();
+            return AudioItems.copy(cached);
+        }
+
+        prefixStats.misses.increment();
+
+        AudioItem item = searches.execute(key, () -> {
+            AudioItem result = loader.load();
+
+            if (result instanceof AudioPlaylist || result == AudioReference.NO_TRACK) {
+                entries.put(key, result);
+            }
+
+            return result;
+        });
+
+        return AudioItems.copy(item);
+    }
+
+    /**
+     * @return The query with surrounding whitespace removed, runs of whitespace collapsed into single spaces,
+     * and case folded.
+     */
+    @NotNull
+    public static String normalizeQuery(@NotNull String query) {
+        return WHITESPACE.matcher(query.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param prefix The search prefix, such as {@code ytsearch:}.
+     * @return The number of searches with the prefix that were answered from the cache.
+     */
+    public long getHits(@NotNull String prefix) {
+        PrefixStats prefixStats = stats.get(prefix);
+        return prefixStats == null ? 0 : prefixStats.hits.sum();
+    }
+
+    /**
+     * @param prefix The search prefix, such as {@code ytsearch:}.
+     * @return The number of searches with the prefix that were not cached. Concurrent searches for the same query
+     * each count as a miss, even though they were coalesced.
+     */
+    public long getMisses(@NotNull String prefix) {
+        PrefixStats prefixStats = stats.get(prefix);
+        return prefixStats == null ? 0 : prefixStats.misses.sum();
+    }
+
+    /**
+     * @param prefix The search prefix, such as {@code ytsearch:}.
+     * @return The fraction of searches with the prefix answered from the cache, or {@code 0} if there have been none.
+     */
+    public double getHitRate(@NotNull String prefix) {
+        long hits = getHits(prefix);
+        long total = hits + getMisses(prefix);
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SearchResultCache{size=").append(size());
+
+        for (String prefix : stats.keySet()) {
+            builder.append(String.format(", %s hits=%d misses=%d", prefix, getHits(prefix), getMisses(prefix)));
+        }
+
+        return builder.append('}').toString();
+    }
+
+    @NotNull
+    private static String getPrefix(@NotNull String identifier) {
+        if (identifier.startsWith(YoutubeAudioSourceManager.MUSIC_SEARCH_PREFIX)) {
+            return YoutubeAudioSourceManager.MUSIC_SEARCH_PREFIX;
+        } else if (identifier.startsWith(YoutubeAudioSourceManager.SEARCH_PREFIX)) {
+            return YoutubeAudioSourceManager.SEARCH_PREFIX;
+        }
+
+        throw new IllegalArgumentException("Not a search identifier: " + identifier);
+    }
+
+    private static class PrefixStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+}
@@ -0,0 +1,81 @@
+package dev.lavalink.youtube;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces concurrent loads of the same key, so that only one caller performs the load whilst any
+ * other callers for that key wait for, and share, its result. Loads of different keys proceed in parallel.
+ * Results are not retained once the load has completed.
+ * @param <K> The type of the key.
+ * @param <V> The type of the loaded value.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param key The key to load.
+     * @param loader The loader to invoke, should no load for this key currently be in flight.
+     * @return The loaded value.
+     * @throws IOException If the load failed with an IOException.
+     */
+    public V execute(@NotNull K key, @NotNull Loader<V> loader) throws IOException {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.load();
+            future.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return The number of keys that are currently being loaded.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(@NotNull CompletableFuture<V> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst waiting for a concurrent load");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else if (cause instanceof IOException) {
+                // Wrap, so that the stack trace reflects this caller too.
+                throw new IOException(cause.getMessage(), cause);
+            }
+
+            throw new IOException(cause);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws IOException;
+    }
+}
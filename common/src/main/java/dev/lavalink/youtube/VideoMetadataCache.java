@@ -0,0 +1,93 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.tools.Units;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded, least-recently-used cache of video metadata, keyed by video ID. Search, playlist and mix results
+ * already carry the metadata of every video within them, so loading one of those videos by its URL shortly
+ * afterwards can be answered from this cache instead of asking YouTube again. Only videos with a known duration
+ * are cached, as the metadata of live streams and upcoming videos is incomplete in such results.
+ */
+public class VideoMetadataCache {
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final BoundedTtlMap<String, AudioTrackInfo> entries;
+
+    public VideoMetadataCache(long ttlMs) {
+        this(DEFAULT_MAX_ENTRIES, ttlMs);
+    }
+
+    /**
+     * @param maxEntries The maximum number of videos to hold.
+     * @param ttlMs How long the metadata of a video may be reused for, in milliseconds.
+     */
+    public VideoMetadataCache(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries The maximum number of videos to hold.
+     * @param ttlMs How long the metadata of a video may be reused for, in milliseconds.
+     * @param clock The source of the current time, in milliseconds.
+     */
+    VideoMetadataCache(int maxEntries, long ttlMs, @NotNull LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+
+        this.entries = new BoundedTtlMap<>(maxEntries, ttlMs, clock);
+    }
+
+    /**
+     * @param videoId The ID of the video.
+     * @return The metadata of the video, or {@code null} if it is not cached.
+     */
+    @Nullable
+    public AudioTrackInfo get(@NotNull String videoId) {
+        return entries.get(videoId);
+    }
+
+    /**
+     * Caches the metadata of a video, if it is complete.
+     * @param info The metadata of the video, with the video ID as its identifier.
+     */
+    public void put(@NotNull AudioTrackInfo info) {
+        if (info.isStream || info.length <= 0 || info.length == Units.DURATION_MS_UNKNOWN) {
+            return;
+        }
+
+        entries.put(info.identifier, info);
+    }
+
+    public void remove(@NotNull String videoId) {
+        entries.remove(videoId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return entries.getHits();
+    }
+
+    public long getMisses() {
+        return entries.getMisses();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VideoMetadataCache{size=%d, hits=%d, misses=%d}", size(), getHits(), getMisses());
+    }
+}
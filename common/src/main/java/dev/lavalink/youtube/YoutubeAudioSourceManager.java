@@ -14,6 +14,9 @@ import com.sedmelluq.discord.lavaplayer.track.AudioReference;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import dev.lavalink.youtube.UrlTools.UrlInfo;
+import dev.lavalink.youtube.cipher.CipherDiskCache;
+import dev.lavalink.youtube.cipher.CipherResultCache;
+import dev.lavalink.youtube.cipher.HedgedCipherManager;
 import dev.lavalink.youtube.cipher.LocalSignatureCipherManager;
 import dev.lavalink.youtube.cipher.RemoteCipherManager;
 import dev.lavalink.youtube.cipher.CipherManager;
@@ -30,13 +33,16 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -75,6 +81,15 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
     protected final boolean allowSearch;
     protected final boolean allowDirectVideoIds;
     protected final boolean allowDirectPlaylistIds;
+    protected final long throttleThresholdBytesPerSecond;
+    protected final ClientFanOut clientFanOut;
+    protected final ClientScoreboard clientScoreboard;
+    protected final ClientCircuitBreakers clientCircuitBreakers;
+    protected final PlayerResponseCache playerResponseCache;
+    protected final VideoMetadataCache videoMetadataCache;
+    protected final SearchResultCache searchResultCache;
+    protected final PlaylistCache playlistCache;
+    protected final SingleFlight<String, AudioItem> itemLoads;
     protected final Client[] clients;
 
     protected YoutubeOauth2Handler oauth2Handler;
@@ -146,6 +161,18 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         this.allowSearch = options.isAllowSearch();
         this.allowDirectVideoIds = options.isAllowDirectVideoIds();
         this.allowDirectPlaylistIds = options.isAllowDirectPlaylistIds();
+        this.throttleThresholdBytesPerSecond = options.getThrottleThresholdBytesPerSecond();
+        this.clientFanOut = options.getClientFanOutDelayMs() >= 0 ? new ClientFanOut(options.getClientFanOutDelayMs()) : null;
+        this.clientScoreboard = options.isAdaptiveClientOrdering() ? new ClientScoreboard(options.getClientExplorationInterval()) : null;
+        this.clientCircuitBreakers = options.getClientCircuitBreakerFailureThreshold() > 0
+            ? new ClientCircuitBreakers(options.getClientCircuitBreakerFailureThreshold(),
+                options.getClientCircuitBreakerFailureWindowMs(), options.getClientCircuitBreakerOpenDurationMs())
+            : null;
+        this.playerResponseCache = options.getPlayerResponseCacheTtlMs() > 0 ? new PlayerResponseCache(options.getPlayerResponseCacheTtlMs()) : null;
+        this.videoMetadataCache = options.getVideoMetadataCacheTtlMs() > 0 ? new VideoMetadataCache(options.getVideoMetadataCacheTtlMs()) : null;
+        this.searchResultCache = options.getSearchResultCacheTtlMs() > 0 ? new SearchResultCache(options.getSearchResultCacheTtlMs()) : null;
+        this.playlistCache = options.getPlaylistCacheTtlMs() > 0 ? new PlaylistCache(options.getPlaylistCacheTtlMs()) : null;
+        this.itemLoads = options.isItemLoadCoalescing() ? new SingleFlight<>() : null;
         this.clients = clients;
         this.oauth2Handler = new YoutubeOauth2Handler(httpInterfaceManager);
 
@@ -156,10 +183,23 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
 
         if (!DataFormatTools.isNullOrEmpty(options.getRemoteCipherUrl())) {
             contextFilter.setCipherConfig(options.getRemoteCipherPassword(), options.getRemoteCipherUserAgent(), YoutubeSource.VERSION);
-            this.cipherManager = new RemoteCipherManager(options.getRemoteCipherUrl());
+            if (options.getRemoteCipherHedgeDelayMs() >= 0) {
+                // The local cipher is raced against the remote cipher, so it need not also be a fallback.
+                RemoteCipherManager remoteCipherManager = new RemoteCipherManager(options.getRemoteCipherUrl(),
+                    options.getRemoteCipherMaxConcurrentRequests(), null);
+
+                this.cipherManager = new HedgedCipherManager(remoteCipherManager, createLocalCipherManager(options),
+                    options.getRemoteCipherHedgeDelayMs());
+            } else {
+                this.cipherManager = new RemoteCipherManager(options.getRemoteCipherUrl(),
+                    options.getRemoteCipherMaxConcurrentRequests(),
+                    options.isRemoteCipherLocalFallback() ? createLocalCipherManager(options) : null);
+            }
         } else {
-            this.cipherManager = new LocalSignatureCipherManager();
+            this.cipherManager = createLocalCipherManager(options);
         }
+
+        this.cipherManager.setHttpInterfaceManager(httpInterfaceManager);
     }
 
     @Override
@@ -201,6 +241,11 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
     @Override
     @Nullable
     public AudioItem loadItem(@NotNull AudioPlayerManager manager, @NotNull AudioReference reference) {
+        return loadItemWithRetry(reference);
+    }
+
+    @Nullable
+    protected AudioItem loadItemWithRetry(@NotNull AudioReference reference) {
         try {
             return loadItemOnce(reference);
         } catch (FriendlyException exception) {
@@ -215,9 +260,6 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
 
     @Nullable
     protected AudioItem loadItemOnce(@NotNull AudioReference reference) {
-        AudioItem item = null;
-        List<ClientException> exceptions = new ArrayList<>();
-
         try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
             Router router = getRouter(httpInterface, reference.identifier);
 
@@ -229,37 +271,87 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
                 return AudioReference.NO_TRACK;
             }
 
-            for (Client client : clients) {
-                if (!client.canHandleRequest(reference.identifier)) {
+            String key = router.getKey();
+
+            if (itemLoads == null || key == null) {
+                return loadRoutedItem(httpInterface, reference.identifier, router);
+            }
+
+            // Concurrent loads of the same target, however it was referred to, share a single load, and each
+            // receives its own copy of the result.
+            return AudioItems.copy(itemLoads.execute(key, () -> loadRoutedItem(httpInterface, reference.identifier, router)));
+        } catch (IOException e) {
+            throw ExceptionTools.toRuntimeException(e);
+        }
+    }
+
+    @Nullable
+    private AudioItem loadRoutedItem(@NotNull HttpInterface httpInterface,
+                                     @NotNull String identifier,
+                                     @NotNull Router router) throws IOException {
+        if (searchResultCache != null && router.getOperation() == ClientOperation.SEARCH) {
+            return searchResultCache.load(identifier, () -> loadItemWithClients(httpInterface, identifier, router));
+        }
+
+        return loadItemWithClients(httpInterface, identifier, router);
+    }
+
+    /**
+     * Loads an item with the clients able to handle it, one after another, or concurrently when client fan-out
+     * is enabled.
+     */
+    @Nullable
+    protected AudioItem loadItemWithClients(@NotNull HttpInterface httpInterface,
+                                            @NotNull String identifier,
+                                            @NotNull Router router) {
+        AudioItem item = null;
+        List<ClientException> exceptions = new ArrayList<>();
+
+        if (clientFanOut != null) {
+            item = loadItemWithFanOut(identifier, router, exceptions);
+        } else {
+            ClientOperation operation = router.getOperation();
+            int skippedClients = 0;
+            int attemptedClients = 0;
+
+            for (Client client : getOrderedClients(operation)) {
+                if (!client.canHandleRequest(identifier)) {
                     continue;
                 }
 
-                boolean shouldLogOauthWarning = client.supportsOAuth() && !loggedOauthClientNoAccountWarning &&
-                    !oauth2Handler.hasAccessToken() && client.getOptions().getPlayback();
-
-                if (shouldLogOauthWarning) {
-                    loggedOauthClientNoAccountWarning = true;
-                    log.warn("!!! You are using an OAuth-enabled client without a valid OAuth token! This client may not play videos!");
+                if (!allowClientRequest(client, operation)) {
+                    log.debug("Skipping client \"{}\" for {}, its circuit is open", client.getIdentifier(), identifier);
+                    skippedClients++;
+                    continue;
                 }
 
-                log.debug("Attempting to load {} with client \"{}\"", reference.identifier, client.getIdentifier());
+                attemptedClients++;
+                warnIfOauthClientWithoutToken(client);
+                log.debug("Attempting to load {} with client \"{}\"", identifier, client.getIdentifier());
                 httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
 
+                long startNanos = System.nanoTime();
+
                 try {
-                    item = router.route(client);
+                    item = router.route(client, httpInterface);
+                    recordClientSuccess(client, operation, System.nanoTime() - startNanos);
                 } catch (CannotBeLoaded cbl) {
+                    recordClientAbandoned(client, operation);
                     throw ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", Severity.SUSPICIOUS, cbl.getCause());
                 } catch (Throwable t) {
                     log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier(), t);
                     exceptions.add(new ClientException(t.getMessage(), client, t));
+                    recordClientFailure(client, operation);
                 }
 
                 if (item != null) {
                     break;
                 }
             }
-        } catch (IOException e) {
-            throw ExceptionTools.toRuntimeException(e);
+
+            if (attemptedClients == 0 && skippedClients > 0) {
+                throw createClientsUnavailableException(skippedClients);
+            }
         }
 
         if (!exceptions.isEmpty()) {
@@ -269,12 +361,165 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
 
             String exceptionSummary = exceptions.stream().map(ClientException::getFormattedMessage).collect(Collectors.toList()).toString();
 
-            log.debug("Exceptions suppressed whilst loading {}: {}", reference.identifier, exceptionSummary);
+            log.debug("Exceptions suppressed whilst loading {}: {}", identifier, exceptionSummary);
         }
 
         return item;
     }
 
+    /**
+     * Queries all clients able to handle the request concurrently, see {@link YoutubeSourceOptions#setClientFanOutDelayMs(long)}.
+     * The target has already been resolved by the router, so each client is only given its own HTTP interface to
+     * route with, as an interface cannot be shared between threads.
+     */
+    @Nullable
+    protected AudioItem loadItemWithFanOut(@NotNull String identifier,
+                                           @NotNull Router router,
+                                           @NotNull List<ClientException> exceptions) {
+        ClientOperation operation = router.getOperation();
+        List<Client> eligibleClients = new ArrayList<>();
+
+        for (Client client : getOrderedClients(operation)) {
+            if (client.canHandleRequest(identifier)) {
+                warnIfOauthClientWithoutToken(client);
+                eligibleClients.add(client);
+            }
+        }
+
+        log.debug("Attempting to load {} with clients {} concurrently", identifier,
+            eligibleClients.stream().map(Client::getIdentifier).collect(Collectors.toList()));
+
+        AtomicInteger skippedClients = new AtomicInteger();
+        AudioItem item;
+
+        try {
+            // Circuits are checked as each client starts, as clients that are never started must not hold a probe.
+            item = clientFanOut.load(eligibleClients, (client) -> {
+                if (!allowClientRequest(client, operation)) {
+                    log.debug("Skipping client \"{}\" for {}, its circuit is open", client.getIdentifier(), identifier);
+                    skippedClients.incrementAndGet();
+                    return null;
+                }
+
+                try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+                    httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+                    long startNanos = System.nanoTime();
+
+                    try {
+                        AudioItem result = router.route(client, httpInterface);
+                        recordClientSuccess(client, operation, System.nanoTime() - startNanos);
+                        return result;
+                    } catch (CannotBeLoaded e) {
+                        recordClientAbandoned(client, operation);
+                        throw e;
+                    } catch (IOException | RuntimeException e) {
+                        // Clients that lost the race are interrupted, which is not their fault.
+                        if (Thread.currentThread().isInterrupted()) {
+                            recordClientAbandoned(client, operation);
+                        } else {
+                            recordClientFailure(client, operation);
+                        }
+
+                        throw e;
+                    }
+                }
+            }, exceptions);
+        } catch (CannotBeLoaded cbl) {
+            throw ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", Severity.SUSPICIOUS, cbl.getCause());
+        }
+
+        if (!eligibleClients.isEmpty() && skippedClients.get() == eligibleClients.size()) {
+            throw createClientsUnavailableException(skippedClients.get());
+        }
+
+        return item;
+    }
+
+    /**
+     * @param operation The operation the clients are about to be used for, or {@code null} if it is not known.
+     * @return The registered clients in the order they should be tried. This is the configured order, unless
+     * adaptive client ordering is enabled, see {@link YoutubeSourceOptions#setAdaptiveClientOrdering(boolean)}.
+     */
+    @NotNull
+    public List<Client> getOrderedClients(@Nullable ClientOperation operation) {
+        if (clientScoreboard == null || operation == null) {
+            return Arrays.asList(clients);
+        }
+
+        return clientScoreboard.order(clients, operation);
+    }
+
+    /**
+     * @param operation The operation the client is about to be used for, or {@code null} if it is not known.
+     * @return Whether the client may be used, which is not the case whilst its circuit for the operation is open,
+     * see {@link YoutubeSourceOptions#setClientCircuitBreaker(int, long, long)}. When this returns {@code true},
+     * the outcome must be recorded with one of the {@code recordClient} methods.
+     */
+    public boolean allowClientRequest(@NotNull Client client, @Nullable ClientOperation operation) {
+        return clientCircuitBreakers == null || operation == null || clientCircuitBreakers.allowRequest(client, operation);
+    }
+
+    /**
+     * Records that a client handled an operation, for adaptive client ordering and circuit breaking.
+     * @param elapsedNanos How long the client took.
+     */
+    public void recordClientSuccess(@NotNull Client client, @Nullable ClientOperation operation, long elapsedNanos) {
+        if (operation == null) {
+            return;
+        }
+
+        if (clientScoreboard != null) {
+            clientScoreboard.recordSuccess(client, operation, elapsedNanos);
+        }
+
+        if (clientCircuitBreakers != null) {
+            clientCircuitBreakers.recordSuccess(client, operation);
+        }
+    }
+
+    /**
+     * Records that a client failed to handle an operation, for adaptive client ordering and circuit breaking.
+     */
+    public void recordClientFailure(@NotNull Client client, @Nullable ClientOperation operation) {
+        if (operation == null) {
+            return;
+        }
+
+        if (clientScoreboard != null) {
+            clientScoreboard.recordFailure(client, operation);
+        }
+
+        if (clientCircuitBreakers != null) {
+            clientCircuitBreakers.recordFailure(client, operation);
+        }
+    }
+
+    /**
+     * Records that an attempt to use a client ended without telling whether the client works, such as when
+     * it was cancelled, or the item turned out to be unavailable.
+     */
+    public void recordClientAbandoned(@NotNull Client client, @Nullable ClientOperation operation) {
+        if (clientCircuitBreakers != null && operation != null) {
+            clientCircuitBreakers.recordAbandoned(client, operation);
+        }
+    }
+
+    @NotNull
+    private static FriendlyException createClientsUnavailableException(int skippedClients) {
+        return new FriendlyException("All clients able to load this item are temporarily unavailable.", Severity.SUSPICIOUS,
+            new IllegalStateException("The circuits of all " + skippedClients + " eligible clients are open"));
+    }
+
+    private void warnIfOauthClientWithoutToken(@NotNull Client client) {
+        boolean shouldLogOauthWarning = client.supportsOAuth() && !loggedOauthClientNoAccountWarning &&
+            !oauth2Handler.hasAccessToken() && client.getOptions().getPlayback();
+
+        if (shouldLogOauthWarning) {
+            loggedOauthClientNoAccountWarning = true;
+            log.warn("!!! You are using an OAuth-enabled client without a valid OAuth token! This client may not play videos!");
+        }
+    }
+
     @Nullable
     protected Router getRouter(@NotNull HttpInterface httpInterface, @NotNull String identifier) {
         if (identifier.startsWith(SEARCH_PREFIX)) {
@@ -285,7 +530,7 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
                     return Router.none; // Equivalent to returning AudioReference.NO_TRACK.
                 }
 
-                return (client) -> client.loadSearch(this, httpInterface, identifier.substring(SEARCH_PREFIX.length()).trim());
+                return Router.of(ClientOperation.SEARCH, SEARCH_PREFIX + trimmed, (client, routeInterface) -> client.loadSearch(this, routeInterface, identifier.substring(SEARCH_PREFIX.length()).trim()));
             }
         } else if (identifier.startsWith(MUSIC_SEARCH_PREFIX)) {
             if (allowSearch) {
@@ -295,7 +540,7 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
                     return Router.none; // Equivalent to returning AudioReference.NO_TRACK.
                 }
 
-                return (client) -> client.loadSearchMusic(this, httpInterface, identifier.substring(MUSIC_SEARCH_PREFIX.length()).trim());
+                return Router.of(ClientOperation.SEARCH, MUSIC_SEARCH_PREFIX + trimmed, (client, routeInterface) -> client.loadSearchMusic(this, routeInterface, identifier.substring(MUSIC_SEARCH_PREFIX.length()).trim()));
             }
         } else {
             Matcher mainDomainMatcher = mainDomainPattern.matcher(identifier);
@@ -313,10 +558,10 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
                     if (playlistId != null) {
                         if (playlistId.startsWith("RD")) { // mix handling
                             String videoId = playlistId.substring(2);
-                            return (client) -> client.loadMix(this, httpInterface, playlistId, videoId);
+                            return Router.of(ClientOperation.MIX, playlistId + "/" + videoId, (client, routeInterface) -> client.loadMix(this, routeInterface, playlistId, videoId));
                         }
 
-                        return (client) -> client.loadPlaylist(this, httpInterface, playlistId, null);
+                        return Router.of(ClientOperation.PLAYLIST, playlistId, (client, routeInterface) -> client.loadPlaylist(this, routeInterface, playlistId, null));
                     }
                 } else if ("/watch_videos".equals(urlInfo.path)) {
                     String videoIds = urlInfo.parameters.get("video_ids");
@@ -348,7 +593,7 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
             Matcher playlistIdMatcher = directPlaylistIdPattern.matcher(identifier);
 
             if (allowDirectPlaylistIds && playlistIdMatcher.matches()) {
-                return (client) -> client.loadPlaylist(this, httpInterface, identifier, null);
+                return Router.of(ClientOperation.PLAYLIST, identifier, (client, routeInterface) -> client.loadPlaylist(this, routeInterface, identifier, null));
             }
 
             Matcher shortHandMatcher = shortHandPattern.matcher(identifier);
@@ -373,21 +618,37 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
             String playlistId = urlInfo.parameters.get("list");
 
             if (playlistId.startsWith("RD")) {
-                return (client) -> client.loadMix(this, httpInterface, playlistId, trimmedId);
+                return Router.of(ClientOperation.MIX, playlistId + "/" + trimmedId, (client, routeInterface) -> client.loadMix(this, routeInterface, playlistId, trimmedId));
             }
 
             if (!playlistId.startsWith("LL") && // Liked videos (requires logged-in user)
                 !playlistId.startsWith("WL") && // Watch later (requires logged-in user)
                 !playlistId.startsWith("LM")) { // Liked music (requires logged-in user)
-                return (client) -> client.loadPlaylist(this, httpInterface, playlistId, trimmedId);
+                return Router.of(ClientOperation.PLAYLIST, playlistId + "/" + trimmedId, (client, routeInterface) -> client.loadPlaylist(this, routeInterface, playlistId, trimmedId));
             }
         }
 
-        return (client) -> client.loadVideo(this, httpInterface, trimmedId);
+        AudioTrackInfo cachedInfo = videoMetadataCache != null ? videoMetadataCache.get(trimmedId) : null;
+
+        if (cachedInfo != null) {
+            log.debug("Loading {} from the video metadata cache", trimmedId);
+            // Not tied to an operation, as the client this is routed to does not do anything.
+            return (client, routeInterface) -> new YoutubeAudioTrack(cachedInfo, this);
+        }
+
+        return Router.of(ClientOperation.VIDEO, trimmedId, (client, routeInterface) -> client.loadVideo(this, routeInterface, trimmedId));
     }
 
+    /**
+     * Builds a track from the metadata extracted by a client. The metadata is also added to the video metadata
+     * cache, if enabled, so that the video can be loaded again without a request.
+     */
     @NotNull
     public YoutubeAudioTrack buildAudioTrack(AudioTrackInfo trackInfo) {
+        if (videoMetadataCache != null) {
+            videoMetadataCache.put(trackInfo);
+        }
+
         return new YoutubeAudioTrack(trackInfo, this);
     }
 
@@ -406,11 +667,24 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
             return (RemoteCipherManager) cipherManager;
         }
 
+        if (cipherManager instanceof HedgedCipherManager
+            && ((HedgedCipherManager) cipherManager).getPrimary() instanceof RemoteCipherManager) {
+            return (RemoteCipherManager) ((HedgedCipherManager) cipherManager).getPrimary();
+        }
+
         return null;
     }
 
+    /**
+     * @return The sustained download throughput below which a stream is considered throttled, in bytes per second.
+     */
+    public long getThrottleThresholdBytesPerSecond() {
+        return throttleThresholdBytesPerSecond;
+    }
+
     public void setCipherManager(@NotNull CipherManager cipherManager) {
         this.cipherManager = cipherManager;
+        cipherManager.setHttpInterfaceManager(httpInterfaceManager);
     }
 
     /**
@@ -434,6 +708,56 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         return clients;
     }
 
+    /**
+     * @return The cache of playlist tracks, or {@code null} if it is disabled.
+     */
+    @Nullable
+    public PlaylistCache getPlaylistCache() {
+        return playlistCache;
+    }
+
+    /**
+     * @return The cache of search results, or {@code null} if it is disabled.
+     */
+    @Nullable
+    public SearchResultCache getSearchResultCache() {
+        return searchResultCache;
+    }
+
+    /**
+     * @return The cache of video metadata taken from search, playlist and mix results, or {@code null} if it
+     * is disabled.
+     */
+    @Nullable
+    public VideoMetadataCache getVideoMetadataCache() {
+        return videoMetadataCache;
+    }
+
+    /**
+     * @return The cache of player responses shared between loading and playing videos, or {@code null} if
+     * it is disabled.
+     */
+    @Nullable
+    public PlayerResponseCache getPlayerResponseCache() {
+        return playerResponseCache;
+    }
+
+    /**
+     * @return The circuit breakers of the clients, or {@code null} if client circuit breaking is disabled.
+     */
+    @Nullable
+    public ClientCircuitBreakers getClientCircuitBreakers() {
+        return clientCircuitBreakers;
+    }
+
+    /**
+     * @return The scoreboard used to order clients, or {@code null} if adaptive client ordering is disabled.
+     */
+    @Nullable
+    public ClientScoreboard getClientScoreboard() {
+        return clientScoreboard;
+    }
+
     @NotNull
     public YoutubeHttpContextFilter getContextFilter() {
         return contextFilter;
@@ -470,16 +794,83 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         return new YoutubeAudioTrack(trackInfo, this);
     }
 
+    @NotNull
+    private static LocalSignatureCipherManager createLocalCipherManager(@NotNull YoutubeSourceOptions options) {
+        CipherDiskCache diskCache = DataFormatTools.isNullOrEmpty(options.getCipherCacheDirectory())
+            ? null
+            : new CipherDiskCache(Paths.get(options.getCipherCacheDirectory()), options.getCipherCacheMaxSizeBytes());
+
+        return new LocalSignatureCipherManager(options.getCipherExecutionPoolSize(),
+            options.getCipherOptimizationLevel(), new CipherResultCache(), diskCache);
+    }
+
     @Override
     public void shutdown() {
         ExceptionTools.closeWithWarnings(httpInterfaceManager);
+
+        if (clientFanOut != null) {
+            clientFanOut.close();
+        }
+
+        if (cipherManager instanceof Closeable) {
+            ExceptionTools.closeWithWarnings((Closeable) cipherManager);
+        }
     }
 
     @FunctionalInterface
     protected interface Router {
-        Router none = (unused) -> AudioReference.NO_TRACK;
+        Router none = (unused, unusedInterface) -> AudioReference.NO_TRACK;
+
+        /**
+         * @param client The client to load the target with.
+         * @param httpInterface The HTTP interface for the client to use, which may differ from the one the
+         *                      router was resolved with.
+         */
+        @Nullable
+        AudioItem route(@NotNull Client client, @NotNull HttpInterface httpInterface) throws CannotBeLoaded, IOException;
+
+        /**
+         * @return The operation this router performs with a client, or {@code null} if it is not known.
+         */
+        @Nullable
+        default ClientOperation getOperation() {
+            return null;
+        }
 
+        /**
+         * @return A key identifying what this router loads, made of its operation and the canonical ID of its
+         * target, so that the same target is identified by the same key however it was referred to. May be
+         * {@code null} if it is not known.
+         */
         @Nullable
-        AudioItem route(@NotNull Client client) throws CannotBeLoaded, IOException;
+        default String getKey() {
+            return null;
+        }
+
+        /**
+         * @param target The canonical ID of what is loaded, such as a video ID, a playlist ID with the selected
+         *               video ID, or a search query with its prefix.
+         */
+        @NotNull
+        static Router of(@NotNull ClientOperation operation, @NotNull String target, @NotNull Router router) {
+            String key = operation.name() + ":" + target;
+
+            return new Router() {
+                @Override
+                public AudioItem route(@NotNull Client client, @NotNull HttpInterface httpInterface) throws CannotBeLoaded, IOException {
+                    return router.route(client, httpInterface);
+                }
+
+                @Override
+                public ClientOperation getOperation() {
+                    return operation;
+                }
+
+                @Override
+                public String getKey() {
+                    return key;
+                }
+            };
+        }
     }
 }
@@ -1,5 +1,9 @@
 package dev.lavalink.youtube;
 
+import dev.lavalink.youtube.cipher.CipherDiskCache;
+import dev.lavalink.youtube.cipher.RemoteCipherManager;
+import dev.lavalink.youtube.cipher.SignatureCipher;
+import dev.lavalink.youtube.track.YoutubePersistentHttpStream;
 import org.jetbrains.annotations.Nullable;
 
 public class YoutubeSourceOptions {
@@ -9,6 +13,25 @@ public class YoutubeSourceOptions {
     private String remoteCipherUrl;
     private String remoteCipherPassword;
     private String remoteCipherUserAgent;
+    private int remoteCipherMaxConcurrentRequests = RemoteCipherManager.DEFAULT_MAX_CONCURRENT_REQUESTS;
+    private boolean remoteCipherLocalFallback = true;
+    private long remoteCipherHedgeDelayMs = -1;
+    private int cipherExecutionPoolSize = SignatureCipher.DEFAULT_MAX_EXECUTION_CONTEXTS;
+    private int cipherOptimizationLevel = SignatureCipher.INTERPRETED_OPTIMIZATION_LEVEL;
+    private String cipherCacheDirectory;
+    private long cipherCacheMaxSizeBytes = CipherDiskCache.DEFAULT_MAX_SIZE_BYTES;
+    private long clientFanOutDelayMs = -1;
+    private boolean adaptiveClientOrdering = false;
+    private int clientExplorationInterval = ClientScoreboard.DEFAULT_EXPLORATION_INTERVAL;
+    private int clientCircuitBreakerFailureThreshold = 0;
+    private long clientCircuitBreakerFailureWindowMs = ClientCircuitBreakers.DEFAULT_FAILURE_WINDOW_MS;
+    private long clientCircuitBreakerOpenDurationMs = ClientCircuitBreakers.DEFAULT_OPEN_DURATION_MS;
+    private long playerResponseCacheTtlMs = 0;
+    private long videoMetadataCacheTtlMs = 0;
+    private long searchResultCacheTtlMs = 0;
+    private long playlistCacheTtlMs = 0;
+    private boolean itemLoadCoalescing = true;
+    private long throttleThresholdBytesPerSecond = 0;
 
     public boolean isAllowSearch() {
         return allowSearch;
@@ -57,5 +80,268 @@ public class YoutubeSourceOptions {
         return remoteCipherUserAgent;
     }
 
+    public int getRemoteCipherMaxConcurrentRequests() {
+        return remoteCipherMaxConcurrentRequests;
+    }
+
+    /**
+     * Sets the maximum number of requests that may be in flight to the remote cipher server at once.
+     */
+    public YoutubeSourceOptions setRemoteCipherMaxConcurrentRequests(int remoteCipherMaxConcurrentRequests) {
+        this.remoteCipherMaxConcurrentRequests = remoteCipherMaxConcurrentRequests;
+        return this;
+    }
+
+    public boolean isRemoteCipherLocalFallback() {
+        return remoteCipherLocalFallback;
+    }
+
+    /**
+     * Sets whether the local signature cipher should be used whilst the remote cipher server is failing or slow to
+     * respond. The remote cipher server is used again once it recovers.
+     */
+    public YoutubeSourceOptions setRemoteCipherLocalFallback(boolean remoteCipherLocalFallback) {
+        this.remoteCipherLocalFallback = remoteCipherLocalFallback;
+        return this;
+    }
+
+    public long getRemoteCipherHedgeDelayMs() {
+        return remoteCipherHedgeDelayMs;
+    }
+
+    /**
+     * Sets how long to wait for the remote cipher server to resolve a stream URL before racing the local signature
+     * cipher against it, taking whichever responds first. A negative value, the default, disables this.
+     */
+    public YoutubeSourceOptions setRemoteCipherHedgeDelayMs(long remoteCipherHedgeDelayMs) {
+        this.remoteCipherHedgeDelayMs = remoteCipherHedgeDelayMs;
+        return this;
+    }
+
+    public int getCipherExecutionPoolSize() {
+        return cipherExecutionPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of JavaScript contexts that may execute the local signature cipher concurrently.
+     * This has no effect when a remote cipher server is used.
+     * @throws IllegalArgumentException If the size is less than 1.
+     */
+    public YoutubeSourceOptions setCipherExecutionPoolSize(int cipherExecutionPoolSize) {
+        if (cipherExecutionPoolSize < 1) {
+            throw new IllegalArgumentException("cipherExecutionPoolSize must be at least 1");
+        }
+
+        this.cipherExecutionPoolSize = cipherExecutionPoolSize;
+        return this;
+    }
+
+    public int getCipherOptimizationLevel() {
+        return cipherOptimizationLevel;
+    }
+
+    /**
+     * Sets the Rhino optimization level that the local signature cipher functions are compiled at. From 0 to 9, the
+     * functions are compiled to JVM bytecode, which the JIT can then optimise. At -1, the default, they are interpreted.
+     * This has no effect when a remote cipher server is used.
+     */
+    public YoutubeSourceOptions setCipherOptimizationLevel(int cipherOptimizationLevel) {
+        this.cipherOptimizationLevel = cipherOptimizationLevel;
+        return this;
+    }
+
+    @Nullable
+    public String getCipherCacheDirectory() {
+        return cipherCacheDirectory;
+    }
+
+    public long getCipherCacheMaxSizeBytes() {
+        return cipherCacheMaxSizeBytes;
+    }
+
+    /**
+     * Sets a directory in which the local signature cipher persists extracted ciphers, so that they
+     * can be reused after a restart without downloading and parsing the player script again.
+     * This has no effect when a remote cipher server is used.
+     * @param cipherCacheDirectory The directory to use, or {@code null} to disable persistence.
+     * @param maxSizeBytes The maximum size of the persisted ciphers.
+     */
+    public YoutubeSourceOptions setCipherCacheDirectory(@Nullable String cipherCacheDirectory, long maxSizeBytes) {
+        this.cipherCacheDirectory = cipherCacheDirectory;
+        this.cipherCacheMaxSizeBytes = maxSizeBytes;
+        return this;
+    }
+
+    public long getThrottleThresholdBytesPerSecond() {
+        return throttleThresholdBytesPerSecond;
+    }
+
+    /**
+     * Sets the sustained download throughput below which a stream is considered throttled by YouTube.
+     * Throttled streams are resumed from their current position with a URL resolved by the next client. Should
+     * no client be left, playback carries on with the throttled stream. On a slow host, or a busy node where
+     * each stream gets little bandwidth, unthrottled streams may fall below the threshold too, so it should be
+     * set well below the throughput streams are normally delivered at.
+     * @param throttleThresholdBytesPerSecond The threshold in bytes per second, such as
+     *                                        {@link YoutubePersistentHttpStream#SUGGESTED_THROTTLE_THRESHOLD_BYTES_PER_SECOND}.
+     *                                        {@code 0}, the default, disables throttling detection.
+     */
+    public YoutubeSourceOptions setThrottleThresholdBytesPerSecond(long throttleThresholdBytesPerSecond) {
+        this.throttleThresholdBytesPerSecond = throttleThresholdBytesPerSecond;
+        return this;
+    }
+
+    public long getClientFanOutDelayMs() {
+        return clientFanOutDelayMs;
+    }
+
+    /**
+     * Enables querying clients concurrently when loading items, rather than only trying a client once the
+     * previous one has failed. Clients are started in order, each one this delay after the previous, or as
+     * soon as the previous fails, and the first item returned is used. This lowers load latency when clients
+     * fail, at the cost of making more requests.
+     * @param clientFanOutDelayMs The delay before also querying the next client, in milliseconds. {@code 0}
+     *                            queries all clients at once, and a negative value, the default, disables this.
+     */
+    public YoutubeSourceOptions setClientFanOutDelayMs(long clientFanOutDelayMs) {
+        this.clientFanOutDelayMs = clientFanOutDelayMs;
+        return this;
+    }
 
+    public boolean isAdaptiveClientOrdering() {
+        return adaptiveClientOrdering;
+    }
+
+    /**
+     * Enables reordering clients by how well they have recently performed, tracked separately for loading
+     * videos, searches, playlists, mixes and formats. Clients that keep failing, or respond slowly, are tried
+     * after those that work, rather than in the configured order.
+     * @param adaptiveClientOrdering Whether to order clients by their recent performance. Disabled by default.
+     */
+    public YoutubeSourceOptions setAdaptiveClientOrdering(boolean adaptiveClientOrdering) {
+        this.adaptiveClientOrdering = adaptiveClientOrdering;
+        return this;
+    }
+
+    public int getClientExplorationInterval() {
+        return clientExplorationInterval;
+    }
+
+    /**
+     * @param clientExplorationInterval When adaptive client ordering is enabled, every how many requests the
+     *                                  configured order is used instead, so that clients which recovered can
+     *                                  regain their position. {@code 0} disables this.
+     */
+    public YoutubeSourceOptions setClientExplorationInterval(int clientExplorationInterval) {
+        this.clientExplorationInterval = clientExplorationInterval;
+        return this;
+    }
+
+    public int getClientCircuitBreakerFailureThreshold() {
+        return clientCircuitBreakerFailureThreshold;
+    }
+
+    public long getClientCircuitBreakerFailureWindowMs() {
+        return clientCircuitBreakerFailureWindowMs;
+    }
+
+    public long getClientCircuitBreakerOpenDurationMs() {
+        return clientCircuitBreakerOpenDurationMs;
+    }
+
+    /**
+     * Enables circuit breaking of clients. A client that fails at loading videos, searches, playlists, mixes or
+     * formats enough times in a row is skipped for that operation, without making a request, until the open
+     * duration has elapsed. A few requests are then let through, and the client is used again once one succeeds.
+     * @param failureThreshold The number of consecutive failures that open a client's circuit. {@code 0}, the
+     *                         default, disables circuit breaking.
+     * @param failureWindowMs The time within which the failures must occur, in milliseconds.
+     * @param openDurationMs How long a client is skipped for before it is tried again, in milliseconds.
+     */
+    public YoutubeSourceOptions setClientCircuitBreaker(int failureThreshold, long failureWindowMs, long openDurationMs) {
+        this.clientCircuitBreakerFailureThreshold = failureThreshold;
+        this.clientCircuitBreakerFailureWindowMs = failureWindowMs;
+        this.clientCircuitBreakerOpenDurationMs = openDurationMs;
+        return this;
+    }
+
+    public long getPlayerResponseCacheTtlMs() {
+        return playerResponseCacheTtlMs;
+    }
+
+    /**
+     * Enables caching player responses, so that playing a video shortly after loading it reuses the response
+     * fetched whilst loading, rather than requesting it again. Responses are never reused after their stream
+     * URLs expire. As stream URLs are bound to the IP address they were requested from, this should not be
+     * enabled when requests are spread over several IP addresses.
+     * @param playerResponseCacheTtlMs How long a response may be reused for, in milliseconds. {@code 0}, the
+     *                                 default, disables the cache.
+     */
+    public YoutubeSourceOptions setPlayerResponseCacheTtlMs(long playerResponseCacheTtlMs) {
+        this.playerResponseCacheTtlMs = playerResponseCacheTtlMs;
+        return this;
+    }
+
+    public long getVideoMetadataCacheTtlMs() {
+        return videoMetadataCacheTtlMs;
+    }
+
+    /**
+     * Enables caching the metadata of the videos within search, playlist and mix results, so that loading one
+     * of those videos by its URL afterwards does not make a request. The availability of a video loaded from
+     * the cache is only checked once it is played.
+     * @param videoMetadataCacheTtlMs How long the metadata of a video may be reused for, in milliseconds. {@code 0},
+     *                                the default, disables the cache.
+     */
+    public YoutubeSourceOptions setVideoMetadataCacheTtlMs(long videoMetadataCacheTtlMs) {
+        this.videoMetadataCacheTtlMs = videoMetadataCacheTtlMs;
+        return this;
+    }
+
+    public long getSearchResultCacheTtlMs() {
+        return searchResultCacheTtlMs;
+    }
+
+    /**
+     * Enables caching search results, so that repeated searches for the same query, ignoring case and
+     * whitespace, do not make a request. Concurrent searches for the same query are also coalesced.
+     * @param searchResultCacheTtlMs How long the results of a search may be reused for, in milliseconds. {@code 0},
+     *                               the default, disables the cache.
+     */
+    public YoutubeSourceOptions setSearchResultCacheTtlMs(long searchResultCacheTtlMs) {
+        this.searchResultCacheTtlMs = searchResultCacheTtlMs;
+        return this;
+    }
+
+    public long getPlaylistCacheTtlMs() {
+        return playlistCacheTtlMs;
+    }
+
+    /**
+     * Enables caching the tracks of playlists, so that loading a playlist again does not fetch every page of
+     * it. Once a playlist has expired, only its first page is fetched, and the cached tracks are reused if the
+     * first page and the number of videos in the playlist are unchanged.
+     * @param playlistCacheTtlMs How long the tracks of a playlist may be reused for before revalidating them,
+     *                           in milliseconds. {@code 0}, the default, disables the cache.
+     */
+    public YoutubeSourceOptions setPlaylistCacheTtlMs(long playlistCacheTtlMs) {
+        this.playlistCacheTtlMs = playlistCacheTtlMs;
+        return this;
+    }
+
+    public boolean isItemLoadCoalescing() {
+        return itemLoadCoalescing;
+    }
+
+    /**
+     * Sets whether concurrent loads of the same video, playlist or search should share a single load, rather
+     * than each querying the clients, even if they were referred to by different identifiers, such as a video
+     * ID and a watch URL. Every caller receives its own copy of the result, or the same exception.
+     * Enabled by default.
+     * @param itemLoadCoalescing Whether to coalesce concurrent loads of the same target.
+     */
+    public YoutubeSourceOptions setItemLoadCoalescing(boolean itemLoadCoalescing) {
+        this.itemLoadCoalescing = itemLoadCoalescing;
+        return this;
+    }
 }
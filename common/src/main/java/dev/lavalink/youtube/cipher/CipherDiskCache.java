@@ -0,0 +1,307 @@
+package dev.lavalink.youtube.cipher;
+
+import com.grack.nanojson.JsonWriter;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import dev.lavalink.youtube.YoutubeSource;
+import dev.lavalink.youtube.cipher.CipherManager.CachedPlayerScript;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Persists extracted cipher components, and the most recently used player script, to a directory so
+ * that they survive restarts. Every entry carries a checksum of its contents, and the version of the
+ * source that wrote it; entries that fail verification, or that were extracted by another version, and
+ * so possibly by outdated patterns, are discarded. The directory is kept under a configurable size by removing the
+ * least recently written entries.
+ */
+public class CipherDiskCache {
+    private static final Logger log = LoggerFactory.getLogger(CipherDiskCache.class);
+
+    public static final long DEFAULT_MAX_SIZE_BYTES = 16 * 1024 * 1024;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String CIPHER_PREFIX = "cipher-";
+    private static final String PLAYER_SCRIPT_FILE = "player-script.json";
+    private static final String EXTENSION = ".json";
+
+    private final Path directory;
+    private final long maxSizeBytes;
+    private final String sourceVersion;
+
+    /**
+     * @param directory The directory to store entries in. It will be created if it does not exist.
+     * @param maxSizeBytes The maximum total size of the stored cipher entries.
+     */
+    public CipherDiskCache(@NotNull Path directory, long maxSizeBytes) {
+        this(directory, maxSizeBytes, YoutubeSource.VERSION);
+    }
+
+    /**
+     * @param directory The directory to store entries in. It will be created if it does not exist.
+     * @param maxSizeBytes The maximum total size of the stored cipher entries.
+     * @param sourceVersion The version of the source, which entries must have been written by to be used.
+     */
+    CipherDiskCache(@NotNull Path directory, long maxSizeBytes, @NotNull String sourceVersion) {
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+        this.sourceVersion = sourceVersion;
+    }
+
+    @NotNull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param scriptUrl The URL of the player script.
+     * @return The cipher components extracted from the script, or {@code null} if there is no valid entry.
+     */
+    @Nullable
+    public CipherEntry loadCipher(@NotNull String scriptUrl) {
+        JsonBrowser json = read(cipherPath(scriptUrl));
+
+        if (json == null || !scriptUrl.equals(json.get("url").text())) {
+            return null;
+        }
+
+        CipherEntry entry = new CipherEntry(
+            json.get("scriptHash").safeText(),
+            json.get("timestamp").safeText(),
+            json.get("globalVars").safeText(),
+            json.get("sigActions").safeText(),
+            json.get("sigFunction").safeText(),
+            json.get("nFunction").safeText()
+        );
+
+        return entry.scriptHash.isEmpty() || entry.timestamp.isEmpty() ? null : entry;
+    }
+
+    /**
+     * @param scriptUrl The URL of the player script.
+     * @param scriptHash The hash of the player script's content.
+     * @param cipher The cipher extracted from the script.
+     */
+    public void storeCipher(@NotNull String scriptUrl, @NotNull String scriptHash, @NotNull SignatureCipher cipher) {
+        String payload = JsonWriter.string()
+            .object()
+            .value("url", scriptUrl)
+            .value("scriptHash", scriptHash)
+            .value("timestamp", cipher.timestamp)
+            .value("globalVars", cipher.globalVars)
+            .value("sigActions", cipher.sigActions)
+            .value("sigFunction", cipher.sigFunction)
+            .value("nFunction", cipher.nFunction)
+            .end()
+            .done();
+
+        write(cipherPath(scriptUrl), payload);
+        evict();
+    }
+
+    /**
+     * @return The last player script stored, or {@code null} if there is no valid entry.
+     */
+    @Nullable
+    public PersistedPlayerScript loadPlayerScript() {
+        JsonBrowser json = read(directory.resolve(PLAYER_SCRIPT_FILE));
+
+        if (json == null || json.get("url").isNull() || json.get("signatureTimestamp").isNull()) {
+            return null;
+        }
+
+        return new PersistedPlayerScript(
+            json.get("url").text(),
+            json.get("signatureTimestamp").text(),
+            json.get("expireTimestampMs").asLong(0)
+        );
+    }
+
+    public void storePlayerScript(@NotNull CachedPlayerScript playerScript) {
+        String payload = JsonWriter.string()
+            .object()
+            .value("url", playerScript.url)
+            .value("signatureTimestamp", playerScript.signatureTimestamp)
+            .value("expireTimestampMs", playerScript.expireTimestampMs)
+            .end()
+            .done();
+
+        write(directory.resolve(PLAYER_SCRIPT_FILE), payload);
+    }
+
+    @NotNull
+    private Path cipherPath(@NotNull String scriptUrl) {
+        return directory.resolve(CIPHER_PREFIX + PlayerScriptStore.hash(scriptUrl) + EXTENSION);
+    }
+
+    @Nullable
+    private JsonBrowser read(@NotNull Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try {
+            JsonBrowser json = JsonBrowser.parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            String payload = json.get("payload").text();
+
+            if (json.get("version").asLong(0) == FORMAT_VERSION
+                && payload != null
+                && PlayerScriptStore.hash(payload).equals(json.get("checksum").text())) {
+                if (sourceVersion.equals(json.get("sourceVersion").text())) {
+                    return JsonBrowser.parse(payload);
+                }
+
+                log.debug("Discarding cipher cache entry {} as it was written by source version {}", path,
+                    json.get("sourceVersion").text());
+                delete(path);
+                return null;
+            }
+
+            log.warn("Discarding cipher cache entry {} as it failed verification", path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable cipher cache entry {}", path, e);
+        }
+
+        delete(path);
+        return null;
+    }
+
+    private void write(@NotNull Path path, @NotNull String payload) {
+        String contents = JsonWriter.string()
+            .object()
+            .value("version", FORMAT_VERSION)
+            .value("sourceVersion", sourceVersion)
+            .value("checksum", PlayerScriptStore.hash(payload))
+            .value("payload", payload)
+            .end()
+            .done();
+
+        Path temp = null;
+
+        try {
+            Files.createDirectories(directory);
+            // Write to a temporary file first, so that readers never observe a partially written entry.
+            temp = Files.createTempFile(directory, "entry", ".tmp");
+            Files.write(temp, contents.getBytes(StandardCharsets.UTF_8));
+
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // A partially written entry fails its checksum, and so is discarded rather than used.
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write cipher cache entry {}", path, e);
+        } finally {
+            // Temporary files are not counted towards the size limit, so must not be left behind.
+            if (temp != null) {
+                delete(temp);
+            }
+        }
+    }
+
+    private synchronized void evict() {
+        List<Path> entries = new ArrayList<>();
+        long totalSize = 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, CIPHER_PREFIX + "*" + EXTENSION)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+                totalSize += Files.size(entry);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list cipher cache directory {}", directory, e);
+            return;
+        }
+
+        if (totalSize <= maxSizeBytes) {
+            return;
+        }
+
+        entries.sort(Comparator.comparingLong(CipherDiskCache::lastModified));
+
+        for (Path entry : entries) {
+            if (totalSize <= maxSizeBytes) {
+                break;
+            }
+
+            try {
+                long size = Files.size(entry);
+                Files.deleteIfExists(entry);
+                totalSize -= size;
+                log.debug("Evicted cipher cache entry {}", entry);
+            } catch (IOException e) {
+                log.warn("Failed to evict cipher cache entry {}", entry, e);
+            }
+        }
+    }
+
+    private static long lastModified(@NotNull Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(@NotNull Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Failed to delete cipher cache entry {}", path, e);
+        }
+    }
+
+    /**
+     * The components of a cipher, as read from disk.
+     */
+    public static class CipherEntry {
+        public final String scriptHash;
+        public final String timestamp;
+        public final String globalVars;
+        public final String sigActions;
+        public final String sigFunction;
+        public final String nFunction;
+
+        CipherEntry(@NotNull String scriptHash,
+                    @NotNull String timestamp,
+                    @NotNull String globalVars,
+                    @NotNull String sigActions,
+                    @NotNull String sigFunction,
+                    @NotNull String nFunction) {
+            this.scriptHash = scriptHash;
+            this.timestamp = timestamp;
+            this.globalVars = globalVars;
+            this.sigActions = sigActions;
+            this.sigFunction = sigFunction;
+            this.nFunction = nFunction;
+        }
+    }
+
+    /**
+     * A player script, as read from disk.
+     */
+    public static class PersistedPlayerScript {
+        public final String url;
+        public final String signatureTimestamp;
+        public final long expireTimestampMs;
+
+        PersistedPlayerScript(@NotNull String url, @NotNull String signatureTimestamp, long expireTimestampMs) {
+            this.url = url;
+            this.signatureTimestamp = signatureTimestamp;
+            this.expireTimestampMs = expireTimestampMs;
+        }
+    }
+}
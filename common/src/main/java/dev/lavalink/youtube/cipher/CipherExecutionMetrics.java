@@ -0,0 +1,108 @@
+package dev.lavalink.youtube.cipher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing how cipher functions are being executed, and how often callers
+ * had to wait for a free execution context.
+ */
+public class CipherExecutionMetrics {
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder nativeExecutions = new LongAdder();
+    private final LongAdder contendedExecutions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder contextsCreated = new LongAdder();
+    private final LongAdder compiledScripts = new LongAdder();
+    private final LongAdder interpretedScripts = new LongAdder();
+    private final LongAdder compilationFallbacks = new LongAdder();
+
+    void recordExecution() {
+        executions.increment();
+    }
+
+    void recordNativeExecution() {
+        nativeExecutions.increment();
+    }
+
+    void recordContention(long waitedNanos) {
+        contendedExecutions.increment();
+        waitNanos.add(waitedNanos);
+    }
+
+    void recordContextCreated() {
+        contextsCreated.increment();
+    }
+
+    void recordCompilation(boolean bytecode) {
+        (bytecode ? compiledScripts : interpretedScripts).increment();
+    }
+
+    void recordCompilationFallback() {
+        compilationFallbacks.increment();
+    }
+
+    /**
+     * @return The number of cipher functions executed by the script engine.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return The number of signature cipher applications that were performed in Java, without a script engine.
+     */
+    public long getNativeExecutions() {
+        return nativeExecutions.sum();
+    }
+
+    /**
+     * @return The number of executions that had to wait for an execution context to become available.
+     */
+    public long getContendedExecutions() {
+        return contendedExecutions.sum();
+    }
+
+    /**
+     * @return The total time spent waiting for execution contexts, in milliseconds.
+     */
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    /**
+     * @return The number of execution contexts that have been created across all player scripts.
+     */
+    public long getContextsCreated() {
+        return contextsCreated.sum();
+    }
+
+    /**
+     * @return The number of cipher scripts compiled to JVM bytecode.
+     */
+    public long getCompiledScripts() {
+        return compiledScripts.sum();
+    }
+
+    /**
+     * @return The number of cipher scripts prepared for interpretation.
+     */
+    public long getInterpretedScripts() {
+        return interpretedScripts.sum();
+    }
+
+    /**
+     * @return The number of cipher scripts that could not be compiled to JVM bytecode, and so are interpreted instead.
+     */
+    public long getCompilationFallbacks() {
+        return compilationFallbacks.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CipherExecutionMetrics{executions=%d, nativeExecutions=%d, contended=%d, totalWaitMs=%d, " +
+                "contextsCreated=%d, compiledScripts=%d, interpretedScripts=%d, compilationFallbacks=%d}",
+            getExecutions(), getNativeExecutions(), getContendedExecutions(), getTotalWaitMillis(), getContextsCreated(),
+            getCompiledScripts(), getInterpretedScripts(), getCompilationFallbacks());
+    }
+}
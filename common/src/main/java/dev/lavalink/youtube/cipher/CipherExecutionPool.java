@@ -0,0 +1,139 @@
+package dev.lavalink.youtube.cipher;
+
+import org.jetbrains.annotations.NotNull;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+
+import javax.script.ScriptException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of execution scopes for one compiled cipher script. The script is compiled
+ * once and shared, whilst every scope holds its own copy of the script's global state, so
+ * that concurrent callers never observe each other's mutations.
+ */
+class CipherExecutionPool {
+    /**
+     * A rough estimate of the memory held by one execution scope before the script has run, which is dominated by
+     * Rhino's standard objects.
+     */
+    static final long ESTIMATED_SCOPE_BYTES = 128 * 1024;
+
+    private final ContextFactory contextFactory;
+    private final Script script;
+    private final int maxContexts;
+    private final CipherExecutionMetrics metrics;
+    private final BlockingQueue<ScriptableObject> idleScopes;
+    private final AtomicInteger createdContexts;
+
+    CipherExecutionPool(@NotNull ContextFactory contextFactory,
+                        @NotNull Script script,
+                        int maxContexts,
+                        @NotNull CipherExecutionMetrics metrics) {
+        if (maxContexts < 1) {
+            throw new IllegalArgumentException("maxContexts must be at least 1");
+        }
+
+        this.contextFactory = contextFactory;
+        this.script = script;
+        this.maxContexts = maxContexts;
+        this.metrics = metrics;
+        this.idleScopes = new LinkedBlockingQueue<>();
+        this.createdContexts = new AtomicInteger();
+    }
+
+    /**
+     * Calls a function declared by the script with a single string argument.
+     * @param functionName The name of the global function to call.
+     * @param text The argument to pass to the function.
+     * @return The result of the function, as a string, or {@code null} if the function returned nothing.
+     */
+    String call(@NotNull String functionName, @NotNull String text) throws ScriptException, NoSuchMethodException {
+        try (Context cx = contextFactory.enterContext()) {
+            ScriptableObject scope = acquire(cx);
+
+            try {
+                Object function = ScriptableObject.getProperty(scope, functionName);
+
+                if (!(function instanceof Function)) {
+                    throw new NoSuchMethodException("no such function: " + functionName);
+                }
+
+                Object result = ((Function) function).call(cx, scope, scope, new Object[] { text });
+                metrics.recordExecution();
+                return result == null || Undefined.isUndefined(result) ? null : Context.toString(result);
+            } finally {
+                idleScopes.offer(scope);
+            }
+        } catch (RhinoException e) {
+            throw toScriptException(e);
+        }
+    }
+
+    /**
+     * @return The number of execution scopes created by this pool so far.
+     */
+    int getCreatedContexts() {
+        return createdContexts.get();
+    }
+
+    /**
+     * @param scriptBytes The estimated size of the script's source, in bytes.
+     * @return An estimate of the memory held by the compiled script and the execution scopes created so far, in bytes.
+     */
+    long getEstimatedBytes(long scriptBytes) {
+        // The compiled script is assumed to be about as large as its source, and every scope holds a copy of its globals.
+        return scriptBytes + createdContexts.get() * (ESTIMATED_SCOPE_BYTES + scriptBytes);
+    }
+
+    @NotNull
+    private ScriptableObject acquire(@NotNull Context cx) throws ScriptException {
+        ScriptableObject scope = idleScopes.poll();
+
+        if (scope != null) {
+            return scope;
+        }
+
+        int created;
+
+        while ((created = createdContexts.get()) < maxContexts) {
+            if (createdContexts.compareAndSet(created, created + 1)) {
+                try {
+                    scope = cx.initSafeStandardObjects();
+                    script.exec(cx, scope);
+                    metrics.recordContextCreated();
+                    return scope;
+                } catch (RuntimeException e) {
+                    createdContexts.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+
+        long waitStart = System.nanoTime();
+
+        try {
+            scope = idleScopes.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted whilst waiting for a cipher execution context");
+        }
+
+        metrics.recordContention(System.nanoTime() - waitStart);
+        return scope;
+    }
+
+    @NotNull
+    static ScriptException toScriptException(@NotNull RhinoException e) {
+        ScriptException exception = new ScriptException(e.details(), e.sourceName(), e.lineNumber());
+        exception.initCause(e);
+        return exception;
+    }
+}
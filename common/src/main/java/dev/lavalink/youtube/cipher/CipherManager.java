@@ -4,6 +4,7 @@ import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -37,22 +38,44 @@ public interface CipherManager {
 
     String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException;
 
-    default CachedPlayerScript getPlayerScript(@NotNull HttpInterface httpInterface) {
-        synchronized (this) {
-            try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com/embed/"))) {
-                HttpClientTools.assertSuccessWithContent(response, "fetch player script (embed)");
+    /**
+     * Reports that a stream URL resolved with the given player script was throttled, which suggests the n
+     * parameter was not transformed correctly. Implementations should stop reusing the transformed value.
+     *
+     * @param playerScript Address of the script the URL was resolved with
+     * @param format       The format whose URL was throttled
+     */
+    default void reportThrottled(@NotNull String playerScript, @NotNull StreamFormat format) {
 
-                String responseText = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-                String scriptUrl = DataFormatTools.extractBetween(responseText, "\"jsUrl\":\"", "\"");
+    }
 
-                if (scriptUrl == null) {
-                    throw new ExceptionWithResponseBody("no jsUrl found", responseText);
-                }
+    /**
+     * Provides the HTTP interface manager to use for requests made outside of a caller's request,
+     * such as refreshing the player script ahead of its expiry.
+     * @param httpInterfaceManager The HTTP interface manager of the source manager.
+     */
+    default void setHttpInterfaceManager(@NotNull HttpInterfaceManager httpInterfaceManager) {
+
+    }
 
-                return new CachedPlayerScript(scriptUrl, getTimestamp(httpInterface, scriptUrl));
-            } catch (IOException e) {
-                throw ExceptionTools.toRuntimeException(e);
+    /**
+     * Fetches the current player script. This always makes a request, callers should use
+     * {@link #getCachedPlayerScript(HttpInterface)} instead.
+     */
+    default CachedPlayerScript getPlayerScript(@NotNull HttpInterface httpInterface) {
+        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com/embed/"))) {
+            HttpClientTools.assertSuccessWithContent(response, "fetch player script (embed)");
+
+            String responseText = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            String scriptUrl = DataFormatTools.extractBetween(responseText, "\"jsUrl\":\"", "\"");
+
+            if (scriptUrl == null) {
+                throw new ExceptionWithResponseBody("no jsUrl found", responseText);
             }
+
+            return new CachedPlayerScript(scriptUrl, getTimestamp(httpInterface, scriptUrl));
+        } catch (IOException e) {
+            throw ExceptionTools.toRuntimeException(e);
         }
     }
 
@@ -62,9 +85,13 @@ public interface CipherManager {
         public final long expireTimestampMs;
 
         protected CachedPlayerScript(@NotNull String url, @NotNull String signatureTimestamp) {
+            this(url, signatureTimestamp, System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        }
+
+        protected CachedPlayerScript(@NotNull String url, @NotNull String signatureTimestamp, long expireTimestampMs) {
             this.url = url;
             this.signatureTimestamp = signatureTimestamp;
-            this.expireTimestampMs = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+            this.expireTimestampMs = expireTimestampMs;
         }
     }
 }
@@ -0,0 +1,337 @@
+package dev.lavalink.youtube.cipher;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converts the signature function and its helper object, as extracted from a player script, into
+ * a list of {@link CipherOperation}s that can be applied without a JavaScript engine.
+ * If any part of the cipher is not recognised, no operations are returned and the caller should
+ * fall back to executing the script.
+ */
+final class CipherOperationParser {
+    private static final String IDENTIFIER = "[a-zA-Z_$][a-zA-Z_0-9$]*";
+
+    private static final Pattern STRING_ARRAY_DECLARATION = Pattern.compile(
+        "^(?:'use strict';)?var (" + IDENTIFIER + ")=\\[(.*)\\]$", Pattern.DOTALL);
+    private static final Pattern SPLIT_STRING_DECLARATION = Pattern.compile(
+        "^(?:'use strict';)?var (" + IDENTIFIER + ")=(\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*')\\.split\\((\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*')\\)$",
+        Pattern.DOTALL);
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'");
+    private static final Pattern BRACKET_PROPERTY = Pattern.compile("\\[\"(" + IDENTIFIER + ")\"\\]");
+    private static final Pattern PUNCTUATION_WHITESPACE = Pattern.compile("\\s*([^\\w$\\s])\\s*");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern ACTIONS_DECLARATION = Pattern.compile("^var (" + IDENTIFIER + ")=\\{(.*)\\};?$", Pattern.DOTALL);
+    private static final Pattern ACTION_ENTRY = Pattern.compile(
+        "([\"']?)(" + IDENTIFIER + ")\\1:function\\((" + IDENTIFIER + ")(?:,(" + IDENTIFIER + "))?\\)\\{([^{}]*)\\}(,|$)");
+    private static final Pattern SIG_FUNCTION = Pattern.compile(
+        "^function(?: " + IDENTIFIER + ")?\\((" + IDENTIFIER + ")\\)\\{(.*)\\};?$", Pattern.DOTALL);
+
+    private static final Pattern REVERSE_BODY = Pattern.compile("^(?:return )?a\\.reverse\\(\\)$");
+    private static final Pattern SPLICE_BODY = Pattern.compile("^(?:return )?a\\.splice\\(0,b\\)$");
+    private static final Pattern SLICE_BODY = Pattern.compile("^return a\\.slice\\(b\\)$");
+    private static final Pattern SWAP_BODY = Pattern.compile(
+        "^var (" + IDENTIFIER + ")=a\\[0\\];a\\[0\\]=a\\[b%a\\.length\\];a\\[b(?:%a\\.length)?\\]=\\1(?:;return a)?$");
+
+    private CipherOperationParser() {
+    }
+
+    /**
+     * @param globalVars The global variable declaration the cipher may reference.
+     * @param sigActions The declaration of the object holding the cipher's helper functions.
+     * @param sigFunction The signature function.
+     * @return The operations performed by the signature function, or {@code null} if the cipher could not be
+     *         understood.
+     */
+    @Nullable
+    static List<CipherOperation> parse(@NotNull String globalVars,
+                                       @NotNull String sigActions,
+                                       @NotNull String sigFunction) {
+        Map<String, List<String>> constants = parseGlobalVars(globalVars);
+
+        Matcher actionsMatcher = ACTIONS_DECLARATION.matcher(normalize(sigActions, constants));
+
+        if (!actionsMatcher.matches()) {
+            return null;
+        }
+
+        String actionsObject = actionsMatcher.group(1);
+        Map<String, CipherOperationType> actions = parseActions(actionsMatcher.group(2));
+
+        if (actions == null) {
+            return null;
+        }
+
+        Matcher functionMatcher = SIG_FUNCTION.matcher(normalize(sigFunction, constants));
+
+        if (!functionMatcher.matches()) {
+            return null;
+        }
+
+        String parameter = Pattern.quote(functionMatcher.group(1));
+        String[] statements = functionMatcher.group(2).split(";");
+
+        if (statements.length < 2
+            || !statements[0].matches(parameter + "=" + parameter + "\\.split\\(\"\"\\)")
+            || !statements[statements.length - 1].matches("return " + parameter + "\\.join\\(\"\"\\)")) {
+            return null;
+        }
+
+        Pattern call = Pattern.compile("^(" + parameter + "=)?" + Pattern.quote(actionsObject) + "\\.(" + IDENTIFIER + ")\\(" +
+            parameter + ",(\\d+)\\)$");
+
+        List<CipherOperation> operations = new ArrayList<>();
+
+        for (int i = 1; i < statements.length - 1; i++) {
+            Matcher callMatcher = call.matcher(statements[i]);
+
+            if (!callMatcher.matches()) {
+                return null;
+            }
+
+            CipherOperationType type = actions.get(callMatcher.group(2));
+            boolean assigned = callMatcher.group(1) != null;
+
+            if (type == null || (assigned && type != CipherOperationType.SLICE)) {
+                return null;
+            }
+
+            if (type == CipherOperationType.SLICE && !assigned) {
+                // slice() does not modify the array, so its result being discarded makes this a no-op.
+                continue;
+            }
+
+            try {
+                operations.add(new CipherOperation(type, Integer.parseInt(callMatcher.group(3))));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        return Collections.unmodifiableList(operations);
+    }
+
+    @Nullable
+    private static Map<String, CipherOperationType> parseActions(@NotNull String entries) {
+        Map<String, CipherOperationType> actions = new HashMap<>();
+        Matcher matcher = ACTION_ENTRY.matcher(entries);
+        int position = 0;
+
+        while (position < entries.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                return null;
+            }
+
+            CipherOperationType type = classifyAction(matcher.group(3), matcher.group(4), matcher.group(5));
+
+            if (type == null) {
+                return null;
+            }
+
+            actions.put(matcher.group(2), type);
+            position = matcher.end();
+        }
+
+        return actions;
+    }
+
+    @Nullable
+    private static CipherOperationType classifyAction(@NotNull String first,
+                                                      @Nullable String second,
+                                                      @NotNull String body) {
+        String canonical = renameParameters(body.replaceAll(";+$", ""), first, second);
+
+        if (REVERSE_BODY.matcher(canonical).matches()) {
+            return CipherOperationType.REVERSE;
+        } else if (SPLICE_BODY.matcher(canonical).matches()) {
+            return CipherOperationType.SPLICE;
+        } else if (SLICE_BODY.matcher(canonical).matches()) {
+            return CipherOperationType.SLICE;
+        } else if (SWAP_BODY.matcher(canonical).matches()) {
+            return CipherOperationType.SWAP;
+        }
+
+        return null;
+    }
+
+    /**
+     * Renames the parameters of an action function to {@code a} and {@code b} so that bodies can be
+     * compared regardless of the names chosen by the minifier.
+     */
+    @NotNull
+    private static String renameParameters(@NotNull String body, @NotNull String first, @Nullable String second) {
+        Map<String, String> names = new HashMap<>();
+        names.put(first, "a");
+
+        if (second != null) {
+            names.put(second, "b");
+        }
+
+        Matcher matcher = Pattern.compile("(?<![\\w$.])" + IDENTIFIER).matcher(body);
+        StringBuffer buffer = new StringBuffer();
+
+        while (matcher.find()) {
+            String replacement = names.get(matcher.group());
+
+            if (replacement == null) {
+                // Any other local that collides with a canonical name would make the comparison ambiguous.
+                if (names.containsValue(matcher.group())) {
+                    replacement = "$" + matcher.group();
+                } else {
+                    replacement = matcher.group();
+                }
+            }
+
+            matcher.appendReplacement(buffer, Matcher.quoteReplacement(replacement));
+        }
+
+        matcher.appendTail(buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Inlines references to the global string arrays, turns {@code x["y"]} into {@code x.y} and
+     * strips whitespace that is not needed to separate tokens.
+     */
+    @NotNull
+    private static String normalize(@NotNull String code, @NotNull Map<String, List<String>> constants) {
+        String normalized = WHITESPACE.matcher(PUNCTUATION_WHITESPACE.matcher(code.trim()).replaceAll("$1")).replaceAll(" ");
+
+        for (Map.Entry<String, List<String>> constant : constants.entrySet()) {
+            Matcher matcher = Pattern.compile("(?<![\\w$.])" + Pattern.quote(constant.getKey()) + "\\[(\\d+)\\]").matcher(normalized);
+            StringBuffer buffer = new StringBuffer();
+
+            while (matcher.find()) {
+                int index = Integer.parseInt(matcher.group(1));
+                List<String> values = constant.getValue();
+                String replacement = index < values.size() ? quote(values.get(index)) : "undefined";
+                matcher.appendReplacement(buffer, Matcher.quoteReplacement(replacement));
+            }
+
+            matcher.appendTail(buffer);
+            normalized = buffer.toString();
+        }
+
+        return BRACKET_PROPERTY.matcher(normalized).replaceAll(".$1");
+    }
+
+    @NotNull
+    private static Map<String, List<String>> parseGlobalVars(@NotNull String globalVars) {
+        String code = globalVars.trim();
+        Matcher split = SPLIT_STRING_DECLARATION.matcher(code);
+
+        if (split.matches()) {
+            String value = unquote(split.group(2));
+            String separator = unquote(split.group(3));
+
+            if (value != null && separator != null && !separator.isEmpty()) {
+                List<String> values = new ArrayList<>();
+                int start = 0;
+                int index;
+
+                while ((index = value.indexOf(separator, start)) != -1) {
+                    values.add(value.substring(start, index));
+                    start = index + separator.length();
+                }
+
+                values.add(value.substring(start));
+                return Collections.singletonMap(split.group(1), values);
+            }
+        }
+
+        Matcher array = STRING_ARRAY_DECLARATION.matcher(code);
+
+        if (array.matches()) {
+            List<String> values = new ArrayList<>();
+            Matcher literal = STRING_LITERAL.matcher(array.group(2));
+
+            while (literal.find()) {
+                String value = unquote(literal.group());
+
+                if (value == null) {
+                    return Collections.emptyMap();
+                }
+
+                values.add(value);
+            }
+
+            return Collections.singletonMap(array.group(1), values);
+        }
+
+        return Collections.emptyMap();
+    }
+
+    @Nullable
+    private static String unquote(@NotNull String literal) {
+        StringBuilder builder = new StringBuilder(literal.length());
+
+        for (int i = 1; i < literal.length() - 1; i++) {
+            char c = literal.charAt(i);
+
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+
+            if (++i >= literal.length() - 1) {
+                return null;
+            }
+
+            char escaped = literal.charAt(i);
+
+            switch (escaped) {
+                case 'n': builder.append('\n'); break;
+                case 'r': builder.append('\r'); break;
+                case 't': builder.append('\t'); break;
+                case 'b': builder.append('\b'); break;
+                case 'f': builder.append('\f'); break;
+                case 'v': builder.append('\u000B'); break;
+                case '0': builder.append('\0'); break;
+                case 'x':
+                case 'u':
+                    int length = escaped == 'x' ? 2 : 4;
+
+                    if (i + length >= literal.length()) {
+                        return null;
+                    }
+
+                    try {
+                        builder.append((char) Integer.parseInt(literal.substring(i + 1, i + 1 + length), 16));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+
+                    i += length;
+                    break;
+                default:
+                    builder.append(escaped);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    @NotNull
+    private static String quote(@NotNull String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                builder.append('\\');
+            }
+
+            builder.append(c);
+        }
+
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,140 @@
+package dev.lavalink.youtube.cipher;
+
+import dev.lavalink.youtube.BoundedTtlMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded, least-recently-used cache of deciphered signature and n parameter values, keyed by
+ * the player script they were deciphered with. A cipher's output only depends on the script and
+ * its input, so a cached value can be reused for as long as it remains in the cache. Timestamps and
+ * resolved URLs returned by a remote cipher service are cached in the same way.
+ */
+public class CipherResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_TTL_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final int maxEntries;
+    private final BoundedTtlMap<Key, String> entries;
+
+    public CipherResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS);
+    }
+
+    /**
+     * @param maxEntries The maximum number of results to hold. A value of {@code 0} disables caching.
+     * @param ttlMs How long a result may be reused for, in milliseconds.
+     */
+    public CipherResultCache(int maxEntries, long ttlMs) {
+        this(maxEntries, ttlMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries The maximum number of results to hold. A value of {@code 0} disables caching.
+     * @param ttlMs How long a result may be reused for, in milliseconds.
+     * @param clock The source of the current time, in milliseconds.
+     */
+    CipherResultCache(int maxEntries, long ttlMs, @NotNull LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.entries = new BoundedTtlMap<>(maxEntries, ttlMs, clock);
+    }
+
+    /**
+     * @param playerScript The URL of the player script the value was deciphered with.
+     * @param type The type of value.
+     * @param input The ciphered value.
+     * @return The deciphered value, or {@code null} if it is not cached.
+     */
+    @Nullable
+    public String get(@NotNull String playerScript, @NotNull ValueType type, @NotNull String input) {
+        if (maxEntries == 0) {
+            return null;
+        }
+
+        return entries.get(new Key(playerScript, type, input));
+    }
+
+    /**
+     * @param playerScript The URL of the player script the value was deciphered with.
+     * @param type The type of value.
+     * @param input The ciphered value.
+     * @param output The deciphered value.
+     */
+    public void put(@NotNull String playerScript, @NotNull ValueType type, @NotNull String input, @NotNull String output) {
+        entries.put(new Key(playerScript, type, input), output);
+    }
+
+    /**
+     * @param playerScript The URL of the player script the value was deciphered with.
+     * @param type The type of value.
+     * @param input The ciphered value.
+     */
+    public void remove(@NotNull String playerScript, @NotNull ValueType type, @NotNull String input) {
+        entries.remove(new Key(playerScript, type, input));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return entries.getHits();
+    }
+
+    public long getMisses() {
+        return entries.getMisses();
+    }
+
+    /**
+     * @return The number of entries removed due to the size bound or expiry.
+     */
+    public long getEvictions() {
+        return entries.getEvictions();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CipherResultCache{size=%d, hits=%d, misses=%d, evictions=%d}",
+            size(), getHits(), getMisses(), getEvictions());
+    }
+
+    public enum ValueType {
+        SIGNATURE,
+        N_PARAMETER,
+        TIMESTAMP,
+        RESOLVED_URL
+    }
+
+    private static class Key {
+        private final String playerScript;
+        private final ValueType type;
+        private final String input;
+
+        private Key(String playerScript, ValueType type, String input) {
+            this.playerScript = playerScript;
+            this.type = type;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return type == other.type && input.equals(other.input) && playerScript.equals(other.playerScript);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(playerScript, type, input);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves stream URLs with two cipher managers, typically a {@link RemoteCipherManager} and a
+ * {@link LocalSignatureCipherManager}. The primary manager is used first, and should it not have
+ * responded within the hedge delay, the secondary manager is raced against it, with whichever
+ * responds first being used, and the slower manager's resolution is cancelled. Resolutions run on a
+ * bounded pool of threads; should it be exhausted, the primary manager is used on the calling thread,
+ * without hedging. Timestamps and player scripts are taken from the primary manager, falling back to the secondary
+ * manager should the primary fail.
+ */
+public class HedgedCipherManager implements CipherManager, Closeable {
+    private static final Logger log = LoggerFactory.getLogger(HedgedCipherManager.class);
+
+    public static final long DEFAULT_HEDGE_DELAY_MS = 250;
+    public static final int DEFAULT_MAX_THREADS = 16;
+
+    private final CipherManager primary;
+    private final CipherManager secondary;
+    private final long hedgeDelayMs;
+    private final ExecutorService executor;
+
+    private final LongAdder primaryWins = new LongAdder();
+    private final LongAdder secondaryWins = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile HttpInterfaceManager httpInterfaceManager;
+
+    /**
+     * @param primary The cipher manager to use first.
+     * @param secondary The cipher manager to race against the primary once the hedge delay has elapsed.
+     * @param hedgeDelayMs How long to wait for the primary manager before also using the secondary manager,
+     *                     in milliseconds.
+     */
+    public HedgedCipherManager(@NotNull CipherManager primary, @NotNull CipherManager secondary, long hedgeDelayMs) {
+        this(primary, secondary, hedgeDelayMs, DEFAULT_MAX_THREADS);
+    }
+
+    /**
+     * @param primary The cipher manager to use first.
+     * @param secondary The cipher manager to race against the primary once the hedge delay has elapsed.
+     * @param hedgeDelayMs How long to wait for the primary manager before also using the secondary manager,
+     *                     in milliseconds.
+     * @param maxThreads The maximum number of resolutions that may run in the background at once.
+     */
+    public HedgedCipherManager(@NotNull CipherManager primary,
+                               @NotNull CipherManager secondary,
+                               long hedgeDelayMs,
+                               int maxThreads) {
+        if (hedgeDelayMs < 0) {
+            throw new IllegalArgumentException("hedgeDelayMs must not be negative");
+        }
+
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be at least 1");
+        }
+
+        this.primary = primary;
+        this.secondary = secondary;
+        this.hedgeDelayMs = hedgeDelayMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        // Without a queue, resolutions are rejected rather than left waiting once every thread is busy.
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "youtube-hedged-cipher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @NotNull
+    @Override
+    public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
+                                @NotNull String playerScript,
+                                @NotNull StreamFormat format) throws IOException {
+        HttpInterfaceManager interfaceManager = httpInterfaceManager;
+
+        if (interfaceManager == null) {
+            // Without a manager to take interfaces from, the caller's interface cannot be used by two threads.
+            return primary.resolveFormatUrl(httpInterface, playerScript, format);
+        }
+
+        CompletableFuture<URI> primaryResult;
+
+        try {
+            primaryResult = resolveAsync(primary, interfaceManager, playerScript, format);
+        } catch (RejectedExecutionException e) {
+            log.debug("No thread available to hedge with, using primary cipher manager directly");
+            return primary.resolveFormatUrl(httpInterface, playerScript, format);
+        }
+
+        try {
+            URI url = primaryResult.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            primaryWins.increment();
+            return url;
+        } catch (TimeoutException e) {
+            log.debug("Primary cipher manager did not respond within {}ms, hedging with secondary", hedgeDelayMs);
+        } catch (ExecutionException e) {
+            log.debug("Primary cipher manager failed, using secondary", e.getCause());
+        } catch (InterruptedException e) {
+            primaryResult.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst resolving stream url");
+        }
+
+        CompletableFuture<URI> result;
+
+        try {
+            result = firstSuccessful(primaryResult, resolveAsync(secondary, interfaceManager, playerScript, format));
+            hedges.increment();
+        } catch (RejectedExecutionException e) {
+            log.debug("No thread available to hedge with, waiting for primary cipher manager");
+            result = primaryResult.thenApply(url -> {
+                primaryWins.increment();
+                return url;
+            });
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            // Cancelling the combined result cancels both resolutions.
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst resolving stream url");
+        } catch (ExecutionException e) {
+            failures.increment();
+            throw unwrap(e.getCause());
+        }
+    }
+
+    @Override
+    public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
+        try {
+            return primary.getCachedPlayerScript(httpInterface);
+        } catch (RuntimeException e) {
+            log.debug("Primary cipher manager failed to provide the player script, using secondary", e);
+            return secondary.getCachedPlayerScript(httpInterface);
+        }
+    }
+
+    @Override
+    public String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
+        try {
+            return primary.getTimestamp(httpInterface, sourceUrl);
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Primary cipher manager failed to provide the timestamp, using secondary", e);
+            return secondary.getTimestamp(httpInterface, sourceUrl);
+        }
+    }
+
+    @Override
+    public void setHttpInterfaceManager(@NotNull HttpInterfaceManager httpInterfaceManager) {
+        this.httpInterfaceManager = httpInterfaceManager;
+        primary.setHttpInterfaceManager(httpInterfaceManager);
+        secondary.setHttpInterfaceManager(httpInterfaceManager);
+    }
+
+    @Override
+    public void reportThrottled(@NotNull String playerScript, @NotNull StreamFormat format) {
+        primary.reportThrottled(playerScript, format);
+        secondary.reportThrottled(playerScript, format);
+    }
+
+    @NotNull
+    public CipherManager getPrimary() {
+        return primary;
+    }
+
+    @NotNull
+    public CipherManager getSecondary() {
+        return secondary;
+    }
+
+    /**
+     * @return The number of resolutions answered by the primary manager.
+     */
+    public long getPrimaryWins() {
+        return primaryWins.sum();
+    }
+
+    /**
+     * @return The number of resolutions answered by the secondary manager.
+     */
+    public long getSecondaryWins() {
+        return secondaryWins.sum();
+    }
+
+    /**
+     * @return The number of resolutions for which the secondary manager was raced against the primary.
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * @return The number of resolutions that failed with both managers.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return The fraction of resolutions answered by the primary manager, or {@code 0} if there have been none.
+     */
+    public double getPrimaryWinRate() {
+        long primary = getPrimaryWins();
+        long total = primary + getSecondaryWins();
+        return total == 0 ? 0 : (double) primary / total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+
+        if (primary instanceof Closeable) {
+            ExceptionTools.closeWithWarnings((Closeable) primary);
+        }
+
+        if (secondary instanceof Closeable) {
+            ExceptionTools.closeWithWarnings((Closeable) secondary);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HedgedCipherManager{primaryWins=%d, secondaryWins=%d, hedges=%d, failures=%d}",
+            getPrimaryWins(), getSecondaryWins(), getHedges(), getFailures());
+    }
+
+    @NotNull
+    private CompletableFuture<URI> resolveAsync(@NotNull CipherManager cipherManager,
+                                                @NotNull HttpInterfaceManager interfaceManager,
+                                                @NotNull String playerScript,
+                                                @NotNull StreamFormat format) {
+        CompletableFuture<URI> result = new CompletableFuture<>();
+
+        Future<?> task = executor.submit(() -> {
+            try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+                result.complete(cipherManager.resolveFormatUrl(httpInterface, playerScript, format));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        // Cancelling a CompletableFuture does not interrupt the work behind it, so interrupt the task directly.
+        result.whenComplete((url, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * @return A future completed by whichever future succeeds first, or failed with the primary's error should both
+     * fail. The other future is cancelled once one succeeds, as is each future should the returned one be cancelled.
+     */
+    @NotNull
+    private CompletableFuture<URI> firstSuccessful(@NotNull CompletableFuture<URI> primaryResult,
+                                                   @NotNull CompletableFuture<URI> secondaryResult) {
+        CompletableFuture<URI> result = new CompletableFuture<>();
+
+        primaryResult.whenComplete((url, error) -> {
+            if (error == null) {
+                if (result.complete(url)) {
+                    primaryWins.increment();
+                    secondaryResult.cancel(true);
+                }
+            } else if (secondaryResult.isCompletedExceptionally()) {
+                result.completeExceptionally(error);
+            }
+        });
+
+        secondaryResult.whenComplete((url, error) -> {
+            if (error == null) {
+                if (result.complete(url)) {
+                    secondaryWins.increment();
+                    primaryResult.cancel(true);
+                }
+            } else if (primaryResult.isCompletedExceptionally()) {
+                primaryResult.whenComplete((unused, primaryError) -> result.completeExceptionally(primaryError));
+            }
+        });
+
+        result.whenComplete((url, error) -> {
+            if (result.isCancelled()) {
+                primaryResult.cancel(true);
+                secondaryResult.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    @NotNull
+    private static IOException unwrap(@NotNull Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        if (cause instanceof IOException) {
+            return new IOException(cause.getMessage(), cause);
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+
+        return new IOException(cause);
+    }
+}
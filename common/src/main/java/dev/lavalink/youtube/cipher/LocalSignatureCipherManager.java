@@ -2,36 +2,36 @@ package dev.lavalink.youtube.cipher;
 
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
-import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
+import dev.lavalink.youtube.SingleFlight;
 import dev.lavalink.youtube.YoutubeSource;
+import dev.lavalink.youtube.cipher.CipherResultCache.ValueType;
+import dev.lavalink.youtube.cipher.PlayerScriptStore.PlayerScript;
 import dev.lavalink.youtube.cipher.ScriptExtractionException.ExtractionFailureType;
 import dev.lavalink.youtube.track.format.StreamFormat;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.mozilla.javascript.engine.RhinoScriptEngineFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.script.ScriptEngine;
 import javax.script.ScriptException;
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -43,15 +43,21 @@ import static com.sedmelluq.discord.lavaplayer.tools.ExceptionTools.throwWithDeb
  * Handles parsing and caching of signature ciphers
  */
 @SuppressWarnings({"RegExpRedundantEscape", "RegExpUnnecessaryNonCapturingGroup"})
-public class LocalSignatureCipherManager implements CipherManager {
+public class LocalSignatureCipherManager implements CipherManager, Closeable {
     private static final Logger log = LoggerFactory.getLogger(LocalSignatureCipherManager.class);
 
+    /**
+     * Number of throttled streams a player script must be reported for before its n function is considered
+     * faulty. A single report may just be a congested node.
+     */
+    static final int SUSPECT_THROTTLE_REPORTS = 3;
+
     private static final String VARIABLE_PART = "[a-zA-Z_\\$][a-zA-Z_0-9\\$]*";
     private static final String VARIABLE_PART_OBJECT_DECLARATION = "[\"']?[a-zA-Z_\\$][a-zA-Z_0-9\\$]*[\"']?";
 
-    private static final Pattern TIMESTAMP_PATTERN = Pattern.compile("(signatureTimestamp|sts):(\\d+)");
+    static final Pattern TIMESTAMP_PATTERN = Pattern.compile("(signatureTimestamp|sts):(\\d+)");
 
-    private static final Pattern GLOBAL_VARS_PATTERN = Pattern.compile(
+    static final Pattern GLOBAL_VARS_PATTERN = Pattern.compile(
         "('use\\s*strict';)?" +
             "(?<code>var\\s*(?<varname>[a-zA-Z0-9_$]+)\\s*=\\s*" +
             "(?<value>(?:\"[^\"\\\\]*(?:\\\\.[^\"\\\\]*)*\"|'[^'\\\\]*(?:\\\\.[^'\\\\]*)*')" +
@@ -60,18 +66,18 @@ public class LocalSignatureCipherManager implements CipherManager {
             "|\"[^\"]*\"\\.split\\(\"[^\"]*\"\\)))"
     );
 
-    private static final Pattern ACTIONS_PATTERN = Pattern.compile(
+    static final Pattern ACTIONS_PATTERN = Pattern.compile(
         "var\\s+([$A-Za-z0-9_]+)\\s*=\\s*\\{" +
             "\\s*" + VARIABLE_PART_OBJECT_DECLARATION + "\\s*:\\s*function\\s*\\([^)]*\\)\\s*\\{[^{}]*(?:\\{[^{}]*}[^{}]*)*}\\s*," +
             "\\s*" + VARIABLE_PART_OBJECT_DECLARATION + "\\s*:\\s*function\\s*\\([^)]*\\)\\s*\\{[^{}]*(?:\\{[^{}]*}[^{}]*)*}\\s*," +
             "\\s*" + VARIABLE_PART_OBJECT_DECLARATION + "\\s*:\\s*function\\s*\\([^)]*\\)\\s*\\{[^{}]*(?:\\{[^{}]*}[^{}]*)*}\\s*};");
 
-    private static final Pattern SIG_FUNCTION_PATTERN = Pattern.compile(
+    static final Pattern SIG_FUNCTION_PATTERN = Pattern.compile(
         "function(?:\\s+" + VARIABLE_PART + ")?\\((" + VARIABLE_PART + ")\\)\\{" +
             VARIABLE_PART + "=" + VARIABLE_PART + ".*?\\(\\1,\\d+\\);return\\s*\\1.*};"
     );
 
-    private static final Pattern N_FUNCTION_PATTERN = Pattern.compile(
+    static final Pattern N_FUNCTION_PATTERN = Pattern.compile(
         "function\\(\\s*(" + VARIABLE_PART + ")\\s*\\)\\s*\\{" +
             "var\\s*(" + VARIABLE_PART + ")=\\1\\[" + VARIABLE_PART + "\\[\\d+\\]\\]\\(" + VARIABLE_PART + "\\[\\d+\\]\\)" +
             ".*?catch\\(\\s*(\\w+)\\s*\\)\\s*\\{" +
@@ -89,9 +95,18 @@ public class LocalSignatureCipherManager implements CipherManager {
             "\\s*return\\s*\\2\\[" + VARIABLE_PART + "\\[\\d+\\]\\]\\(" + VARIABLE_PART + "\\[\\d+\\]\\)};",
         Pattern.DOTALL);
 
-    private final ConcurrentMap<String, SignatureCipher> cipherCache;
+    private final PlayerScriptStore scriptStore;
+    private final SignatureCipherCache cipherCache;
     private final Set<String> dumpedScriptUrls;
-    private final ScriptEngine scriptEngine;
+    private final int executionPoolSize;
+    private final int optimizationLevel;
+    private final CipherExecutionMetrics executionMetrics;
+    private final CipherResultCache resultCache;
+    private final CipherDiskCache diskCache;
+    private final PlayerScriptRefresher playerScriptRefresher;
+    private final SingleFlight<String, SignatureCipher> cipherLoads;
+    private final Map<String, Integer> throttleReports;
+    private final Map<String, ExtractionFailureType> extractionFailures;
 
     protected volatile CachedPlayerScript cachedPlayerScript;
 
@@ -99,9 +114,104 @@ public class LocalSignatureCipherManager implements CipherManager {
      * Create a new local signature cipher manager
      */
     public LocalSignatureCipherManager() {
-        this.cipherCache = new ConcurrentHashMap<>();
-        this.dumpedScriptUrls = new HashSet<>();
-        this.scriptEngine = new RhinoScriptEngineFactory().getScriptEngine();
+        this(SignatureCipher.DEFAULT_MAX_EXECUTION_CONTEXTS);
+    }
+
+    /**
+     * Create a new local signature cipher manager
+     * @param executionPoolSize The maximum number of JavaScript contexts each cipher may use concurrently.
+     */
+    public LocalSignatureCipherManager(int executionPoolSize) {
+        this(executionPoolSize, new CipherResultCache());
+    }
+
+    /**
+     * Create a new local signature cipher manager
+     * @param executionPoolSize The maximum number of JavaScript contexts each cipher may use concurrently.
+     * @param resultCache The cache to remember deciphered values in.
+     */
+    public LocalSignatureCipherManager(int executionPoolSize, @NotNull CipherResultCache resultCache) {
+        this(executionPoolSize, resultCache, null);
+    }
+
+    /**
+     * Create a new local signature cipher manager
+     * @param executionPoolSize The maximum number of JavaScript contexts each cipher may use concurrently.
+     * @param resultCache The cache to remember deciphered values in.
+     * @param diskCache The cache to persist extracted ciphers to, so they can be reused after a restart.
+     *                  May be {@code null}, in which case nothing is persisted.
+     */
+    public LocalSignatureCipherManager(int executionPoolSize,
+                                       @NotNull CipherResultCache resultCache,
+                                       @Nullable CipherDiskCache diskCache) {
+        this(executionPoolSize, SignatureCipher.INTERPRETED_OPTIMIZATION_LEVEL, resultCache, diskCache);
+    }
+
+    /**
+     * Create a new local signature cipher manager
+     * @param executionPoolSize The maximum number of JavaScript contexts each cipher may use concurrently.
+     * @param optimizationLevel The Rhino optimization level to compile cipher functions at. Use
+     *                          {@link SignatureCipher#INTERPRETED_OPTIMIZATION_LEVEL} to interpret them instead.
+     * @param resultCache The cache to remember deciphered values in.
+     * @param diskCache The cache to persist extracted ciphers to, so they can be reused after a restart.
+     *                  May be {@code null}, in which case nothing is persisted.
+     */
+    public LocalSignatureCipherManager(int executionPoolSize,
+                                       int optimizationLevel,
+                                       @NotNull CipherResultCache resultCache,
+                                       @Nullable CipherDiskCache diskCache) {
+        if (executionPoolSize < 1) {
+            throw new IllegalArgumentException("executionPoolSize must be at least 1");
+        }
+
+        if (optimizationLevel < SignatureCipher.INTERPRETED_OPTIMIZATION_LEVEL
+            || optimizationLevel > SignatureCipher.MAX_OPTIMIZATION_LEVEL) {
+            throw new IllegalArgumentException("optimizationLevel must be between " +
+                SignatureCipher.INTERPRETED_OPTIMIZATION_LEVEL + " and " + SignatureCipher.MAX_OPTIMIZATION_LEVEL);
+        }
+
+        this.scriptStore = new PlayerScriptStore();
+        this.cipherCache = new SignatureCipherCache();
+        this.dumpedScriptUrls = ConcurrentHashMap.newKeySet();
+        this.executionPoolSize = executionPoolSize;
+        this.optimizationLevel = optimizationLevel;
+        this.executionMetrics = new CipherExecutionMetrics();
+        this.resultCache = resultCache;
+        this.diskCache = diskCache;
+        this.cipherLoads = new SingleFlight<>();
+        this.throttleReports = Collections.synchronizedMap(new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > SignatureCipherCache.DEFAULT_MAX_ENTRIES;
+            }
+        });
+        this.extractionFailures = Collections.synchronizedMap(new LinkedHashMap<String, ExtractionFailureType>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExtractionFailureType> eldest) {
+                return size() > SignatureCipherCache.DEFAULT_MAX_ENTRIES;
+            }
+        });
+        this.playerScriptRefresher = new PlayerScriptRefresher(this::loadPlayerScript, this::onPlayerScriptUpdated);
+
+        if (diskCache != null) {
+            playerScriptRefresher.seed(loadPersistedPlayerScript());
+        }
+    }
+
+    /**
+     * @return The execution metrics, shared by all ciphers created by this manager.
+     */
+    @NotNull
+    public CipherExecutionMetrics getExecutionMetrics() {
+        return executionMetrics;
+    }
+
+    /**
+     * @return The cache of deciphered signature and n parameter values.
+     */
+    @NotNull
+    public CipherResultCache getResultCache() {
+        return resultCache;
     }
 
     /**
@@ -117,46 +227,93 @@ public class LocalSignatureCipherManager implements CipherManager {
     public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
                                 @NotNull String playerScript,
                                 @NotNull StreamFormat format) throws IOException {
-        String signature = format.getSignature();
-        String nParameter = format.getNParameter();
-        URI initialUrl = format.getUrl();
+        return resolveUrl(httpInterface, playerScript, format.getUrl(), format.getSignature(),
+            format.getNParameter(), format.getSignatureKey());
+    }
 
+    /**
+     * Produces a valid playback URL from the individual parts of a stream format.
+     *
+     * @param httpInterface HTTP interface to use
+     * @param playerScript  Address of the script which is used to decipher signatures
+     * @param initialUrl    The stream URL, without the deciphered signature and n parameter.
+     * @param signature     The encrypted signature, if any.
+     * @param nParameter    The n parameter to transform, if any.
+     * @param signatureKey  The query parameter to put the deciphered signature in.
+     * @return Valid playback URL
+     * @throws IOException On network IO error
+     */
+    @NotNull
+    public URI resolveUrl(@NotNull HttpInterface httpInterface,
+                          @NotNull String playerScript,
+                          @NotNull URI initialUrl,
+                          @Nullable String signature,
+                          @Nullable String nParameter,
+                          @Nullable String signatureKey) throws IOException {
         URIBuilder uri = new URIBuilder(initialUrl);
-
-        SignatureCipher cipher = getCipherScript(httpInterface, playerScript);
+        SignatureCipher cipher = null;
 
         if (!DataFormatTools.isNullOrEmpty(signature)) {
-            try {
-                uri.setParameter(format.getSignatureKey(), cipher.apply(signature, scriptEngine));
-            } catch (ScriptException | NoSuchMethodException e) {
-                dumpProblematicScript(cipherCache.get(playerScript).rawScript, playerScript, "Can't transform s parameter " + signature);
+            String deciphered = resultCache.get(playerScript, ValueType.SIGNATURE, signature);
+
+            if (deciphered == null) {
+                cipher = getCipherScript(httpInterface, playerScript);
+
+                try {
+                    deciphered = cipher.apply(signature);
+
+                    if (deciphered != null) {
+                        resultCache.put(playerScript, ValueType.SIGNATURE, signature, deciphered);
+                    }
+                } catch (ScriptException | NoSuchMethodException e) {
+                    dumpProblematicScript(playerScript, "Can't transform s parameter " + signature);
+                }
+            }
+
+            if (deciphered != null) {
+                uri.setParameter(signatureKey, deciphered);
             }
         }
 
 
         if (!DataFormatTools.isNullOrEmpty(nParameter)) {
-            try {
-                String transformed = cipher.transform(nParameter, scriptEngine);
-                String logMessage = null;
-
-                if (transformed == null) {
-                    logMessage = "Transformed n parameter is null, n function possibly faulty";
-                } else if (nParameter.equals(transformed)) {
-                    logMessage = "Transformed n parameter is the same as input, n function possibly short-circuited";
-                } else if (transformed.startsWith("enhanced_except_") || transformed.endsWith("_w8_" + nParameter)) {
-                    logMessage = "N function did not complete due to exception";
+            // Values transformed by a suspect n function may be wrong, so they are neither reused nor remembered.
+            boolean suspect = isNTransformSuspect(playerScript);
+            String transformed = suspect ? null : resultCache.get(playerScript, ValueType.N_PARAMETER, nParameter);
+
+            if (transformed == null) {
+                if (cipher == null) {
+                    cipher = getCipherScript(httpInterface, playerScript);
                 }
 
-                if (logMessage != null) {
-                    log.warn("{} (in: {}, out: {}, player script: {}, source version: {})",
-                        logMessage, nParameter, transformed, playerScript, YoutubeSource.VERSION);
+                try {
+                    transformed = cipher.transform(nParameter);
+                    String logMessage = null;
+
+                    if (transformed == null) {
+                        logMessage = "Transformed n parameter is null, n function possibly faulty";
+                    } else if (nParameter.equals(transformed)) {
+                        logMessage = "Transformed n parameter is the same as input, n function possibly short-circuited";
+                    } else if (transformed.startsWith("enhanced_except_") || transformed.endsWith("_w8_" + nParameter)) {
+                        logMessage = "N function did not complete due to exception";
+                    }
+
+                    if (logMessage != null) {
+                        log.warn("{} (in: {}, out: {}, player script: {}, source version: {})",
+                            logMessage, nParameter, transformed, playerScript, YoutubeSource.VERSION);
+                    } else if (!suspect) {
+                        // Only remember values that look to have been transformed correctly.
+                        resultCache.put(playerScript, ValueType.N_PARAMETER, nParameter, transformed);
+                    }
+                } catch (ScriptException | NoSuchMethodException e) {
+                    // URLs can still be played without a resolved n parameter. It just means they're
+                    // throttled. But we shouldn't throw an exception anyway as it's not really fatal.
+                    dumpProblematicScript(playerScript, "Can't transform n parameter " + nParameter + " with " + cipher.nFunction + " n function");
                 }
+            }
 
+            if (transformed != null) {
                 uri.setParameter("n", transformed);
-            } catch (ScriptException | NoSuchMethodException e) {
-                // URLs can still be played without a resolved n parameter. It just means they're
-                // throttled. But we shouldn't throw an exception anyway as it's not really fatal.
-                dumpProblematicScript(cipherCache.get(playerScript).rawScript, playerScript, "Can't transform n parameter " + nParameter + " with " + cipher.nFunction + " n function");
             }
         }
 
@@ -168,23 +325,77 @@ public class LocalSignatureCipherManager implements CipherManager {
     }
 
     public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
-        if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
-            synchronized (this) {
-                if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
-                    try {
-                        return (cachedPlayerScript = getPlayerScript(httpInterface));
-                    } catch (RuntimeException e) {
-                        if (e instanceof ExceptionWithResponseBody) {
-                            throw throwWithDebugInfo(log, null, e.getMessage(), "html", ((ExceptionWithResponseBody) e).getResponseBody());
-                        }
-
-                        throw e;
-                    }
-                }
+        try {
+            return playerScriptRefresher.get(httpInterface);
+        } catch (RuntimeException e) {
+            if (e instanceof ExceptionWithResponseBody) {
+                throw throwWithDebugInfo(log, null, e.getMessage(), "html", ((ExceptionWithResponseBody) e).getResponseBody());
             }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public void setHttpInterfaceManager(@NotNull HttpInterfaceManager httpInterfaceManager) {
+        playerScriptRefresher.setHttpInterfaceManager(httpInterfaceManager);
+    }
+
+    /**
+     * Stops refreshing the player script in the background.
+     */
+    @Override
+    public void close() {
+        playerScriptRefresher.close();
+    }
+
+    @Override
+    public void reportThrottled(@NotNull String playerScript, @NotNull StreamFormat format) {
+        String nParameter = format.getNParameter();
+
+        if (!DataFormatTools.isNullOrEmpty(nParameter)) {
+            resultCache.remove(playerScript, ValueType.N_PARAMETER, nParameter);
         }
 
-        return cachedPlayerScript;
+        if (throttleReports.merge(playerScript, 1, Integer::sum) == SUSPECT_THROTTLE_REPORTS) {
+            log.warn("Stream url resolved with player script {} was throttled, n function possibly faulty (source version: {})",
+                playerScript, YoutubeSource.VERSION);
+
+            // The cipher may have been persisted by an older version, so extract it from the script again.
+            cipherCache.invalidate(playerScript);
+        }
+    }
+
+    /**
+     * @param playerScript Address of the player script.
+     * @return Whether stream URLs resolved with the player script have been throttled at least
+     * {@link #SUSPECT_THROTTLE_REPORTS} times, suggesting its n function is not transforming the n parameter
+     * correctly. The cipher of a suspect script is extracted again from the script rather than loaded from disk,
+     * and its transformed n parameters are not cached.
+     */
+    public boolean isNTransformSuspect(@NotNull String playerScript) {
+        Integer reports = throttleReports.get(playerScript);
+        return reports != null && reports >= SUSPECT_THROTTLE_REPORTS;
+    }
+
+    @NotNull
+    private CachedPlayerScript loadPlayerScript(@NotNull HttpInterface httpInterface, boolean background) throws IOException {
+        CachedPlayerScript script = getPlayerScript(httpInterface);
+
+        if (background) {
+            // Make sure the cipher can be extracted before replacing a script that is known to work.
+            getCipherScript(httpInterface, script.url);
+        }
+
+        return script;
+    }
+
+    private void onPlayerScriptUpdated(@NotNull CachedPlayerScript script) {
+        cachedPlayerScript = script;
+
+        if (diskCache != null) {
+            diskCache.storePlayerScript(script);
+        }
     }
 
     private SignatureCipher getCipherScript(@NotNull HttpInterface httpInterface,
@@ -192,42 +403,106 @@ public class LocalSignatureCipherManager implements CipherManager {
         SignatureCipher cipherKey = cipherCache.get(cipherScriptUrl);
 
         if (cipherKey == null) {
-            synchronized (this) {
-                log.debug("Parsing player script {}", cipherScriptUrl);
+            cipherKey = cipherLoads.execute(cipherScriptUrl, () -> loadCipherScript(httpInterface, cipherScriptUrl));
+        }
+
+        return cipherKey;
+    }
 
-                try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(cipherScriptUrl)))) {
-                    int statusCode = response.getStatusLine().getStatusCode();
+    @NotNull
+    private SignatureCipher loadCipherScript(@NotNull HttpInterface httpInterface,
+                                             @NotNull String cipherScriptUrl) throws IOException {
+        // Another load may have completed between the lookup and this load starting.
+        SignatureCipher cipherKey = cipherCache.get(cipherScriptUrl);
 
-                    if (!HttpClientTools.isSuccessWithContent(statusCode)) {
-                        throw new IOException("Received non-success response code " + statusCode + " from script url " +
-                            cipherScriptUrl + " ( " + CipherUtils.parseTokenScriptUrl(cipherScriptUrl) + " )");
-                    }
+        if (cipherKey == null && diskCache != null && !isNTransformSuspect(cipherScriptUrl)) {
+            cipherKey = loadPersistedCipher(cipherScriptUrl);
+        }
+
+        if (cipherKey == null) {
+            PlayerScript script = scriptStore.getScript(httpInterface, cipherScriptUrl);
+            cipherKey = cipherCache.getByHash(script.hash);
+
+            if (cipherKey == null) {
+                ExtractionFailureType failureType = extractionFailures.get(script.hash);
+
+                if (failureType != null) {
+                    throw new ScriptExtractionException("Must find " + failureType.friendlyName + " from script: " +
+                        cipherScriptUrl + " (previously failed)", failureType);
+                }
+
+                log.debug("Parsing player script {}", cipherScriptUrl);
+                SignatureCipher extracted;
+
+                try {
+                    extracted = extractFromScript(script.content, cipherScriptUrl);
+                } catch (ScriptExtractionException e) {
+                    // Extraction depends only on the script's content, so it would fail the same way again.
+                    extractionFailures.put(script.hash, e.getFailureType());
+                    throw e;
+                }
 
-                    cipherKey = extractFromScript(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8), cipherScriptUrl);
-                    cipherCache.put(cipherScriptUrl, cipherKey);
+                cipherKey = cipherCache.put(cipherScriptUrl, script.hash, extracted);
+
+                if (cipherKey == extracted && diskCache != null) {
+                    diskCache.storeCipher(cipherScriptUrl, script.hash, cipherKey);
                 }
+            } else {
+                cipherCache.mapUrl(cipherScriptUrl, script.hash);
             }
         }
 
         return cipherKey;
     }
 
-    public String getRawScript(@NotNull HttpInterface httpInterface,
-                               @NotNull String cipherScriptUrl) throws IOException {
-        synchronized (this) {
-            log.debug("getting raw player script {}", cipherScriptUrl);
+    @Nullable
+    private SignatureCipher loadPersistedCipher(@NotNull String cipherScriptUrl) {
+        CipherDiskCache.CipherEntry entry = diskCache.loadCipher(cipherScriptUrl);
 
-            try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(cipherScriptUrl)))) {
-                int statusCode = response.getStatusLine().getStatusCode();
+        if (entry == null) {
+            return null;
+        }
 
-                if (!HttpClientTools.isSuccessWithContent(statusCode)) {
-                    throw new IOException("Received non-success response code " + statusCode + " from script url " +
-                        cipherScriptUrl + " ( " + CipherUtils.parseTokenScriptUrl(cipherScriptUrl) + " )");
-                }
+        log.debug("Loaded cipher for player script {} from disk", cipherScriptUrl);
 
-                return EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-            }
+        SignatureCipher cipher = new SignatureCipher(entry.timestamp, entry.globalVars, entry.sigActions,
+            entry.sigFunction, entry.nFunction, "", executionPoolSize, optimizationLevel, executionMetrics);
+
+        return cipherCache.put(cipherScriptUrl, entry.scriptHash, cipher);
+    }
+
+    @Nullable
+    private CachedPlayerScript loadPersistedPlayerScript() {
+        CipherDiskCache.PersistedPlayerScript persisted = diskCache.loadPlayerScript();
+
+        if (persisted == null || System.currentTimeMillis() >= persisted.expireTimestampMs) {
+            return null;
         }
+
+        log.debug("Using player script {} persisted to disk", persisted.url);
+        return new CachedPlayerScript(persisted.url, persisted.signatureTimestamp, persisted.expireTimestampMs);
+    }
+
+    public String getRawScript(@NotNull HttpInterface httpInterface,
+                               @NotNull String cipherScriptUrl) throws IOException {
+        log.debug("getting raw player script {}", cipherScriptUrl);
+        return scriptStore.getScript(httpInterface, cipherScriptUrl).content;
+    }
+
+    /**
+     * @return The cache holding the ciphers extracted by this manager.
+     */
+    @NotNull
+    public SignatureCipherCache getCipherCache() {
+        return cipherCache;
+    }
+
+    /**
+     * @return The store holding the player scripts downloaded by this manager.
+     */
+    @NotNull
+    public PlayerScriptStore getScriptStore() {
+        return scriptStore;
     }
 
     private List<String> getQuotedFunctions(@Nullable String... functionNames) {
@@ -237,6 +512,17 @@ public class LocalSignatureCipherManager implements CipherManager {
             .collect(Collectors.toList());
     }
 
+    private void dumpProblematicScript(@NotNull String sourceUrl, @NotNull String issue) {
+        PlayerScript stored = scriptStore.getCachedScript(sourceUrl);
+
+        if (stored != null) {
+            dumpProblematicScript(stored.content, sourceUrl, issue);
+        } else if (dumpedScriptUrls.add(sourceUrl)) {
+            log.error("Problematic YouTube player script {} detected (issue detected with script: {}). The script is not held in memory so could not be dumped (Source version: {})",
+                sourceUrl, issue, YoutubeSource.VERSION);
+        }
+    }
+
     private void dumpProblematicScript(@NotNull String script, @NotNull String sourceUrl,
                                        @NotNull String issue) {
         if (!dumpedScriptUrls.add(sourceUrl)) {
@@ -255,19 +541,19 @@ public class LocalSignatureCipherManager implements CipherManager {
     }
 
     public String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
-        synchronized (this) {
-            log.debug("Timestamp from script {}", sourceUrl);
+        log.debug("Timestamp from script {}", sourceUrl);
 
-            try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(sourceUrl)))) {
-                int statusCode = response.getStatusLine().getStatusCode();
-
-                if (!HttpClientTools.isSuccessWithContent(statusCode)) {
-                    throw new IOException("Received non-success response code " + statusCode + " from script url " +
-                        sourceUrl + " ( " + CipherUtils.parseTokenScriptUrl(sourceUrl) + " )");
-                }
-
-                return getScriptTimestamp(httpInterface, EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8), sourceUrl);
+        try {
+            // The timestamp is extracted alongside the cipher, which is needed to play anything from this script anyway.
+            return getCipherScript(httpInterface, sourceUrl).timestamp;
+        } catch (ScriptExtractionException e) {
+            if (e.getFailureType() == ExtractionFailureType.TIMESTAMP_NOT_FOUND) {
+                throw e;
             }
+
+            // The cipher couldn't be extracted, but the timestamp may still be usable by clients
+            // which don't need the cipher.
+            return getScriptTimestamp(httpInterface, scriptStore.getScript(httpInterface, sourceUrl).content, sourceUrl);
         }
     }
 
@@ -280,43 +566,42 @@ public class LocalSignatureCipherManager implements CipherManager {
         return scriptTimestamp.group(2);
     }
 
-    private SignatureCipher extractFromScript(@NotNull String script, @NotNull String sourceUrl) {
-        String timestamp = getScriptTimestamp(null, script, sourceUrl);
+    SignatureCipher extractFromScript(@NotNull String script, @NotNull String sourceUrl) {
+        PlayerScriptExtractor.Components components = PlayerScriptExtractor.extract(script);
 
-        Matcher globalVarsMatcher = GLOBAL_VARS_PATTERN.matcher(script);
+        if (components.timestamp == null) {
+            scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.TIMESTAMP_NOT_FOUND);
+        }
 
-        if (!globalVarsMatcher.find()) {
+        if (components.globalVars == null) {
             scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.VARIABLES_NOT_FOUND);
         }
 
-        Matcher sigActionsMatcher = ACTIONS_PATTERN.matcher(script);
-
-        if (!sigActionsMatcher.find()) {
+        if (components.sigActions == null) {
             scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.SIG_ACTIONS_NOT_FOUND);
         }
 
-        Matcher sigFunctionMatcher = SIG_FUNCTION_PATTERN.matcher(script);
-
-        if (!sigFunctionMatcher.find()) {
+        if (components.sigFunction == null) {
             scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.DECIPHER_FUNCTION_NOT_FOUND);
         }
 
-        Matcher nFunctionMatcher = N_FUNCTION_PATTERN.matcher(script);
-
-        if (!nFunctionMatcher.find()) {
+        if (components.nFunction == null) {
             scriptExtractionFailed(script, sourceUrl, ExtractionFailureType.N_FUNCTION_NOT_FOUND);
         }
 
-        String globalVars = globalVarsMatcher.group("code");
-        String sigActions = sigActionsMatcher.group(0);
-        String sigFunction = sigFunctionMatcher.group(0);
-        String nFunction = nFunctionMatcher.group(0);
+        String timestamp = components.timestamp;
+        String globalVars = components.globalVars;
+        String sigActions = components.sigActions;
+        String sigFunction = components.sigFunction;
+        String nFunction = components.nFunction;
 
         String nfParameterName = DataFormatTools.extractBetween(nFunction, "(", ")");
         // Remove short-circuit that prevents n challenge transformation
         nFunction = nFunction.replaceAll("if\\s*\\(typeof\\s*[^\\s()]+\\s*===?.*?\\)return " + nfParameterName + "\\s*;?", "");
 
-        return new SignatureCipher(timestamp, globalVars, sigActions, sigFunction, nFunction, script);
+        // The raw script is left to the script store, which can evict it, rather than being retained by the cipher.
+        return new SignatureCipher(timestamp, globalVars, sigActions, sigFunction, nFunction, "", executionPoolSize,
+            optimizationLevel, executionMetrics);
     }
 
     private void scriptExtractionFailed(String script, String sourceUrl, ExtractionFailureType failureType) {
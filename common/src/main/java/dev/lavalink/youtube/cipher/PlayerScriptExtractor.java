@@ -0,0 +1,515 @@
+package dev.lavalink.youtube.cipher;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.ACTIONS_PATTERN;
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.GLOBAL_VARS_PATTERN;
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.N_FUNCTION_PATTERN;
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.SIG_FUNCTION_PATTERN;
+import static dev.lavalink.youtube.cipher.LocalSignatureCipherManager.TIMESTAMP_PATTERN;
+
+/**
+ * Locates the cipher components of a player script in a single pass. The script is scanned once, skipping
+ * over strings, comments and regular expression literals, to find where each candidate declaration starts
+ * and where its braces close. The extraction patterns are then only matched against those short regions,
+ * rather than each one scanning, and backtracking through, the entire script.
+ * Any component that cannot be located this way is searched for across the whole script, as before.
+ */
+final class PlayerScriptExtractor {
+    private static final Logger log = LoggerFactory.getLogger(PlayerScriptExtractor.class);
+
+    private static final List<String> REGEX_PRECEDING_KEYWORDS = Arrays.asList(
+        "return", "typeof", "case", "do", "else", "in", "instanceof", "new", "delete", "void", "throw"
+    );
+    private static final String REGEX_PRECEDING_PUNCTUATION = "(,=:[!&|?{};+-*%<>~^";
+
+    private PlayerScriptExtractor() {
+    }
+
+    /**
+     * @param script The player script.
+     * @return The components found in the script. Any that could not be found are {@code null}.
+     */
+    @NotNull
+    static Components extract(@NotNull String script) {
+        Scan scan = new Scan(script);
+        scan.run();
+
+        Components components = new Components();
+        components.timestamp = matchTimestamp(script, scan.timestampCandidates);
+        components.globalVars = matchGlobalVars(script, scan.globalVarCandidates);
+        components.sigActions = matchBlock(script, ACTIONS_PATTERN, scan.objectCandidates, scan.closingBraces);
+        components.sigFunction = matchBlock(script, SIG_FUNCTION_PATTERN, scan.functionCandidates, scan.closingBraces);
+        components.nFunction = matchBlock(script, N_FUNCTION_PATTERN, scan.functionCandidates, scan.closingBraces);
+
+        if (components.timestamp == null) {
+            components.timestamp = fallback("timestamp", TIMESTAMP_PATTERN, script, 2);
+        }
+
+        if (components.globalVars == null) {
+            components.globalVars = fallback("global variables", GLOBAL_VARS_PATTERN, script, "code");
+        }
+
+        if (components.sigActions == null) {
+            components.sigActions = fallback("sig actions", ACTIONS_PATTERN, script, 0);
+        }
+
+        if (components.sigFunction == null) {
+            components.sigFunction = fallback("sig function", SIG_FUNCTION_PATTERN, script, 0);
+        }
+
+        if (components.nFunction == null) {
+            components.nFunction = fallback("n function", N_FUNCTION_PATTERN, script, 0);
+        }
+
+        return components;
+    }
+
+    /**
+     * Extracts the components by searching the whole script with each pattern in turn.
+     * @param script The player script.
+     * @return The components found in the script. Any that could not be found are {@code null}.
+     */
+    @NotNull
+    static Components extractWithFullScan(@NotNull String script) {
+        Components components = new Components();
+        components.timestamp = find(TIMESTAMP_PATTERN, script, 2);
+        components.globalVars = find(GLOBAL_VARS_PATTERN, script, "code");
+        components.sigActions = find(ACTIONS_PATTERN, script, 0);
+        components.sigFunction = find(SIG_FUNCTION_PATTERN, script, 0);
+        components.nFunction = find(N_FUNCTION_PATTERN, script, 0);
+        return components;
+    }
+
+    @Nullable
+    private static String matchTimestamp(@NotNull String script, @NotNull List<Integer> candidates) {
+        Matcher matcher = TIMESTAMP_PATTERN.matcher(script);
+
+        for (int start : candidates) {
+            matcher.region(start, script.length());
+
+            if (matcher.lookingAt()) {
+                return matcher.group(2);
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static String matchGlobalVars(@NotNull String script, @NotNull List<Integer> candidates) {
+        Matcher matcher = GLOBAL_VARS_PATTERN.matcher(script);
+
+        for (int start : candidates) {
+            matcher.region(start, script.length());
+
+            if (matcher.lookingAt()) {
+                return matcher.group("code");
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Matches the pattern against each candidate, from its start up to and including the semicolon
+     * that follows its closing brace.
+     */
+    @Nullable
+    private static String matchBlock(@NotNull String script,
+                                     @NotNull Pattern pattern,
+                                     @NotNull List<Candidate> candidates,
+                                     @NotNull Map<Integer, Integer> closingBraces) {
+        Matcher matcher = pattern.matcher(script);
+
+        for (Candidate candidate : candidates) {
+            Integer close = closingBraces.get(candidate.openingBrace);
+
+            if (close == null || close + 1 >= script.length() || script.charAt(close + 1) != ';') {
+                continue;
+            }
+
+            matcher.region(candidate.start, close + 2);
+
+            if (matcher.matches()) {
+                return matcher.group(0);
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static String fallback(@NotNull String name, @NotNull Pattern pattern, @NotNull String script, Object group) {
+        log.debug("Single pass extraction did not locate the {}, searching the whole script", name);
+        return group instanceof String ? find(pattern, script, (String) group) : find(pattern, script, (Integer) group);
+    }
+
+    @Nullable
+    private static String find(@NotNull Pattern pattern, @NotNull String script, int group) {
+        Matcher matcher = pattern.matcher(script);
+        return matcher.find() ? matcher.group(group) : null;
+    }
+
+    @Nullable
+    private static String find(@NotNull Pattern pattern, @NotNull String script, @NotNull String group) {
+        Matcher matcher = pattern.matcher(script);
+        return matcher.find() ? matcher.group(group) : null;
+    }
+
+    /**
+     * The cipher components of a player script.
+     */
+    static class Components {
+        String timestamp;
+        String globalVars;
+        String sigActions;
+        String sigFunction;
+        String nFunction;
+    }
+
+    private static class Candidate {
+        private final int start;
+        private final int openingBrace;
+
+        private Candidate(int start, int openingBrace) {
+            this.start = start;
+            this.openingBrace = openingBrace;
+        }
+    }
+
+    /**
+     * A lexical scan of a script. This understands just enough JavaScript to not be misled by braces
+     * inside strings, template literals, comments and regular expressions.
+     */
+    private static class Scan {
+        private final String script;
+        private final char[] chars;
+        private final int length;
+
+        private final List<Integer> timestampCandidates = new ArrayList<>();
+        private final List<Integer> globalVarCandidates = new ArrayList<>();
+        private final List<Candidate> objectCandidates = new ArrayList<>();
+        private final List<Candidate> functionCandidates = new ArrayList<>();
+        private final Map<Integer, Integer> closingBraces = new HashMap<>();
+
+        private int[] openBraces = new int[256];
+        private boolean[] candidateBraces = new boolean[256];
+        private int depth;
+        private int candidateBrace = -1;
+
+        private Scan(@NotNull String script) {
+            this.script = script;
+            this.chars = script.toCharArray();
+            this.length = chars.length;
+        }
+
+        private void run() {
+            char previous = ';';
+            boolean previousKeyword = false;
+            int i = 0;
+
+            while (i < length) {
+                char c = chars[i];
+
+                if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                    i++;
+                    continue;
+                }
+
+                if (c == '/') {
+                    char next = i + 1 < length ? chars[i + 1] : 0;
+
+                    if (next == '/') {
+                        i = skipLineComment(i);
+                        continue;
+                    } else if (next == '*') {
+                        i = skipBlockComment(i);
+                        continue;
+                    } else if (previousKeyword || REGEX_PRECEDING_PUNCTUATION.indexOf(previous) != -1) {
+                        i = skipRegex(i);
+                        previous = 'a';
+                        previousKeyword = false;
+                        continue;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    i = skipString(i, c);
+                    previous = '"';
+                    previousKeyword = false;
+                    continue;
+                } else if (c == '`') {
+                    i = skipTemplate(i);
+                    previous = '"';
+                    previousKeyword = false;
+                    continue;
+                } else if (isIdentifierStart(c)) {
+                    int end = skipIdentifier(i);
+                    previousKeyword = inspectWord(i, end);
+                    previous = 'a';
+                    i = end;
+                    continue;
+                } else if (c >= '0' && c <= '9') {
+                    while (i < length && (isIdentifierPart(chars[i]) || chars[i] == '.')) {
+                        i++;
+                    }
+
+                    previous = '0';
+                    previousKeyword = false;
+                    continue;
+                } else if (c == '{') {
+                    push(i);
+                } else if (c == '}' && depth > 0) {
+                    depth--;
+
+                    if (candidateBraces[depth]) {
+                        closingBraces.put(openBraces[depth], i);
+                    }
+                }
+
+                previous = c;
+                previousKeyword = false;
+                i++;
+            }
+        }
+
+        /**
+         * Records the word's position if it may start one of the components.
+         * @return Whether the word is a keyword that a regular expression literal may follow.
+         */
+        private boolean inspectWord(int start, int end) {
+            int wordLength = end - start;
+
+            if (wordLength == 3 && script.startsWith("var", start)) {
+                inspectVariable(start, end);
+            } else if (wordLength == 8 && script.startsWith("function", start)) {
+                inspectFunction(start, end);
+            } else if ((wordLength == 3 && script.startsWith("sts", start))
+                || (wordLength == 18 && script.startsWith("signatureTimestamp", start))) {
+                if (end + 1 < length && chars[end] == ':' && chars[end + 1] >= '0' && chars[end + 1] <= '9') {
+                    timestampCandidates.add(start);
+                }
+            } else if (wordLength >= 2 && wordLength <= 10) {
+                for (String keyword : REGEX_PRECEDING_KEYWORDS) {
+                    if (keyword.length() == wordLength && script.startsWith(keyword, start)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private void inspectVariable(int start, int end) {
+            int position = skipWhitespace(end);
+
+            if (position >= length || !isIdentifierStart(chars[position])) {
+                return;
+            }
+
+            position = skipWhitespace(skipIdentifier(position));
+
+            if (position >= length || chars[position] != '=') {
+                return;
+            }
+
+            position = skipWhitespace(position + 1);
+
+            if (position >= length) {
+                return;
+            }
+
+            char value = chars[position];
+
+            if (value == '{') {
+                objectCandidates.add(new Candidate(start, position));
+                candidateBrace = position;
+            } else if (value == '"' || value == '\'' || value == '[') {
+                globalVarCandidates.add(start);
+            }
+        }
+
+        private void inspectFunction(int start, int end) {
+            int position = skipWhitespace(end);
+
+            if (position < length && isIdentifierStart(chars[position])) {
+                position = skipWhitespace(skipIdentifier(position));
+            }
+
+            if (position >= length || chars[position] != '(') {
+                return;
+            }
+
+            position = skipWhitespace(position + 1);
+
+            // Both functions take exactly one parameter.
+            if (position >= length || !isIdentifierStart(chars[position])) {
+                return;
+            }
+
+            position = skipWhitespace(skipIdentifier(position));
+
+            if (position >= length || chars[position] != ')') {
+                return;
+            }
+
+            position = skipWhitespace(position + 1);
+
+            if (position < length && chars[position] == '{') {
+                functionCandidates.add(new Candidate(start, position));
+                candidateBrace = position;
+            }
+        }
+
+        private void push(int position) {
+            if (depth == openBraces.length) {
+                openBraces = Arrays.copyOf(openBraces, depth * 2);
+                candidateBraces = Arrays.copyOf(candidateBraces, depth * 2);
+            }
+
+            openBraces[depth] = position;
+            candidateBraces[depth] = position == candidateBrace;
+            depth++;
+        }
+
+        private int skipWhitespace(int position) {
+            while (position < length && Character.isWhitespace(chars[position])) {
+                position++;
+            }
+
+            return position;
+        }
+
+        private int skipIdentifier(int position) {
+            position++;
+
+            while (position < length && isIdentifierPart(chars[position])) {
+                position++;
+            }
+
+            return position;
+        }
+
+        private static boolean isIdentifierStart(char c) {
+            if (c < 128) {
+                return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$';
+            }
+
+            return Character.isJavaIdentifierStart(c);
+        }
+
+        private static boolean isIdentifierPart(char c) {
+            if (c < 128) {
+                return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '$';
+            }
+
+            return Character.isJavaIdentifierPart(c);
+        }
+
+        private int skipLineComment(int position) {
+            int end = script.indexOf('\n', position);
+            return end == -1 ? length : end + 1;
+        }
+
+        private int skipBlockComment(int position) {
+            int end = script.indexOf("*/", position + 2);
+            return end == -1 ? length : end + 2;
+        }
+
+        private int skipString(int position, char quote) {
+            for (int i = position + 1; i < length; i++) {
+                char c = chars[i];
+
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    return i + 1;
+                } else if (c == '\n') {
+                    return i;
+                }
+            }
+
+            return length;
+        }
+
+        private int skipTemplate(int position) {
+            for (int i = position + 1; i < length; i++) {
+                char c = chars[i];
+
+                if (c == '\\') {
+                    i++;
+                } else if (c == '`') {
+                    return i + 1;
+                } else if (c == '$' && i + 1 < length && chars[i + 1] == '{') {
+                    i = skipTemplateExpression(i + 2) - 1;
+                }
+            }
+
+            return length;
+        }
+
+        private int skipTemplateExpression(int position) {
+            int braces = 1;
+            int i = position;
+
+            while (i < length) {
+                char c = chars[i];
+
+                if (c == '"' || c == '\'') {
+                    i = skipString(i, c);
+                    continue;
+                } else if (c == '`') {
+                    i = skipTemplate(i);
+                    continue;
+                } else if (c == '{') {
+                    braces++;
+                } else if (c == '}' && --braces == 0) {
+                    return i + 1;
+                }
+
+                i++;
+            }
+
+            return length;
+        }
+
+        private int skipRegex(int position) {
+            boolean inClass = false;
+
+            for (int i = position + 1; i < length; i++) {
+                char c = chars[i];
+
+                if (c == '\\') {
+                    i++;
+                } else if (c == '[') {
+                    inClass = true;
+                } else if (c == ']') {
+                    inClass = false;
+                } else if (c == '/' && !inClass) {
+                    int end = i + 1;
+
+                    while (end < length && isIdentifierPart(chars[end])) {
+                        end++;
+                    }
+
+                    return end;
+                } else if (c == '\n') {
+                    // Not a regular expression after all, treat it as a division.
+                    return position + 1;
+                }
+            }
+
+            return position + 1;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.cipher.CipherManager.CachedPlayerScript;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Holds the current player script and refreshes it in the background ahead of its expiry. Readers are
+ * served the current script until a replacement has been fetched and validated, at which point it is
+ * swapped in atomically. Without an {@link HttpInterfaceManager} to make background requests with, the
+ * script is only refreshed once it has expired, on the thread that requested it. Every refresher has its own
+ * scheduler thread, so that a slow or hanging download only holds up the refreshes of its own manager.
+ */
+class PlayerScriptRefresher {
+    private static final Logger log = LoggerFactory.getLogger(PlayerScriptRefresher.class);
+
+    static final long REFRESH_AHEAD_MS = TimeUnit.HOURS.toMillis(1);
+    static final long RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+    static final long MAX_STALE_MS = TimeUnit.HOURS.toMillis(12);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final Loader loader;
+    private final Consumer<CachedPlayerScript> listener;
+    private final ScheduledExecutorService scheduler;
+    private final long refreshAheadMs;
+    private final long retryDelayMs;
+    private final long maxStaleMs;
+    // Stays set from the moment a background refresh is requested until it succeeds, including while
+    // waiting to retry a failed attempt, so that readers do not start refreshes of their own.
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile CachedPlayerScript current;
+    private volatile HttpInterfaceManager httpInterfaceManager;
+
+    /**
+     * @param loader Fetches, and validates, the current player script.
+     * @param listener Notified whenever a new player script is swapped in.
+     */
+    PlayerScriptRefresher(@NotNull Loader loader, @NotNull Consumer<CachedPlayerScript> listener) {
+        this(loader, listener, createScheduler(), REFRESH_AHEAD_MS, RETRY_DELAY_MS, MAX_STALE_MS);
+    }
+
+    /**
+     * @param scheduler Runs background refreshes, and the retries of failed ones.
+     * @param refreshAheadMs How long before its expiry a script is refreshed in the background.
+     * @param retryDelayMs How long to wait before retrying a failed background refresh.
+     * @param maxStaleMs How long past its expiry a script may still be served while it is refreshed in the background.
+     */
+    PlayerScriptRefresher(@NotNull Loader loader,
+                          @NotNull Consumer<CachedPlayerScript> listener,
+                          @NotNull ScheduledExecutorService scheduler,
+                          long refreshAheadMs,
+                          long retryDelayMs,
+                          long maxStaleMs) {
+        this.loader = loader;
+        this.listener = listener;
+        this.scheduler = scheduler;
+        this.refreshAheadMs = refreshAheadMs;
+        this.retryDelayMs = retryDelayMs;
+        this.maxStaleMs = maxStaleMs;
+    }
+
+    void setHttpInterfaceManager(@Nullable HttpInterfaceManager httpInterfaceManager) {
+        this.httpInterfaceManager = httpInterfaceManager;
+        CachedPlayerScript script = current;
+
+        if (script != null) {
+            schedule(script);
+        }
+    }
+
+    /**
+     * Uses the given script as the current one, if there is no current script.
+     */
+    void seed(@Nullable CachedPlayerScript script) {
+        if (script != null && current == null) {
+            swap(script);
+        }
+    }
+
+    @NotNull
+    CachedPlayerScript get(@NotNull HttpInterface httpInterface) {
+        CachedPlayerScript script = current;
+        long now = System.currentTimeMillis();
+
+        if (script != null) {
+            if (now < script.expireTimestampMs - refreshAheadMs) {
+                return script;
+            }
+
+            if (httpInterfaceManager != null && now < script.expireTimestampMs + maxStaleMs) {
+                refreshAsync();
+                return script;
+            }
+
+            if (now < script.expireTimestampMs) {
+                return script;
+            }
+        }
+
+        synchronized (this) {
+            script = current;
+
+            if (script == null || System.currentTimeMillis() >= script.expireTimestampMs + (httpInterfaceManager != null ? maxStaleMs : 0)) {
+                try {
+                    script = loader.load(httpInterface, false);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+
+                swap(script);
+            }
+
+            return script;
+        }
+    }
+
+    /**
+     * Stops refreshing the script in the background. The current script is still served, and refreshed on the
+     * thread that requested it once it has expired.
+     */
+    void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void swap(@NotNull CachedPlayerScript script) {
+        current = script;
+        listener.accept(script);
+        schedule(script);
+    }
+
+    private void schedule(@NotNull CachedPlayerScript script) {
+        if (httpInterfaceManager == null) {
+            return;
+        }
+
+        long delay = Math.max(0, script.expireTimestampMs - refreshAheadMs - System.currentTimeMillis());
+
+        try {
+            scheduler.schedule(() -> {
+                // Only refresh if this script hasn't already been replaced in the meantime.
+                if (current == script) {
+                    refreshAsync();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Not scheduling a refresh of player script {}, the refresher has been closed", script.url);
+        }
+    }
+
+    private void refreshAsync() {
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::refresh);
+            } catch (RejectedExecutionException e) {
+                refreshing.set(false);
+            }
+        }
+    }
+
+    private void refresh() {
+        HttpInterfaceManager manager = httpInterfaceManager;
+        CachedPlayerScript previous = current;
+
+        // The script may have been loaded on a reader's thread while waiting to retry.
+        if (manager == null || (previous != null && System.currentTimeMillis() < previous.expireTimestampMs - refreshAheadMs)) {
+            refreshing.set(false);
+            return;
+        }
+
+        try (HttpInterface httpInterface = manager.getInterface()) {
+            CachedPlayerScript script = loader.load(httpInterface, true);
+
+            if (previous != null && !previous.url.equals(script.url)) {
+                log.info("Player script changed from {} to {}", previous.url, script.url);
+            }
+
+            swap(script);
+            refreshing.set(false);
+        } catch (Throwable e) {
+            if (scheduler.isShutdown()) {
+                return;
+            }
+
+            log.warn("Failed to refresh player script, retrying in {}ms", retryDelayMs, e);
+
+            try {
+                scheduler.schedule(this::refresh, retryDelayMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // Closed whilst refreshing.
+            }
+        }
+    }
+
+    @NotNull
+    private static ScheduledExecutorService createScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "youtube-player-script-refresher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @FunctionalInterface
+    interface Loader {
+        /**
+         * @param httpInterface HTTP interface to use
+         * @param background Whether this is a background refresh, in which case the script should be
+         *                   fully validated, as there is a previous script to fall back to.
+         * @return The current player script.
+         */
+        @NotNull
+        CachedPlayerScript load(@NotNull HttpInterface httpInterface, boolean background) throws IOException;
+    }
+}
@@ -0,0 +1,226 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import dev.lavalink.youtube.SingleFlight;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Downloads player scripts and keeps them addressed by the hash of their content, so that a script
+ * URL is only ever downloaded once, even by concurrent callers, and identical scripts served from
+ * different URLs are only held once. Only a bounded number of scripts are held, as they are several
+ * megabytes each; the least recently used script is evicted first and will be downloaded again,
+ * should it be needed.
+ */
+public class PlayerScriptStore {
+    private static final Logger log = LoggerFactory.getLogger(PlayerScriptStore.class);
+
+    public static final int DEFAULT_MAX_SCRIPTS = 2;
+
+    private final ConcurrentMap<String, String> hashesByUrl;
+    private final ConcurrentMap<String, PlayerScript> scriptsByHash;
+    private final SingleFlight<String, PlayerScript> downloads;
+    private final LongAdder downloadCount;
+    private final LongAdder evictions;
+
+    private volatile int maxScripts;
+
+    public PlayerScriptStore() {
+        this(DEFAULT_MAX_SCRIPTS);
+    }
+
+    /**
+     * @param maxScripts The maximum number of scripts to hold.
+     */
+    public PlayerScriptStore(int maxScripts) {
+        setMaxScripts(maxScripts);
+        this.hashesByUrl = new ConcurrentHashMap<>();
+        this.scriptsByHash = new ConcurrentHashMap<>();
+        this.downloads = new SingleFlight<>();
+        this.downloadCount = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * @param maxScripts The maximum number of scripts to hold.
+     */
+    public void setMaxScripts(int maxScripts) {
+        if (maxScripts < 1) {
+            throw new IllegalArgumentException("maxScripts must be at least 1");
+        }
+
+        this.maxScripts = maxScripts;
+    }
+
+    /**
+     * @param httpInterface HTTP interface to use, should the script need downloading.
+     * @param scriptUrl The URL of the player script.
+     * @return The player script.
+     * @throws IOException If the script could not be downloaded.
+     */
+    @NotNull
+    public PlayerScript getScript(@NotNull HttpInterface httpInterface,
+                                  @NotNull String scriptUrl) throws IOException {
+        PlayerScript script = getCachedScript(scriptUrl);
+
+        if (script == null) {
+            script = downloads.execute(scriptUrl, () -> {
+                PlayerScript stored = getCachedScript(scriptUrl);
+                return stored != null ? stored : store(scriptUrl, download(httpInterface, scriptUrl));
+            });
+        }
+
+        return script;
+    }
+
+    /**
+     * @param scriptUrl The URL of the player script.
+     * @return The player script, or {@code null} if it has not been downloaded.
+     */
+    @Nullable
+    public PlayerScript getCachedScript(@NotNull String scriptUrl) {
+        String hash = hashesByUrl.get(scriptUrl);
+        PlayerScript script = hash != null ? scriptsByHash.get(hash) : null;
+
+        if (script != null) {
+            script.lastAccessMs = System.currentTimeMillis();
+        }
+
+        return script;
+    }
+
+    /**
+     * @return The number of scripts downloaded by this store.
+     */
+    public long getDownloads() {
+        return downloadCount.sum();
+    }
+
+    /**
+     * @return The number of distinct scripts held by this store.
+     */
+    public int size() {
+        return scriptsByHash.size();
+    }
+
+    /**
+     * @return An estimate of the memory occupied by the held scripts, in bytes.
+     */
+    public long getEstimatedBytes() {
+        long bytes = 0;
+
+        for (PlayerScript script : scriptsByHash.values()) {
+            bytes += 2L * script.content.length();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * @return The number of scripts evicted.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @NotNull
+    PlayerScript store(@NotNull String scriptUrl, @NotNull String content) {
+        String hash = hash(content);
+        PlayerScript existing = scriptsByHash.putIfAbsent(hash, new PlayerScript(hash, content));
+        hashesByUrl.put(scriptUrl, hash);
+
+        if (existing != null) {
+            log.debug("Player script {} is identical to an already stored script ({})", scriptUrl, hash);
+            existing.lastAccessMs = System.currentTimeMillis();
+            return existing;
+        }
+
+        PlayerScript script = scriptsByHash.get(hash);
+        evict();
+        return script;
+    }
+
+    private synchronized void evict() {
+        while (scriptsByHash.size() > maxScripts) {
+            PlayerScript eldest = null;
+
+            for (PlayerScript script : scriptsByHash.values()) {
+                if (eldest == null || script.lastAccessMs < eldest.lastAccessMs) {
+                    eldest = script;
+                }
+            }
+
+            if (eldest == null || !scriptsByHash.remove(eldest.hash, eldest)) {
+                break;
+            }
+
+            hashesByUrl.values().removeIf(eldest.hash::equals);
+            evictions.increment();
+            log.debug("Evicted player script {}", eldest.hash);
+        }
+    }
+
+    @NotNull
+    private String download(@NotNull HttpInterface httpInterface, @NotNull String scriptUrl) throws IOException {
+        log.debug("Downloading player script {}", scriptUrl);
+
+        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(scriptUrl)))) {
+            int statusCode = response.getStatusLine().getStatusCode();
+
+            if (!HttpClientTools.isSuccessWithContent(statusCode)) {
+                throw new IOException("Received non-success response code " + statusCode + " from script url " +
+                    scriptUrl + " ( " + CipherUtils.parseTokenScriptUrl(scriptUrl) + " )");
+            }
+
+            downloadCount.increment();
+            return EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @NotNull
+    static String hash(@NotNull String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+
+            for (byte b : digest) {
+                builder.append(String.format("%02x", b));
+            }
+
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The content of a player script, along with the hash identifying it.
+     */
+    public static class PlayerScript {
+        public final String hash;
+        public final String content;
+
+        private volatile long lastAccessMs;
+
+        PlayerScript(@NotNull String hash, @NotNull String content) {
+            this.hash = hash;
+            this.content = content;
+            this.lastAccessMs = System.currentTimeMillis();
+        }
+    }
+}
@@ -3,10 +3,15 @@ package dev.lavalink.youtube.cipher;
 import com.grack.nanojson.JsonWriter;
 import com.grack.nanojson.JsonStringWriter;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
+import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.CircuitBreaker;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
+import dev.lavalink.youtube.SingleFlight;
+import dev.lavalink.youtube.cipher.CipherResultCache.ValueType;
 import dev.lavalink.youtube.http.YoutubeHttpContextFilter;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import org.apache.http.HttpEntity;
@@ -17,23 +22,43 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.sedmelluq.discord.lavaplayer.tools.ExceptionTools.throwWithDebugInfo;
 
 /**
- * Handles parsing and caching of ciphers via a remote service
+ * Handles parsing and caching of ciphers via a remote service. Results are cached for a while, and,
+ * should a fallback manager be provided, calls are routed to it whilst the remote service is failing
+ * or slow to respond.
  */
-public class RemoteCipherManager implements CipherManager {
+public class RemoteCipherManager implements CipherManager, Closeable {
     private static final Logger log = LoggerFactory.getLogger(RemoteCipherManager.class);
 
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+
     private final @NotNull String remoteUrl;
+    private final int maxConcurrentRequests;
+    private final Semaphore requestPermits;
+    private final SingleFlight<String, String> timestampLoads;
+    private final SingleFlight<String, URI> urlResolutions;
+    private final LongAdder requestCount;
+    private final CipherResultCache resultCache;
+    private final @Nullable CipherManager fallbackManager;
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder fallbackCount;
+
+    private final PlayerScriptRefresher playerScriptRefresher;
 
     protected volatile CachedPlayerScript cachedPlayerScript;
 
@@ -41,7 +66,39 @@ public class RemoteCipherManager implements CipherManager {
      * Create a new remote cipher manager
      */
     public RemoteCipherManager(@NotNull String remoteUrl) {
+        this(remoteUrl, DEFAULT_MAX_CONCURRENT_REQUESTS, null);
+    }
+
+    /**
+     * Create a new remote cipher manager. Requests are made with the HTTP interface of the caller, so the
+     * proxy, route planner and timeouts configured for the source manager apply to them too.
+     * @param remoteUrl The URL of the remote cipher service.
+     * @param maxConcurrentRequests The maximum number of requests that may be in flight to the remote service at once.
+     * @param fallbackManager The manager to use whilst the remote service is failing or slow, typically a
+     *                        {@link LocalSignatureCipherManager}. May be {@code null}, in which case remote
+     *                        failures are propagated.
+     */
+    public RemoteCipherManager(@NotNull String remoteUrl,
+                               int maxConcurrentRequests,
+                               @Nullable CipherManager fallbackManager) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+        }
+
         this.remoteUrl = remoteUrl;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.requestPermits = new Semaphore(maxConcurrentRequests);
+        this.timestampLoads = new SingleFlight<>();
+        this.urlResolutions = new SingleFlight<>();
+        this.requestCount = new LongAdder();
+        this.resultCache = new CipherResultCache();
+        this.fallbackManager = fallbackManager;
+        this.circuitBreaker = new CircuitBreaker("remote cipher service " + remoteUrl);
+        this.fallbackCount = new LongAdder();
+        this.playerScriptRefresher = new PlayerScriptRefresher(
+            (httpInterface, background) -> getPlayerScript(httpInterface),
+            script -> cachedPlayerScript = script
+        );
     }
 
     @NotNull
@@ -63,38 +120,192 @@ public class RemoteCipherManager implements CipherManager {
     public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
                                 @NotNull String playerScript,
                                 @NotNull StreamFormat format) throws IOException {
-        return resolveUrl(
+        String key = getCacheKey(format);
+        String cached = resultCache.get(playerScript, ValueType.RESOLVED_URL, key);
+
+        if (cached != null) {
+            return parseResolvedUrl(cached);
+        }
+
+        URI url = withFallback(
+            () -> resolveRemotely(httpInterface, playerScript, format),
+            fallback -> fallback.resolveFormatUrl(httpInterface, playerScript, format)
+        );
+
+        resultCache.put(playerScript, ValueType.RESOLVED_URL, key, url.toString());
+        return url;
+    }
+
+    @NotNull
+    private URI resolveRemotely(@NotNull HttpInterface httpInterface,
+                                @NotNull String playerScript,
+                                @NotNull StreamFormat format) throws IOException {
+        String key = playerScript + "|" + getCacheKey(format);
+
+        return urlResolutions.execute(key, () -> resolveUrl(
             httpInterface,
             format.getUrl(),
             playerScript,
             format.getSignature(),
             format.getNParameter(),
             format.getSignatureKey()
-        );
+        ));
+    }
+
+    @NotNull
+    private static String getCacheKey(@NotNull StreamFormat format) {
+        return format.getUrl() + "|" + format.getSignature() + "|" + format.getNParameter() + "|" + format.getSignatureKey();
+    }
+
+    /**
+     * Makes a call to the remote service, unless the circuit breaker is open, in which case the call is made
+     * to the fallback manager instead. Should the remote call fail, the fallback manager is also used.
+     */
+    private <T> T withFallback(@NotNull RemoteCall<T> remoteCall,
+                               @NotNull FallbackCall<T> fallbackCall) throws IOException {
+        CipherManager fallback = fallbackManager;
+
+        if (fallback == null) {
+            return remoteCall.call();
+        }
+
+        if (!circuitBreaker.allowRequest()) {
+            fallbackCount.increment();
+            return fallbackCall.call(fallback);
+        }
+
+        long start = System.nanoTime();
+        T result;
+
+        try {
+            result = remoteCall.call();
+        } catch (IOException | RuntimeException e) {
+            // Socket and connect timeouts are InterruptedIOExceptions too, but only a genuine interruption means
+            // the caller has given up.
+            if (e instanceof InterruptedIOException && Thread.currentThread().isInterrupted()) {
+                circuitBreaker.recordAbandoned();
+                throw e;
+            }
+
+            circuitBreaker.recordFailure();
+            fallbackCount.increment();
+            log.debug("Remote cipher call failed, using fallback cipher manager", e);
+
+            try {
+                return fallbackCall.call(fallback);
+            } catch (IOException | RuntimeException fallbackError) {
+                fallbackError.addSuppressed(e);
+                throw fallbackError;
+            }
+        }
+
+        circuitBreaker.recordSuccess(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * @return The number of requests currently in flight to the remote service.
+     */
+    public int getInFlightRequests() {
+        return maxConcurrentRequests - requestPermits.availablePermits();
+    }
+
+    /**
+     * @return The number of requests made to the remote service.
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return The cache of timestamps and resolved URLs returned by the remote service.
+     */
+    @NotNull
+    public CipherResultCache getResultCache() {
+        return resultCache;
+    }
+
+    @NotNull
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Nullable
+    public CipherManager getFallbackManager() {
+        return fallbackManager;
+    }
+
+    /**
+     * @return The number of calls that were handled by the fallback manager instead of the remote service.
+     */
+    public long getFallbackCount() {
+        return fallbackCount.sum();
     }
 
     public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
-        if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
-            synchronized (this) {
-                if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
-                    try {
-                        return (cachedPlayerScript = getPlayerScript(httpInterface));
-                    } catch (RuntimeException e) {
-                        if (e instanceof ExceptionWithResponseBody) {
-                            throw throwWithDebugInfo(log, null, e.getMessage(), "html", ((ExceptionWithResponseBody) e).getResponseBody());
-                        }
-
-                        throw e;
-                    }
-                }
+        try {
+            return playerScriptRefresher.get(httpInterface);
+        } catch (RuntimeException e) {
+            if (e instanceof ExceptionWithResponseBody) {
+                throw throwWithDebugInfo(log, null, e.getMessage(), "html", ((ExceptionWithResponseBody) e).getResponseBody());
             }
+
+            throw e;
         }
+    }
+
+    @Override
+    public void setHttpInterfaceManager(@NotNull HttpInterfaceManager httpInterfaceManager) {
+        playerScriptRefresher.setHttpInterfaceManager(httpInterfaceManager);
 
-        return cachedPlayerScript;
+        if (fallbackManager != null) {
+            fallbackManager.setHttpInterfaceManager(httpInterfaceManager);
+        }
+    }
+
+    /**
+     * Stops refreshing the player script in the background, and closes the fallback manager, if any.
+     */
+    @Override
+    public void close() {
+        playerScriptRefresher.close();
+
+        if (fallbackManager instanceof Closeable) {
+            ExceptionTools.closeWithWarnings((Closeable) fallbackManager);
+        }
+    }
+
+    @Override
+    public void reportThrottled(@NotNull String playerScript, @NotNull StreamFormat format) {
+        log.debug("Stream url for itag {} resolved with player script {} was throttled", format.getItag(), playerScript);
+        resultCache.remove(playerScript, ValueType.RESOLVED_URL, getCacheKey(format));
+
+        if (fallbackManager != null) {
+            fallbackManager.reportThrottled(playerScript, format);
+        }
     }
 
     public String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
-        synchronized (this) {
+        String cached = resultCache.get(sourceUrl, ValueType.TIMESTAMP, sourceUrl);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        String timestamp = withFallback(
+            () -> getRemoteTimestamp(httpInterface, sourceUrl),
+            fallback -> fallback.getTimestamp(httpInterface, sourceUrl)
+        );
+
+        if (timestamp != null) {
+            resultCache.put(sourceUrl, ValueType.TIMESTAMP, sourceUrl, timestamp);
+        }
+
+        return timestamp;
+    }
+
+    private String getRemoteTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
+        return timestampLoads.execute(sourceUrl, () -> {
             HttpPost request = new HttpPost(getRemoteEndpoint("get_sts"));
 
             log.debug("Getting timestamp for script: {}", sourceUrl);
@@ -106,15 +317,12 @@ public class RemoteCipherManager implements CipherManager {
                 .done();
             request.setEntity(new StringEntity(requestBody, ContentType.APPLICATION_JSON));
 
-            try (CloseableHttpResponse response = configureHttpInterface(httpInterface).execute(request)) {
-                String responseBody = validateAndGetResponseBody(response);
+            String responseBody = execute(httpInterface, request);
+            log.debug("Received response from remote cipher service: {}", responseBody);
 
-                log.debug("Received response from remote cipher service: {}", responseBody);
-
-                JsonBrowser json = JsonBrowser.parse(responseBody);
-                return json.get("sts").text();
-            }
-        }
+            JsonBrowser json = JsonBrowser.parse(responseBody);
+            return json.get("sts").text();
+        });
     }
 
     private String getRemoteEndpoint(String path) {
@@ -153,21 +361,77 @@ public class RemoteCipherManager implements CipherManager {
         String requestBody = writer.end().done();
         request.setEntity(new StringEntity(requestBody, ContentType.APPLICATION_JSON));
 
-        try (CloseableHttpResponse response = configureHttpInterface(httpInterface).execute(request)) {
-            String responseBody = validateAndGetResponseBody(response);
-            JsonBrowser json = JsonBrowser.parse(responseBody);
-            String resolvedUrl = json.get("resolved_url").text();
+        JsonBrowser json = JsonBrowser.parse(execute(httpInterface, request));
+        return parseResolvedUrl(json.get("resolved_url").text());
+    }
 
-            if (resolvedUrl == null || resolvedUrl.isEmpty()) {
-                throw new IOException("Remote cipher service did not return a resolved URL.");
-            }
+    @NotNull
+    private URI parseResolvedUrl(@Nullable String resolvedUrl) throws IOException {
+        if (resolvedUrl == null || resolvedUrl.isEmpty()) {
+            throw new IOException("Remote cipher service did not return a resolved URL.");
+        }
 
+        try {
             return new URI(resolvedUrl);
         } catch (URISyntaxException e) {
             throw new RuntimeException(e);
         }
     }
 
+    @NotNull
+    private String execute(@NotNull HttpInterface httpInterface, @NotNull HttpPost request) throws IOException {
+        return withRemoteInterface(httpInterface, remoteInterface -> {
+            try (CloseableHttpResponse response = remoteInterface.execute(request)) {
+                return validateAndGetResponseBody(response);
+            }
+        });
+    }
+
+    /**
+     * Makes a request to the remote service with the caller's interface. At most {@link #maxConcurrentRequests}
+     * requests are made at once.
+     */
+    private <T> T withRemoteInterface(@NotNull HttpInterface httpInterface,
+                                      @NotNull RequestHandler<T> handler) throws IOException {
+        try (RequestPermit ignored = acquirePermit()) {
+            requestCount.increment();
+            return handler.handle(configureHttpInterface(httpInterface));
+        }
+    }
+
+    @NotNull
+    private RequestPermit acquirePermit() throws IOException {
+        try {
+            requestPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst waiting to make a remote cipher request");
+        }
+
+        return requestPermits::release;
+    }
+
+    @FunctionalInterface
+    private interface RemoteCall<T> {
+        T call() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FallbackCall<T> {
+        T call(@NotNull CipherManager fallbackManager) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RequestHandler<T> {
+        T handle(@NotNull HttpInterface httpInterface) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RequestPermit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
     @NotNull
     public String validateAndGetResponseBody(@NotNull HttpResponse response) throws IOException {
         int statusCode = response.getStatusLine().getStatusCode();
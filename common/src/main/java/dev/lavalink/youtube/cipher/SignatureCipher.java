@@ -1,12 +1,19 @@
 package dev.lavalink.youtube.cipher;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.script.Invocable;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Describes one signature cipher
@@ -14,96 +21,308 @@ import javax.script.ScriptException;
 public class SignatureCipher {
     private static final Logger log = LoggerFactory.getLogger(SignatureCipher.class);
 
+    private static final String SIG_FUNCTION_NAME = "decrypt_sig";
+    private static final String N_FUNCTION_NAME = "decrypt_nsig";
+
+    // Distinct characters on both halves so that any misplaced character changes the output.
+    private static final String VERIFICATION_INPUT =
+        "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-_" +
+        "_-zyxwvutsrqponmlkjihgfedcbaZYXWVUTSRQPONMLKJIHGFEDCBA9876543210";
+
+    public static final int DEFAULT_MAX_EXECUTION_CONTEXTS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The optimization level at which the cipher functions are interpreted, rather than compiled to bytecode.
+     */
+    public static final int INTERPRETED_OPTIMIZATION_LEVEL = -1;
+    public static final int MAX_OPTIMIZATION_LEVEL = 9;
+
+    private static final ConcurrentMap<Integer, ContextFactory> contextFactories = new ConcurrentHashMap<>();
+
     public final String timestamp;
     public final String globalVars;
     public final String sigActions;
     public final String sigFunction;
     public final String nFunction;
+    /**
+     * @deprecated Ciphers created by {@link LocalSignatureCipherManager} no longer retain the player script, so
+     * this will be empty. Use {@link LocalSignatureCipherManager#getRawScript} instead.
+     */
+    @Deprecated
     public final String rawScript;
 
+    private final int maxExecutionContexts;
+    private final int optimizationLevel;
+    private final CipherExecutionMetrics metrics;
+    private final Object compileLock = new Object();
+    private final List<CipherOperation> operations;
+    private volatile CipherExecutionPool executionPool;
+    private volatile Boolean operationsVerified;
+
     public SignatureCipher(@NotNull String timestamp,
                            @NotNull String globalVars,
                            @NotNull String sigActions,
                            @NotNull String sigFunction,
                            @NotNull String nFunction,
                            @NotNull String rawScript) {
+        this(timestamp, globalVars, sigActions, sigFunction, nFunction, rawScript,
+            DEFAULT_MAX_EXECUTION_CONTEXTS, new CipherExecutionMetrics());
+    }
+
+    /**
+     * @param maxExecutionContexts The maximum number of execution contexts for this cipher. This bounds how many
+     *                             threads may execute the cipher functions concurrently.
+     * @param metrics The metrics to record executions to.
+     */
+    public SignatureCipher(@NotNull String timestamp,
+                           @NotNull String globalVars,
+                           @NotNull String sigActions,
+                           @NotNull String sigFunction,
+                           @NotNull String nFunction,
+                           @NotNull String rawScript,
+                           int maxExecutionContexts,
+                           @NotNull CipherExecutionMetrics metrics) {
+        this(timestamp, globalVars, sigActions, sigFunction, nFunction, rawScript,
+            maxExecutionContexts, INTERPRETED_OPTIMIZATION_LEVEL, metrics);
+    }
+
+    /**
+     * @param maxExecutionContexts The maximum number of execution contexts for this cipher. This bounds how many
+     *                             threads may execute the cipher functions concurrently.
+     * @param optimizationLevel The Rhino optimization level to compile the cipher functions at. At
+     *                          {@link #INTERPRETED_OPTIMIZATION_LEVEL} the functions are interpreted, otherwise they
+     *                          are compiled to JVM bytecode, falling back to interpretation should that fail.
+     * @param metrics The metrics to record executions to.
+     */
+    public SignatureCipher(@NotNull String timestamp,
+                           @NotNull String globalVars,
+                           @NotNull String sigActions,
+                           @NotNull String sigFunction,
+                           @NotNull String nFunction,
+                           @NotNull String rawScript,
+                           int maxExecutionContexts,
+                           int optimizationLevel,
+                           @NotNull CipherExecutionMetrics metrics) {
+        if (optimizationLevel < INTERPRETED_OPTIMIZATION_LEVEL || optimizationLevel > MAX_OPTIMIZATION_LEVEL) {
+            throw new IllegalArgumentException("optimizationLevel must be between " + INTERPRETED_OPTIMIZATION_LEVEL +
+                " and " + MAX_OPTIMIZATION_LEVEL);
+        }
+
         this.timestamp = timestamp;
         this.globalVars = globalVars;
         this.sigActions = sigActions;
         this.sigFunction = sigFunction;
         this.nFunction = nFunction;
         this.rawScript = rawScript;
+        this.maxExecutionContexts = maxExecutionContexts;
+        this.optimizationLevel = optimizationLevel;
+        this.metrics = metrics;
+        this.operations = CipherOperationParser.parse(globalVars, sigActions, sigFunction);
     }
 
     /**
      * @param text Text to apply the cipher on
      * @return The result of the cipher on the input text
      */
+    public String apply(@NotNull String text) throws ScriptException, NoSuchMethodException {
+        if (operations != null && useOperations()) {
+            metrics.recordNativeExecution();
+            return applyOperations(operations, text);
+        }
+
+        return getExecutionPool().call(SIG_FUNCTION_NAME, text);
+    }
+
+    /**
+     * @param text Text to apply the cipher on
+     * @return The result of the cipher on the input text
+     * @deprecated The script engine is no longer used, as the cipher functions are compiled once
+     * and then reused. Use {@link #apply(String)} instead.
+     */
+    @Deprecated
     public String apply(@NotNull String text,
                         @NotNull ScriptEngine scriptEngine) throws ScriptException, NoSuchMethodException {
-        String transformed;
+        return apply(text);
+    }
 
-        scriptEngine.eval(globalVars + ";" + sigActions + ";decrypt_sig=" + sigFunction);
-        transformed = (String) ((Invocable) scriptEngine).invokeFunction("decrypt_sig", text);
-        return transformed;
+    /**
+     * @return The operations making up the signature cipher, or {@code null} if they could not be determined, in
+     *         which case the signature function is executed by the JavaScript engine.
+     */
+    @Nullable
+    public List<CipherOperation> getOperations() {
+        return operations;
     }
 
-//  /**
-//   * @param text Text to apply the cipher on
-//   * @return The result of the cipher on the input text
-//   */
-//  public String apply(@NotNull String text) {
-//    StringBuilder builder = new StringBuilder(text);
-//
-//    for (CipherOperation operation : operations) {
-//      switch (operation.type) {
-//        case SWAP:
-//          int position = operation.parameter % text.length();
-//          char temp = builder.charAt(0);
-//          builder.setCharAt(0, builder.charAt(position));
-//          builder.setCharAt(position, temp);
-//          break;
-//        case REVERSE:
-//          builder.reverse();
-//          break;
-//        case SLICE:
-//        case SPLICE:
-//          builder.delete(0, operation.parameter);
-//          break;
-//        default:
-//          throw new IllegalStateException("All branches should be covered");
-//      }
-//    }
-//
-//    return builder.toString();
-//  }
+    /**
+     * @return An estimate of the memory occupied by the extracted cipher components, along with the compiled
+     *         script and its execution scopes once they have been created, in bytes.
+     */
+    long getEstimatedBytes() {
+        long componentBytes = 2L * (globalVars.length() + sigActions.length() + sigFunction.length() + nFunction.length());
+        CipherExecutionPool pool = executionPool;
+        return 2L * timestamp.length() + componentBytes + (pool != null ? pool.getEstimatedBytes(componentBytes) : 0);
+    }
+
+    /**
+     * Applies the signature cipher operations in Java.
+     * @param operations The operations to apply.
+     * @param text Text to apply the operations on
+     * @return The result of the operations on the input text
+     */
+    @NotNull
+    static String applyOperations(@NotNull List<CipherOperation> operations, @NotNull String text) {
+        StringBuilder builder = new StringBuilder(text);
+
+        for (CipherOperation operation : operations) {
+            switch (operation.type) {
+                case SWAP:
+                    if (builder.length() == 0) {
+                        break;
+                    }
+
+                    int position = operation.parameter % builder.length();
+                    char temp = builder.charAt(0);
+                    builder.setCharAt(0, builder.charAt(position));
+                    builder.setCharAt(position, temp);
+                    break;
+                case REVERSE:
+                    builder.reverse();
+                    break;
+                case SLICE:
+                case SPLICE:
+                    builder.delete(0, Math.min(operation.parameter, builder.length()));
+                    break;
+                default:
+                    throw new IllegalStateException("All branches should be covered");
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Checks, once, that the parsed operations produce the same output as the signature function does, so
+     * that a misinterpreted cipher can never produce a bad signature.
+     */
+    private boolean useOperations() {
+        Boolean verified = operationsVerified;
+
+        if (verified == null) {
+            synchronized (compileLock) {
+                verified = operationsVerified;
+
+                if (verified == null) {
+                    try {
+                        String expected = getExecutionPool().call(SIG_FUNCTION_NAME, VERIFICATION_INPUT);
+                        verified = applyOperations(operations, VERIFICATION_INPUT).equals(expected);
+
+                        if (!verified) {
+                            log.warn("Parsed signature cipher operations do not match the signature function, falling back to script execution.");
+                        }
+                    } catch (ScriptException | NoSuchMethodException | RuntimeException e) {
+                        log.debug("Unable to verify parsed signature cipher operations", e);
+                        verified = false;
+                    }
+
+                    operationsVerified = verified;
+                }
+            }
+        }
+
+        return verified;
+    }
+
+    /**
+     * @param text Text to transform
+     * @return The result of the n parameter transformation
+     */
+    public String transform(@NotNull String text) throws ScriptException, NoSuchMethodException {
+        return getExecutionPool().call(N_FUNCTION_NAME, text);
+    }
 
     /**
      * @param text         Text to transform
      * @param scriptEngine JavaScript engine to execute function
      * @return The result of the n parameter transformation
+     * @deprecated The script engine is no longer used, as the cipher functions are compiled once
+     * and then reused. Use {@link #transform(String)} instead.
      */
+    @Deprecated
     public String transform(@NotNull String text, @NotNull ScriptEngine scriptEngine)
         throws ScriptException, NoSuchMethodException {
-        String transformed;
+        return transform(text);
+    }
+
+    @NotNull
+    private CipherExecutionPool getExecutionPool() throws ScriptException {
+        CipherExecutionPool pool = executionPool;
+
+        if (pool == null) {
+            synchronized (compileLock) {
+                pool = executionPool;
 
-        scriptEngine.eval(globalVars + ";decrypt_nsig=" + nFunction);
-        transformed = (String) ((Invocable) scriptEngine).invokeFunction("decrypt_nsig", text);
+                if (pool == null) {
+                    executionPool = pool = compile();
+                }
+            }
+        }
 
-        return transformed;
+        return pool;
     }
 
-//  /**
-//   * @param operation The operation to add to this cipher
-//   */
-//  public void addOperation(@NotNull CipherOperation operation) {
-//    operations.add(operation);
-//  }
-//
-//  /**
-//   * @return True if the cipher contains no operations.
-//   */
-//  public boolean isEmpty() {
-//    return operations.isEmpty();
-//  }
+    /**
+     * Compiles the cipher functions at the configured optimization level. The compiled script, and any classes
+     * generated for it, are held by the execution pool, and so are shared by every execution of this cipher.
+     */
+    @NotNull
+    private CipherExecutionPool compile() throws ScriptException {
+        String source = globalVars + ";" + sigActions + ";var " + SIG_FUNCTION_NAME + "=" + sigFunction +
+            ";var " + N_FUNCTION_NAME + "=" + nFunction;
+
+        if (optimizationLevel != INTERPRETED_OPTIMIZATION_LEVEL) {
+            ContextFactory factory = getContextFactory(optimizationLevel);
+
+            try {
+                Script script = compile(factory, source);
+                metrics.recordCompilation(true);
+                return new CipherExecutionPool(factory, script, maxExecutionContexts, metrics);
+            } catch (ScriptException | RuntimeException | LinkageError e) {
+                // Generated methods are limited to 64KB of bytecode, which a large enough function can exceed.
+                log.warn("Unable to compile signature cipher functions to bytecode, falling back to interpreted mode.", e);
+                metrics.recordCompilationFallback();
+            }
+        }
+
+        ContextFactory factory = getContextFactory(INTERPRETED_OPTIMIZATION_LEVEL);
+        Script script = compile(factory, source);
+        metrics.recordCompilation(false);
+        return new CipherExecutionPool(factory, script, maxExecutionContexts, metrics);
+    }
+
+    @NotNull
+    private static Script compile(@NotNull ContextFactory factory, @NotNull String source) throws ScriptException {
+        long start = System.nanoTime();
+
+        try (Context cx = factory.enterContext()) {
+            Script script = cx.compileString(source, "signature-cipher", 1, null);
+            log.debug("Compiled signature cipher functions at optimization level {} in {}ms",
+                cx.getOptimizationLevel(), (System.nanoTime() - start) / 1_000_000);
+            return script;
+        } catch (RhinoException e) {
+            throw CipherExecutionPool.toScriptException(e);
+        }
+    }
+
+    @NotNull
+    private static ContextFactory getContextFactory(int optimizationLevel) {
+        return contextFactories.computeIfAbsent(optimizationLevel, level -> new ContextFactory() {
+            @Override
+            protected void onContextCreated(Context cx) {
+                super.onContextCreated(cx);
+                cx.setLanguageVersion(Context.VERSION_ES6);
+                cx.setOptimizationLevel(level);
+            }
+        });
+    }
 }
@@ -0,0 +1,240 @@
+package dev.lavalink.youtube.cipher;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds extracted ciphers, keyed by the hash of the player script they were extracted from, along with
+ * the script URLs that map to each hash. The cache is bounded in both the number of entries, and how
+ * long an entry may go unused, with the least recently used entries being evicted first. Idle entries
+ * are evicted by lookups as well as by additions, so that an unused cipher is released even when no
+ * new player script is seen. Lookups never block.
+ */
+public class SignatureCipherCache {
+    private static final Logger log = LoggerFactory.getLogger(SignatureCipherCache.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+    public static final long DEFAULT_MAX_IDLE_MS = TimeUnit.DAYS.toMillis(2);
+
+    private static final long IDLE_SWEEP_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final ConcurrentMap<String, String> hashesByUrl;
+    private final ConcurrentMap<String, Entry> entries;
+    private final LongAdder evictions;
+    private final LongSupplier clock;
+    private final AtomicLong nextIdleSweepMs;
+
+    private volatile int maxEntries;
+    private volatile long maxIdleMs;
+
+    public SignatureCipherCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_IDLE_MS);
+    }
+
+    /**
+     * @param maxEntries The maximum number of ciphers to hold.
+     * @param maxIdleMs How long a cipher may go unused before it is evicted, in milliseconds.
+     */
+    public SignatureCipherCache(int maxEntries, long maxIdleMs) {
+        this(maxEntries, maxIdleMs, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries The maximum number of ciphers to hold.
+     * @param maxIdleMs How long a cipher may go unused before it is evicted, in milliseconds.
+     * @param clock The source of the current time, in milliseconds.
+     */
+    SignatureCipherCache(int maxEntries, long maxIdleMs, @NotNull LongSupplier clock) {
+        setLimits(maxEntries, maxIdleMs);
+        this.hashesByUrl = new ConcurrentHashMap<>();
+        this.entries = new ConcurrentHashMap<>();
+        this.evictions = new LongAdder();
+        this.clock = clock;
+        this.nextIdleSweepMs = new AtomicLong(clock.getAsLong() + IDLE_SWEEP_INTERVAL_MS);
+    }
+
+    /**
+     * @param maxEntries The maximum number of ciphers to hold.
+     * @param maxIdleMs How long a cipher may go unused before it is evicted, in milliseconds.
+     */
+    public void setLimits(int maxEntries, long maxIdleMs) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+
+        this.maxEntries = maxEntries;
+        this.maxIdleMs = maxIdleMs;
+    }
+
+    /**
+     * @param scriptUrl The URL of the player script.
+     * @return The cipher for the script, or {@code null} if it is not cached.
+     */
+    @Nullable
+    public SignatureCipher get(@NotNull String scriptUrl) {
+        String hash = hashesByUrl.get(scriptUrl);
+        return hash != null ? getByHash(hash) : null;
+    }
+
+    /**
+     * @param scriptHash The hash of the player script's content.
+     * @return The cipher for the script, or {@code null} if it is not cached.
+     */
+    @Nullable
+    public SignatureCipher getByHash(@NotNull String scriptHash) {
+        long now = clock.getAsLong();
+        long nextSweep = nextIdleSweepMs.get();
+
+        if (now >= nextSweep && nextIdleSweepMs.compareAndSet(nextSweep, now + IDLE_SWEEP_INTERVAL_MS)) {
+            evictIdle(now);
+        }
+
+        Entry entry = entries.get(scriptHash);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (now - entry.lastAccessMs > maxIdleMs) {
+            remove(scriptHash, entry, "idle");
+            return null;
+        }
+
+        entry.lastAccessMs = now;
+        return entry.cipher;
+    }
+
+    /**
+     * Caches a cipher, unless one is already cached for the same script content.
+     * @param scriptUrl The URL of the player script.
+     * @param scriptHash The hash of the player script's content.
+     * @param cipher The cipher extracted from the script.
+     * @return The cached cipher, which may not be the given cipher.
+     */
+    @NotNull
+    public SignatureCipher put(@NotNull String scriptUrl, @NotNull String scriptHash, @NotNull SignatureCipher cipher) {
+        Entry entry = new Entry(cipher, clock.getAsLong());
+        Entry existing = entries.putIfAbsent(scriptHash, entry);
+        hashesByUrl.put(scriptUrl, scriptHash);
+
+        if (existing != null) {
+            existing.lastAccessMs = entry.lastAccessMs;
+            return existing.cipher;
+        }
+
+        evict();
+        return cipher;
+    }
+
+    /**
+     * Associates a script URL with a cached cipher.
+     * @param scriptUrl The URL of the player script.
+     * @param scriptHash The hash of the player script's content.
+     */
+    public void mapUrl(@NotNull String scriptUrl, @NotNull String scriptHash) {
+        hashesByUrl.put(scriptUrl, scriptHash);
+    }
+
+    /**
+     * Removes the cipher for a script, so that it is extracted again the next time it is needed.
+     * @param scriptUrl The URL of the player script.
+     */
+    public void invalidate(@NotNull String scriptUrl) {
+        String hash = hashesByUrl.get(scriptUrl);
+        Entry entry = hash != null ? entries.get(hash) : null;
+
+        if (entry != null) {
+            remove(hash, entry, "invalidated");
+        }
+    }
+
+    /**
+     * @return The number of ciphers held.
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return An estimate of the memory occupied by the extracted cipher components, and by the compiled scripts
+     *         and execution scopes of the ciphers that have been used, in bytes.
+     */
+    public long getEstimatedBytes() {
+        long bytes = 0;
+
+        for (Entry entry : entries.values()) {
+            bytes += entry.cipher.getEstimatedBytes();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * @return The number of ciphers evicted.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void evictIdle(long now) {
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (now - entry.getValue().lastAccessMs > maxIdleMs) {
+                remove(entry.getKey(), entry.getValue(), "idle");
+            }
+        }
+    }
+
+    private synchronized void evict() {
+        evictIdle(clock.getAsLong());
+
+        while (entries.size() > maxEntries) {
+            Map.Entry<String, Entry> eldest = null;
+
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                if (eldest == null || entry.getValue().lastAccessMs < eldest.getValue().lastAccessMs) {
+                    eldest = entry;
+                }
+            }
+
+            if (eldest == null) {
+                break;
+            }
+
+            remove(eldest.getKey(), eldest.getValue(), "size");
+        }
+    }
+
+    private void remove(@NotNull String scriptHash, @NotNull Entry entry, @NotNull String reason) {
+        if (entries.remove(scriptHash, entry)) {
+            hashesByUrl.values().removeIf(scriptHash::equals);
+            evictions.increment();
+            log.debug("Evicted cipher for player script {} ({})", scriptHash, reason);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SignatureCipherCache{entries=%d, estimatedBytes=%d, evictions=%d}",
+            getEntryCount(), getEstimatedBytes(), getEvictions());
+    }
+
+    private static class Entry {
+        private final SignatureCipher cipher;
+        private volatile long lastAccessMs;
+
+        private Entry(@NotNull SignatureCipher cipher, long lastAccessMs) {
+            this.cipher = cipher;
+            this.lastAccessMs = lastAccessMs;
+        }
+    }
+}
@@ -187,6 +187,29 @@ public class Web extends StreamingNonMusicClient {
         return json.get("metadata").get("playlistMetadataRenderer").get("title").text();
     }
 
+    @Override
+    protected long extractPlaylistVideoCount(@NotNull JsonBrowser json) {
+        JsonBrowser stats = json.get("sidebar")
+                .get("playlistSidebarRenderer")
+                .get("items")
+                .index(0)
+                .get("playlistSidebarPrimaryInfoRenderer")
+                .get("stats")
+                .index(0);
+
+        String text = DataFormatTools.defaultOnNull(stats.get("runs").index(0).get("text").text(), stats.get("simpleText").text());
+
+        if (text != null) {
+            String digits = text.replaceAll("[^0-9]", "");
+
+            if (!digits.isEmpty()) {
+                return Long.parseLong(digits);
+            }
+        }
+
+        return super.extractPlaylistVideoCount(json);
+    }
+
     @NotNull
     protected JsonBrowser extractPlaylistVideoList(@NotNull JsonBrowser json) {
         return json.get("contents")
@@ -7,6 +7,9 @@ import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.track.*;
 import dev.lavalink.youtube.CannotBeLoaded;
 import dev.lavalink.youtube.OptionDisabledException;
+import dev.lavalink.youtube.PlayerResponseCache;
+import dev.lavalink.youtube.PlaylistCache;
+import dev.lavalink.youtube.PlaylistCache.CachedPlaylist;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.cipher.CipherManager;
 import dev.lavalink.youtube.cipher.CipherManager.CachedPlayerScript;
@@ -36,6 +39,7 @@ import java.util.stream.Collectors;
 
 import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.COMMON;
 import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.SUSPICIOUS;
+import static dev.lavalink.youtube.http.YoutubeOauth2Handler.OAUTH_INJECT_CONTEXT_ATTRIBUTE;
 
 /**
  * The base class for a client that is used for everything except music.youtube.com.
@@ -110,6 +114,78 @@ public abstract class NonMusicClient implements Client {
                                                      @NotNull String videoId,
                                                      @Nullable PlayabilityStatus status,
                                                      boolean validatePlayabilityStatus) throws CannotBeLoaded, IOException {
+        // Retries with a different playability status make a different request, so are not cached.
+        PlayerResponseCache responseCache = status == null ? getPlayerResponseCache(source, httpInterface) : null;
+        String signatureTimestamp = responseCache != null && requirePlayerScript()
+            ? source.getCipherManager().getCachedPlayerScript(httpInterface).signatureTimestamp
+            : null;
+
+        JsonBrowser json = responseCache != null ? responseCache.get(getIdentifier(), videoId, signatureTimestamp) : null;
+        boolean fromCache = json != null;
+
+        if (!fromCache) {
+            json = requestPlayerResponse(source, httpInterface, videoId, status);
+        }
+
+        JsonBrowser playabilityJson = json.get("playabilityStatus");
+        JsonBrowser videoDetails = json.get("videoDetails");
+
+        // we should always check playabilityStatus if videoDetails is null because it could contain important
+        // information as to why, which prevents false reports about this not working as intended etc etc.
+        if (validatePlayabilityStatus || videoDetails.isNull()) {
+            // fix: Make this method throw if a status was supplied (typically when we recurse).
+            PlayabilityStatus playabilityStatus = getPlayabilityStatus(playabilityJson, status != null);
+
+            // All other branches should've been caught by getPlayabilityStatus().
+            // An exception will be thrown if we can't handle it.
+            if (playabilityStatus == PlayabilityStatus.NON_EMBEDDABLE) {
+                if (isEmbedded()) {
+                    throw new FriendlyException("Loading information for video failed", Severity.COMMON,
+                        new RuntimeException("Non-embeddable video cannot be loaded by embedded client"));
+                }
+
+                // forcefully set validatePlayabilityStatus to true because the code is at this point for a reason.
+                // we want to make sure the re-check gets an accurate reason for any playability issues.
+                json = loadTrackInfoFromInnertube(source, httpInterface, videoId, playabilityStatus, true);
+                getPlayabilityStatus(json.get("playabilityStatus"), true);
+            }
+        }
+
+        if (videoDetails.isNull()) {
+            throw new FriendlyException("Loading information for video failed", Severity.SUSPICIOUS,
+                new RuntimeException("Missing videoDetails block, JSON: " + json.format()));
+        }
+
+        if (!videoId.equals(videoDetails.get("videoId").text())) {
+            throw new FriendlyException(
+                "The video returned is not what was requested.",
+                Severity.SUSPICIOUS,
+                new RuntimeException("Incorrect video response, JSON: " + json.format())
+            );
+        }
+
+        if (responseCache != null && !fromCache) {
+            responseCache.put(getIdentifier(), videoId, signatureTimestamp, json);
+        }
+
+        return json;
+    }
+
+    /**
+     * Requests the player response for a video, without checking its playability.
+     * @param source The source manager linked to this client.
+     * @param httpInterface The interface to use for HTTP requests.
+     * @param videoId The ID of the video to retrieve information for.
+     * @param status The last playability status, or {@code null} if an attempt to retrieve
+     *               information has not been made yet.
+     * @return The raw JSON data as received from YouTube.
+     * @throws IOException If a HTTP request fails, etc.
+     */
+    @NotNull
+    protected JsonBrowser requestPlayerResponse(@NotNull YoutubeAudioSourceManager source,
+                                                @NotNull HttpInterface httpInterface,
+                                                @NotNull String videoId,
+                                                @Nullable PlayabilityStatus status) throws IOException {
         CipherManager cipherManager = source.getCipherManager();
 
         ClientConfig config = getBaseClientConfig(httpInterface);
@@ -152,45 +228,35 @@ public abstract class NonMusicClient implements Client {
         HttpPost request = new HttpPost(PLAYER_URL);
         request.setEntity(new StringEntity(payload, "UTF-8"));
 
-        JsonBrowser json = loadJsonResponse(httpInterface, request, "player api response");
-        JsonBrowser playabilityJson = json.get("playabilityStatus");
-        JsonBrowser videoDetails = json.get("videoDetails");
-
-        // we should always check playabilityStatus if videoDetails is null because it could contain important
-        // information as to why, which prevents false reports about this not working as intended etc etc.
-        if (validatePlayabilityStatus || videoDetails.isNull()) {
-            // fix: Make this method throw if a status was supplied (typically when we recurse).
-            PlayabilityStatus playabilityStatus = getPlayabilityStatus(playabilityJson, status != null);
-
-            // All other branches should've been caught by getPlayabilityStatus().
-            // An exception will be thrown if we can't handle it.
-            if (playabilityStatus == PlayabilityStatus.NON_EMBEDDABLE) {
-                if (isEmbedded()) {
-                    throw new FriendlyException("Loading information for video failed", Severity.COMMON,
-                        new RuntimeException("Non-embeddable video cannot be loaded by embedded client"));
-                }
+        return loadJsonResponse(httpInterface, request, "player api response");
+    }
 
-                // forcefully set validatePlayabilityStatus to true because the code is at this point for a reason.
-                // we want to make sure the re-check gets an accurate reason for any playability issues.
-                json = loadTrackInfoFromInnertube(source, httpInterface, videoId, playabilityStatus, true);
-                getPlayabilityStatus(json.get("playabilityStatus"), true);
-            }
+    /**
+     * @return The cache to use for player responses, or {@code null} if they should not be cached, such as when
+     * the request is made with a user's OAuth token, as the response may differ for other users.
+     */
+    @Nullable
+    protected PlayerResponseCache getPlayerResponseCache(@NotNull YoutubeAudioSourceManager source,
+                                                         @NotNull HttpInterface httpInterface) {
+        if (httpInterface.getContext().getAttribute(OAUTH_INJECT_CONTEXT_ATTRIBUTE) != null) {
+            return null;
         }
 
-        if (videoDetails.isNull()) {
-            throw new FriendlyException("Loading information for video failed", Severity.SUSPICIOUS,
-                new RuntimeException("Missing videoDetails block, JSON: " + json.format()));
-        }
+        return source.getPlayerResponseCache();
+    }
 
-        if (!videoId.equals(videoDetails.get("videoId").text())) {
-            throw new FriendlyException(
-                "The video returned is not what was requested.",
-                Severity.SUSPICIOUS,
-                new RuntimeException("Incorrect video response, JSON: " + json.format())
-            );
+    /**
+     * @return The cache to use for playlists, or {@code null} if they should not be cached, such as when the
+     * request is made with a user's OAuth token, as private playlists must not be shared with other users.
+     */
+    @Nullable
+    protected PlaylistCache getPlaylistCache(@NotNull YoutubeAudioSourceManager source,
+                                             @NotNull HttpInterface httpInterface) {
+        if (httpInterface.getContext().getAttribute(OAUTH_INJECT_CONTEXT_ATTRIBUTE) != null) {
+            return null;
         }
 
-        return json;
+        return source.getPlaylistCache();
     }
 
     /**
@@ -329,6 +395,23 @@ public abstract class NonMusicClient implements Client {
         return json.get("header").get("playlistHeaderRenderer").get("title").get("runs").index(0).get("text").text();
     }
 
+    /**
+     * @return The number of videos the playlist reports having, including unavailable ones, or {@code -1}
+     * if it is not known.
+     */
+    protected long extractPlaylistVideoCount(@NotNull JsonBrowser json) {
+        JsonBrowser numVideosText = json.get("header").get("playlistHeaderRenderer").get("numVideosText");
+        String text = DataFormatTools.defaultOnNull(numVideosText.get("runs").index(0).get("text").text(), numVideosText.get("simpleText").text());
+
+        if (text == null) {
+            return -1;
+        }
+
+        // Strip digit grouping, which depends on the locale, along with any trailing "videos".
+        String digits = text.replaceAll("[^0-9]", "");
+        return digits.isEmpty() ? -1 : Long.parseLong(digits);
+    }
+
     @NotNull
     protected JsonBrowser extractPlaylistVideoList(@NotNull JsonBrowser json) {
         return json.get("contents")
@@ -501,6 +584,15 @@ public abstract class NonMusicClient implements Client {
             throw new OptionDisabledException("Playlist loading is disabled for this client");
         }
 
+        PlaylistCache playlistCache = getPlaylistCache(source, httpInterface);
+        CachedPlaylist cachedPlaylist = playlistCache != null ? playlistCache.get(playlistId) : null;
+
+        if (cachedPlaylist != null && !cachedPlaylist.isExpired()) {
+            playlistCache.recordHit();
+            List<AudioTrack> tracks = cachedPlaylist.copyTracks();
+            return new BasicAudioPlaylist(cachedPlaylist.getName(), tracks, findSelectedTrack(tracks, selectedVideoId), false);
+        }
+
         JsonBrowser json = loadPlaylistResult(httpInterface, playlistId);
         String error = extractPlaylistError(json);
 
@@ -521,6 +613,22 @@ public abstract class NonMusicClient implements Client {
         extractPlaylistTracks(playlistVideoList, tracks, source);
 
         String continuationsToken = extractPlaylistContinuationToken(playlistVideoList);
+        List<String> firstPageVideoIds = null;
+        long videoCount = -1;
+
+        if (playlistCache != null) {
+            firstPageVideoIds = tracks.stream().map(AudioTrack::getIdentifier).collect(Collectors.toList());
+            videoCount = extractPlaylistVideoCount(json);
+
+            if (cachedPlaylist == null) {
+                playlistCache.recordMiss();
+            } else if (playlistCache.revalidate(playlistId, cachedPlaylist, playlistName, firstPageVideoIds, videoCount)) {
+                // The first page and video count are unchanged, so the remaining pages need not be fetched.
+                List<AudioTrack> cachedTracks = cachedPlaylist.copyTracks();
+                return new BasicAudioPlaylist(playlistName, cachedTracks, findSelectedTrack(cachedTracks, selectedVideoId), false);
+            }
+        }
+
         int currentPageCount = 0;
 
         while (continuationsToken != null && ++currentPageCount < playlistPageCount) {
@@ -547,6 +655,10 @@ public abstract class NonMusicClient implements Client {
             throw new FriendlyException("Could not find tracks from playlist.", SUSPICIOUS, new RuntimeException("JSON: " + json.format()));
         }
 
+        if (playlistCache != null) {
+            playlistCache.put(playlistId, playlistName, tracks, firstPageVideoIds, videoCount);
+        }
+
         return new BasicAudioPlaylist(playlistName, tracks, findSelectedTrack(tracks, selectedVideoId), false);
     }
 
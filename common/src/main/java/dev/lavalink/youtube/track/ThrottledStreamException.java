@@ -0,0 +1,23 @@
+package dev.lavalink.youtube.track;
+
+import java.io.IOException;
+
+/**
+ * Thrown when reading from a {@link YoutubePersistentHttpStream} whose sustained throughput fell below the
+ * throttling threshold.
+ */
+public class ThrottledStreamException extends IOException {
+    private final long bytesPerSecond;
+
+    public ThrottledStreamException(long bytesPerSecond) {
+        super("Stream is throttled at " + bytesPerSecond + " bytes/s");
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * @return The throughput the stream was delivered at when it was found to be throttled.
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+}
@@ -0,0 +1,61 @@
+package dev.lavalink.youtube.track;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of a stream over the time spent waiting for data, rather than wall time, so that
+ * a consumer reading slower than the network delivers does not look like a slow stream. YouTube throttles
+ * URLs whose n parameter was not transformed correctly to roughly the playback rate, far below what an
+ * unthrottled URL delivers, so sustained throughput below the threshold is treated as throttling.
+ */
+class ThroughputMonitor {
+    static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(4);
+    static final int SLOW_WINDOWS_UNTIL_THROTTLED = 2;
+
+    private final long thresholdBytesPerSecond;
+
+    private long windowBytes;
+    private long windowNanos;
+    private int slowWindows;
+    private long lastBytesPerSecond = -1;
+
+    /**
+     * @param thresholdBytesPerSecond The throughput below which the stream is considered throttled. A value of
+     *                                {@code 0} or less disables detection.
+     */
+    ThroughputMonitor(long thresholdBytesPerSecond) {
+        this.thresholdBytesPerSecond = thresholdBytesPerSecond;
+    }
+
+    /**
+     * @param bytes The number of bytes read.
+     * @param elapsedNanos How long the read took.
+     * @return Whether the stream is considered throttled.
+     */
+    boolean record(long bytes, long elapsedNanos) {
+        if (thresholdBytesPerSecond <= 0) {
+            return false;
+        }
+
+        windowBytes += bytes;
+        windowNanos += elapsedNanos;
+
+        if (windowNanos < WINDOW_NANOS) {
+            return false;
+        }
+
+        lastBytesPerSecond = windowBytes * TimeUnit.SECONDS.toNanos(1) / windowNanos;
+        windowBytes = 0;
+        windowNanos = 0;
+        slowWindows = lastBytesPerSecond < thresholdBytesPerSecond ? slowWindows + 1 : 0;
+
+        return slowWindows >= SLOW_WINDOWS_UNTIL_THROTTLED;
+    }
+
+    /**
+     * @return The throughput measured over the last complete window, or {@code -1} if no window has completed.
+     */
+    long getLastBytesPerSecond() {
+        return lastBytesPerSecond;
+    }
+}
@@ -84,23 +84,57 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       }
 
       List<ClientException> exceptions = new ArrayList<>();
+      StreamThrottledException throttled = null;
+      Client throttledClient = null;
+      boolean skippedClients = false;
 
-      for (Client client : clients) {
+      for (Client client : sourceManager.getOrderedClients(ClientOperation.FORMATS)) {
         if (!client.supportsFormatLoading()) {
           continue;
         }
 
+        if (!sourceManager.allowClientRequest(client, ClientOperation.FORMATS)) {
+          log.debug("Skipping client {} for {}, its circuit is open", client.getIdentifier(), getIdentifier());
+          skippedClients = true;
+          continue;
+        }
+
         httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+        ClientOutcome outcome = new ClientOutcome(client);
 
         try {
-          processWithClient(localExecutor, httpInterface, client, 0);
+          processWithClient(localExecutor, httpInterface, client, throttled, true, outcome);
           return;
         } catch (CannotBeLoaded e) {
+          outcome.recordAbandoned();
+          forgetVideoMetadata();
           throw e;
+        } catch (StreamThrottledException e) {
+          // Resume playback with a URL resolved by the next client.
+          log.debug("Stream from client {} was throttled, trying next client", client.getIdentifier());
+          throttled = e;
+          throttledClient = client;
+          exceptions.add(new ClientException(e.getCause().getMessage(), client, e.getCause()));
+          outcome.recordFailure();
+          invalidatePlayerResponse(client);
         } catch (Exception e) {
+          invalidatePlayerResponse(client);
+
+          // Failures early in playback count against the client even if its formats loaded, as its URLs may
+          // not be playable. Later failures are more likely to be network issues.
+          if (localExecutor.getPosition() < BAD_STREAM_POSITION_THRESHOLD_MS) {
+            outcome.recordFailure();
+          } else {
+            outcome.recordAbandoned();
+          }
+
+          // Throttling is only detected well into playback, and the throttled stream can still be resumed,
+          // so the position alone does not make the stream unrecoverable.
+          boolean unrecoverable = throttled == null && localExecutor.getPosition() >= BAD_STREAM_POSITION_THRESHOLD_MS;
+
           if (e instanceof ScriptExtractionException) {
             // If we're still early in playback, we can try another client
-            if (localExecutor.getPosition() >= BAD_STREAM_POSITION_THRESHOLD_MS) {
+            if (unrecoverable) {
               throw e;
             }
           } else if ("Not success status code: 403".equals(e.getMessage()) ||
@@ -108,7 +142,7 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
             // As long as the executor position has not surpassed the threshold for which
             // a stream is considered unrecoverable, we can try to renew the playback URL with
             // another client.
-            if (localExecutor.getPosition() >= BAD_STREAM_POSITION_THRESHOLD_MS) {
+            if (unrecoverable) {
               throw e;
             }
           }
@@ -116,9 +150,23 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
         }
       }
 
+      if (throttled != null) {
+        // A slow stream is better than none, so with no client left to take over, carry on with the
+        // last throttled client and stop checking its throughput.
+        log.debug("No client left to replace throttled stream, continuing with client {}", throttledClient.getIdentifier());
+        // Its outcome was already recorded, and no further request was allowed for it.
+        processWithClient(localExecutor, httpInterface, throttledClient, throttled, false, null);
+        return;
+      }
+
       if (!exceptions.isEmpty()) {
         throw new AllClientsFailedException(exceptions);
       }
+
+      if (skippedClients) {
+        throw new FriendlyException("All clients able to play this video are temporarily unavailable.", Severity.SUSPICIOUS,
+            new IllegalStateException("The circuits of all clients supporting format loading are open"));
+      }
     } catch (CannotBeLoaded e) {
       throw ExceptionTools.wrapUnfriendlyExceptions("This video is unavailable", Severity.SUSPICIOUS, e.getCause());
     }
@@ -127,8 +175,41 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
   private void processWithClient(LocalAudioTrackExecutor localExecutor,
                                  HttpInterface httpInterface,
                                  Client client,
-                                 long streamPosition) throws CannotBeLoaded, Exception {
+                                 @Nullable StreamThrottledException throttled,
+                                 boolean detectThrottling,
+                                 @Nullable ClientOutcome outcome) throws CannotBeLoaded, Exception {
+    long startNanos = System.nanoTime();
     FormatWithUrl augmentedFormat = loadBestFormatWithUrl(httpInterface, client);
+    long streamPosition = 0;
+
+    if (outcome != null) {
+      // Formats loading is not enough for the client to have succeeded, as its URLs may not be playable.
+      outcome.setLatencyNanos(System.nanoTime() - startNanos);
+    }
+
+    if (throttled != null) {
+      if (throttled.canResume(augmentedFormat.format)) {
+        streamPosition = throttled.lastStreamPosition;
+      } else {
+        // Byte positions differ between formats, so seek to the current playback position instead.
+        localExecutor.setPosition(localExecutor.getPosition());
+      }
+    }
+
+    processWithFormat(localExecutor, httpInterface, client, augmentedFormat, streamPosition, detectThrottling, outcome);
+
+    if (outcome != null) {
+      outcome.recordSuccess();
+    }
+  }
+
+  private void processWithFormat(LocalAudioTrackExecutor localExecutor,
+                                 HttpInterface httpInterface,
+                                 Client client,
+                                 FormatWithUrl augmentedFormat,
+                                 long streamPosition,
+                                 boolean detectThrottling,
+                                 @Nullable ClientOutcome outcome) throws CannotBeLoaded, Exception {
     log.debug("Starting track with URL from client {}: {}", client.getIdentifier(), augmentedFormat.signedUrl);
 
     String query = augmentedFormat.signedUrl.getRawQuery();
@@ -139,21 +220,42 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       if (isStream) {
         processStream(localExecutor, httpInterface, augmentedFormat);
       } else {
-        processStatic(localExecutor, httpInterface, augmentedFormat, streamPosition);
+        processStatic(localExecutor, httpInterface, augmentedFormat, streamPosition, detectThrottling, outcome);
       }
     } catch (StreamExpiredException e) {
-      processWithClient(localExecutor, httpInterface, client, e.lastStreamPosition);
+      processWithFormat(localExecutor, httpInterface, client, loadBestFormatWithUrl(httpInterface, client), e.lastStreamPosition,
+          detectThrottling, outcome);
+    } catch (StreamThrottledException e) {
+      if (augmentedFormat.playerScriptUrl != null) {
+        sourceManager.getCipherManager().reportThrottled(augmentedFormat.playerScriptUrl, augmentedFormat.format);
+      }
+
+      throw e;
     }
   }
 
   private void processStatic(LocalAudioTrackExecutor localExecutor,
                              HttpInterface httpInterface,
                              FormatWithUrl augmentedFormat,
-                             long streamPosition) throws Exception {
+                             long streamPosition,
+                             boolean detectThrottling,
+                             @Nullable ClientOutcome outcome) throws Exception {
     YoutubePersistentHttpStream stream = null;
 
     try {
-      stream = new YoutubePersistentHttpStream(httpInterface, augmentedFormat.signedUrl, augmentedFormat.format.getContentLength());
+      stream = new YoutubePersistentHttpStream(httpInterface, augmentedFormat.signedUrl,
+          augmentedFormat.format.getContentLength(), detectThrottling ? sourceManager.getThrottleThresholdBytesPerSecond() : 0) {
+        @Override
+        protected int internalRead(byte[] b, int off, int len, boolean attemptReconnect) throws IOException {
+          int result = super.internalRead(b, off, len, attemptReconnect);
+
+          if (outcome != null && localExecutor.getPosition() >= BAD_STREAM_POSITION_THRESHOLD_MS) {
+            outcome.recordSuccess();
+          }
+
+          return result;
+        }
+      };
 
       if (streamPosition > 0) {
         stream.seek(streamPosition);
@@ -164,7 +266,13 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       } else {
         processDelegate(new MpegAudioTrack(trackInfo, stream), localExecutor);
       }
-    } catch (RuntimeException e) {
+    } catch (Exception e) {
+      if (stream != null && stream.isThrottled()) {
+        // The exception may have been wrapped by the container reader.
+        throw new StreamThrottledException(stream.getPosition(), augmentedFormat.format,
+            new ThrottledStreamException(stream.getThrottledBytesPerSecond()));
+      }
+
       if ("Not success status code: 403".equals(e.getMessage()) && augmentedFormat.isExpired() && stream != null) {
         throw new StreamExpiredException(stream.getPosition(), e);
       }
@@ -204,13 +312,38 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
     StreamFormat format = formats.getBestFormat();
 
     URI resolvedUrl = format.getUrl();
+    String playerScriptUrl = null;
+
     if (client.requirePlayerScript()) {
+      playerScriptUrl = formats.getPlayerScriptUrl();
       resolvedUrl = sourceManager.getCipherManager()
-              .resolveFormatUrl(httpInterface, formats.getPlayerScriptUrl(), format);
+              .resolveFormatUrl(httpInterface, playerScriptUrl, format);
       resolvedUrl = client.transformPlaybackUri(format.getUrl(), resolvedUrl);
     }
 
-    return new FormatWithUrl(format, resolvedUrl);
+    return new FormatWithUrl(format, resolvedUrl, playerScriptUrl);
+  }
+
+  /**
+   * Drops the cached player response of a client whose formats failed to play, so that it is not reused.
+   */
+  private void invalidatePlayerResponse(@NotNull Client client) {
+    PlayerResponseCache responseCache = sourceManager.getPlayerResponseCache();
+
+    if (responseCache != null) {
+      responseCache.remove(client.getIdentifier(), getIdentifier());
+    }
+  }
+
+  /**
+   * Drops the cached metadata of a video that turned out to be unavailable, so that loading it again fails early.
+   */
+  private void forgetVideoMetadata() {
+    VideoMetadataCache metadataCache = sourceManager.getVideoMetadataCache();
+
+    if (metadataCache != null) {
+      metadataCache.remove(getIdentifier());
+    }
   }
 
   @Override
@@ -231,11 +364,14 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
   private static class FormatWithUrl {
     private final StreamFormat format;
     private final URI signedUrl;
+    private final String playerScriptUrl;
 
     private FormatWithUrl(@NotNull StreamFormat format,
-                          @NotNull URI signedUrl) {
+                          @NotNull URI signedUrl,
+                          @Nullable String playerScriptUrl) {
       this.format = format;
       this.signedUrl = signedUrl;
+      this.playerScriptUrl = playerScriptUrl;
     }
 
     public boolean isExpired() {
@@ -272,13 +408,52 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
 
       try {
         URI uri = new URI(newUrl);
-        return new FormatWithUrl(format, uri);
+        return new FormatWithUrl(format, uri, playerScriptUrl);
       } catch (URISyntaxException e) {
         return null;
       }
     }
   }
 
+  /**
+   * Records the outcome of loading formats with a client exactly once. Loading formats only counts as a
+   * success once playback has passed {@link #BAD_STREAM_POSITION_THRESHOLD_MS}, or the track has finished.
+   */
+  private class ClientOutcome {
+    private final Client client;
+    private long latencyNanos;
+    private boolean recorded;
+
+    private ClientOutcome(Client client) {
+      this.client = client;
+    }
+
+    private void setLatencyNanos(long latencyNanos) {
+      this.latencyNanos = latencyNanos;
+    }
+
+    private void recordSuccess() {
+      if (!recorded) {
+        recorded = true;
+        sourceManager.recordClientSuccess(client, ClientOperation.FORMATS, latencyNanos);
+      }
+    }
+
+    private void recordFailure() {
+      if (!recorded) {
+        recorded = true;
+        sourceManager.recordClientFailure(client, ClientOperation.FORMATS);
+      }
+    }
+
+    private void recordAbandoned() {
+      if (!recorded) {
+        recorded = true;
+        sourceManager.recordClientAbandoned(client, ClientOperation.FORMATS);
+      }
+    }
+  }
+
   private static class StreamExpiredException extends RuntimeException {
     private final long lastStreamPosition;
 
@@ -288,4 +463,26 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       this.lastStreamPosition = lastStreamPosition;
     }
   }
+
+  private static class StreamThrottledException extends RuntimeException {
+    private final long lastStreamPosition;
+    private final int itag;
+    private final long contentLength;
+
+    private StreamThrottledException(long lastStreamPosition,
+                                     @NotNull StreamFormat format,
+                                     @NotNull ThrottledStreamException cause) {
+      super(null, cause, true, false);
+      this.lastStreamPosition = lastStreamPosition;
+      this.itag = format.getItag();
+      this.contentLength = format.getContentLength();
+    }
+
+    /**
+     * @return Whether playback can resume from the byte position reached with the throttled format.
+     */
+    private boolean canResume(@NotNull StreamFormat format) {
+      return format.getItag() == itag && format.getContentLength() == contentLength;
+    }
+  }
 }
@@ -18,10 +18,20 @@ import java.net.URISyntaxException;
 public class YoutubePersistentHttpStream extends PersistentHttpStream {
     private static final Logger log = LoggerFactory.getLogger(YoutubePersistentHttpStream.class);
 
+    /**
+     * A suggested throttling threshold. Unthrottled URLs are typically delivered at several megabytes per
+     * second, whereas throttled URLs are delivered at around the playback rate. Detection is disabled unless
+     * a threshold is configured.
+     */
+    public static final long SUGGESTED_THROTTLE_THRESHOLD_BYTES_PER_SECOND = 64 * 1024;
+
     // Valid range for requesting without throttling is 0-11862014
     private static final long BUFFER_SIZE = 11862014;
 
+    private final ThroughputMonitor throughputMonitor;
+
     private long rangeEnd;
+    private boolean throttled;
 
     /**
      * @param httpInterface The HTTP interface to use for requests
@@ -29,7 +39,38 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
      * @param contentLength The length of the resource in bytes
      */
     public YoutubePersistentHttpStream(HttpInterface httpInterface, URI contentUrl, long contentLength) {
+        this(httpInterface, contentUrl, contentLength, 0);
+    }
+
+    /**
+     * @param httpInterface The HTTP interface to use for requests
+     * @param contentUrl The URL of the resource
+     * @param contentLength The length of the resource in bytes
+     * @param throttleThresholdBytesPerSecond The sustained throughput below which reads fail with
+     *                                        {@link ThrottledStreamException}. A value of {@code 0} or less
+     *                                        disables throttling detection.
+     */
+    public YoutubePersistentHttpStream(HttpInterface httpInterface,
+                                       URI contentUrl,
+                                       long contentLength,
+                                       long throttleThresholdBytesPerSecond) {
         super(httpInterface, contentUrl, contentLength);
+        this.throughputMonitor = new ThroughputMonitor(throttleThresholdBytesPerSecond);
+    }
+
+    /**
+     * @return Whether the stream was found to be throttled. Once throttled, the stream should be replaced
+     * with one for a newly resolved URL.
+     */
+    public boolean isThrottled() {
+        return throttled;
+    }
+
+    /**
+     * @return The throughput measured when the stream was found to be throttled, in bytes per second.
+     */
+    public long getThrottledBytesPerSecond() {
+        return throughputMonitor.getLastBytesPerSecond();
     }
 
     @Override
@@ -47,21 +88,25 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
 
     @Override
     protected int internalRead(byte[] b, int off, int len, boolean attemptReconnect) throws IOException {
+        if (throttled) {
+            throw new ThrottledStreamException(throughputMonitor.getLastBytesPerSecond());
+        }
+
         connect(false);
         long nextExpectedPosition = position + len + (len / 2);
+        int result;
 
         try {
-            int result;
             if (nextExpectedPosition >= rangeEnd && rangeEnd != 0) {
                 if (rangeEnd == contentLength) {
-                    result = currentContent.read(b, off, len);
+                    result = readContent(b, off, len);
                     position += result;
                 } else {
                     result = 0;
                     handleRangeEnd(null, attemptReconnect);
                 }
             } else {
-                result = currentContent.read(b, off, len);
+                result = readContent(b, off, len);
                 if (result >= 0) {
                     position += result;
                     if (position >= rangeEnd && !contentUrl.toString().contains("rn=")) {
@@ -69,12 +114,28 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
                     }
                 }
             }
-
-            return result;
         } catch (IOException e) {
             handleRangeEnd(e, attemptReconnect);
             return internalRead(b, off, len, false);
         }
+
+        if (throttled) {
+            log.debug("Stream {} is throttled at {} bytes/s", contentUrl, throughputMonitor.getLastBytesPerSecond());
+            throw new ThrottledStreamException(throughputMonitor.getLastBytesPerSecond());
+        }
+
+        return result;
+    }
+
+    private int readContent(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        int result = currentContent.read(b, off, len);
+
+        if (result > 0 && throughputMonitor.record(result, System.nanoTime() - start)) {
+            throttled = true;
+        }
+
+        return result;
     }
 
     @Override
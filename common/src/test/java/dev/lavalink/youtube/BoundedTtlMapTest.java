@@ -0,0 +1,69 @@
+package dev.lavalink.youtube;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BoundedTtlMapTest {
+    @Test
+    public void testEntriesExpireAfterTtl() {
+        AtomicLong clock = new AtomicLong();
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(10, 1000, clock::get);
+        map.put("a", "1");
+        map.put("b", "2", 2000);
+
+        clock.set(999);
+        Assertions.assertEquals("1", map.get("a"));
+
+        clock.set(1000);
+        Assertions.assertNull(map.get("a"));
+        Assertions.assertEquals("2", map.get("b"));
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertEquals(2, map.getHits());
+        Assertions.assertEquals(1, map.getMisses());
+        Assertions.assertEquals(1, map.getEvictions());
+    }
+
+    @Test
+    public void testMaximumTtlNeverExpires() {
+        AtomicLong clock = new AtomicLong(1000);
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(10, Long.MAX_VALUE, clock::get);
+        map.put("a", "1");
+
+        clock.set(Long.MAX_VALUE - 1);
+        Assertions.assertEquals("1", map.get("a"));
+    }
+
+    @Test
+    public void testInvalidValueIsRemoved() {
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(10, 1000, () -> 0);
+        map.put("a", "1");
+
+        Assertions.assertNull(map.get("a", (value) -> !value.equals("1")));
+        Assertions.assertNull(map.get("a"));
+        Assertions.assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(2, 1000, () -> 0);
+        map.put("a", "1");
+        map.put("b", "2");
+        map.get("a");
+        map.put("c", "3");
+
+        Assertions.assertEquals("1", map.get("a"));
+        Assertions.assertNull(map.get("b"));
+        Assertions.assertEquals(1, map.getEvictions());
+    }
+
+    @Test
+    public void testZeroEntriesHoldsNothing() {
+        BoundedTtlMap<String, String> map = new BoundedTtlMap<>(0, 1000, () -> 0);
+        map.put("a", "1");
+
+        Assertions.assertNull(map.get("a"));
+        Assertions.assertEquals(0, map.size());
+    }
+}
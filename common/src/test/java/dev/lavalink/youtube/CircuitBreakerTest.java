@@ -0,0 +1,77 @@
+package dev.lavalink.youtube;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class CircuitBreakerTest {
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, 1000, 60_000);
+        breaker.recordFailure();
+        breaker.recordSuccess(0);
+        breaker.recordFailure();
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Assertions.assertFalse(breaker.allowRequest());
+        Assertions.assertEquals(1, breaker.getRejectedCalls());
+    }
+
+    @Test
+    public void testSlowCallsCountAsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 10, 60_000);
+        breaker.recordSuccess(TimeUnit.MILLISECONDS.toNanos(50));
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testSingleProbeClosesBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 1000, 0);
+        breaker.recordFailure();
+
+        Assertions.assertTrue(breaker.allowRequest());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assertions.assertFalse(breaker.allowRequest());
+
+        breaker.recordSuccess(0);
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        Assertions.assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testFailuresOutsideWindowAreForgotten() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, 20, 1000, 60_000, 1);
+        breaker.recordFailure();
+        Thread.sleep(50);
+        breaker.recordFailure();
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testLimitedProbesWhenHalfOpen() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0, 1000, 0, 2);
+        breaker.recordFailure();
+
+        Assertions.assertTrue(breaker.allowRequest());
+        Assertions.assertTrue(breaker.allowRequest());
+        Assertions.assertFalse(breaker.allowRequest());
+
+        // An abandoned probe frees its slot for another.
+        breaker.recordAbandoned();
+
+        Assertions.assertTrue(breaker.allowRequest());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+}
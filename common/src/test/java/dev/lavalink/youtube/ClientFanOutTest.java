@@ -0,0 +1,113 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import dev.lavalink.youtube.clients.skeleton.Client;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ClientFanOutTest {
+    private static final Client FIRST = createClient("FIRST");
+    private static final Client SECOND = createClient("SECOND");
+
+    @Test
+    public void testNextClientIsQueriedAfterDelay() throws CannotBeLoaded {
+        List<ClientException> exceptions = new ArrayList<>();
+
+        try (ClientFanOut fanOut = new ClientFanOut(50)) {
+            AudioItem item = fanOut.load(Arrays.asList(FIRST, SECOND), (client) -> {
+                if (client == FIRST) {
+                    sleep(2000);
+                }
+
+                return new AudioReference(client.getIdentifier(), null);
+            }, exceptions);
+
+            Assertions.assertEquals("SECOND", ((AudioReference) item).identifier);
+            Assertions.assertTrue(exceptions.isEmpty());
+        }
+    }
+
+    @Test
+    public void testFailuresAreCollectedInClientOrder() throws CannotBeLoaded {
+        List<ClientException> exceptions = new ArrayList<>();
+
+        try (ClientFanOut fanOut = new ClientFanOut(0)) {
+            AudioItem item = fanOut.load(Arrays.asList(FIRST, SECOND), (client) -> {
+                if (client == FIRST) {
+                    sleep(100);
+                }
+
+                throw new IOException(client.getIdentifier() + " failed");
+            }, exceptions);
+
+            Assertions.assertNull(item);
+            Assertions.assertEquals(2, exceptions.size());
+            Assertions.assertSame(FIRST, exceptions.get(0).getClient());
+            Assertions.assertSame(SECOND, exceptions.get(1).getClient());
+        }
+    }
+
+    @Test
+    public void testCannotBeLoadedStopsFanOut() {
+        try (ClientFanOut fanOut = new ClientFanOut(0)) {
+            Assertions.assertThrows(CannotBeLoaded.class, () -> fanOut.load(Arrays.asList(FIRST, SECOND), (client) -> {
+                if (client == FIRST) {
+                    throw new CannotBeLoaded(new IllegalStateException("Video unavailable"));
+                }
+
+                sleep(2000);
+                return new AudioReference(client.getIdentifier(), null);
+            }, new ArrayList<>()));
+        }
+    }
+
+    @Test
+    public void testClientsWaitForThreadWhenPoolIsFull() throws CannotBeLoaded {
+        List<ClientException> exceptions = new ArrayList<>();
+
+        try (ClientFanOut fanOut = new ClientFanOut(0, 1)) {
+            AudioItem item = fanOut.load(Arrays.asList(FIRST, SECOND), (client) -> {
+                if (client == FIRST) {
+                    throw new IOException("FIRST failed");
+                }
+
+                return new AudioReference(client.getIdentifier(), null);
+            }, exceptions);
+
+            Assertions.assertEquals("SECOND", ((AudioReference) item).identifier);
+            Assertions.assertEquals(1, exceptions.size());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Client createClient(String identifier) {
+        return (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[] { Client.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getIdentifier":
+                    case "toString":
+                        return identifier;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
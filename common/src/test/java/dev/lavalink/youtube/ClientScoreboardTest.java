@@ -0,0 +1,78 @@
+package dev.lavalink.youtube;
+
+import dev.lavalink.youtube.clients.skeleton.Client;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public class ClientScoreboardTest {
+    private static final Client FIRST = createClient("FIRST");
+    private static final Client SECOND = createClient("SECOND");
+    private static final Client[] CLIENTS = new Client[] { FIRST, SECOND };
+
+    @Test
+    public void testFailingClientIsMovedDown() {
+        ClientScoreboard scoreboard = new ClientScoreboard(0);
+
+        for (int i = 0; i < 5; i++) {
+            scoreboard.recordFailure(FIRST, ClientOperation.VIDEO);
+            scoreboard.recordSuccess(SECOND, ClientOperation.VIDEO, TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        Assertions.assertEquals(Arrays.asList(SECOND, FIRST), scoreboard.order(CLIENTS, ClientOperation.VIDEO));
+        // Operations are scored separately.
+        Assertions.assertEquals(Arrays.asList(FIRST, SECOND), scoreboard.order(CLIENTS, ClientOperation.SEARCH));
+    }
+
+    @Test
+    public void testOccasionalFailureKeepsConfiguredOrder() {
+        ClientScoreboard scoreboard = new ClientScoreboard(0);
+        scoreboard.recordSuccess(FIRST, ClientOperation.VIDEO, TimeUnit.MILLISECONDS.toNanos(300));
+        scoreboard.recordFailure(FIRST, ClientOperation.VIDEO);
+        scoreboard.recordSuccess(SECOND, ClientOperation.VIDEO, TimeUnit.MILLISECONDS.toNanos(100));
+
+        Assertions.assertEquals(Arrays.asList(FIRST, SECOND), scoreboard.order(CLIENTS, ClientOperation.VIDEO));
+    }
+
+    @Test
+    public void testSlowClientIsMovedDown() {
+        ClientScoreboard scoreboard = new ClientScoreboard(0);
+        scoreboard.recordSuccess(FIRST, ClientOperation.FORMATS, TimeUnit.SECONDS.toNanos(5));
+        scoreboard.recordSuccess(SECOND, ClientOperation.FORMATS, TimeUnit.MILLISECONDS.toNanos(400));
+
+        Assertions.assertEquals(Arrays.asList(SECOND, FIRST), scoreboard.order(CLIENTS, ClientOperation.FORMATS));
+    }
+
+    @Test
+    public void testConfiguredOrderIsUsedForExploration() {
+        ClientScoreboard scoreboard = new ClientScoreboard(3);
+
+        for (int i = 0; i < 5; i++) {
+            scoreboard.recordFailure(FIRST, ClientOperation.PLAYLIST);
+        }
+
+        Assertions.assertEquals(Arrays.asList(SECOND, FIRST), scoreboard.order(CLIENTS, ClientOperation.PLAYLIST));
+        Assertions.assertEquals(Arrays.asList(SECOND, FIRST), scoreboard.order(CLIENTS, ClientOperation.PLAYLIST));
+        Assertions.assertEquals(Arrays.asList(FIRST, SECOND), scoreboard.order(CLIENTS, ClientOperation.PLAYLIST));
+    }
+
+    private static Client createClient(String identifier) {
+        return (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[] { Client.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getIdentifier":
+                    case "toString":
+                        return identifier;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
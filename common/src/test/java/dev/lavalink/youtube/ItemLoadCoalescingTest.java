@@ -0,0 +1,217 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import dev.lavalink.youtube.clients.ClientOptions;
+import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.track.YoutubeAudioTrack;
+import dev.lavalink.youtube.track.format.TrackFormats;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ItemLoadCoalescingTest {
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+    private static final List<String> IDENTIFIERS = Arrays.asList(
+        VIDEO_ID,
+        "https://www.youtube.com/watch?v=" + VIDEO_ID,
+        "https://youtu.be/" + VIDEO_ID
+    );
+
+    @Test
+    public void testConcurrentLoadsOfSameVideoShareOneLoad() throws Exception {
+        BlockingClient client = new BlockingClient();
+        YoutubeAudioSourceManager source = new YoutubeAudioSourceManager(new YoutubeSourceOptions(), client);
+        List<AudioItem> items = loadConcurrently(source, client);
+
+        Assertions.assertEquals(1, client.loads.get());
+
+        // Each caller receives its own track.
+        Set<AudioItem> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(items);
+        Assertions.assertEquals(IDENTIFIERS.size(), distinct.size());
+
+        for (AudioItem item : items) {
+            Assertions.assertEquals(VIDEO_ID, ((YoutubeAudioTrack) item).getIdentifier());
+        }
+    }
+
+    @Test
+    public void testLoadsAreNotSharedWhenDisabled() throws Exception {
+        BlockingClient client = new BlockingClient();
+        YoutubeAudioSourceManager source = new YoutubeAudioSourceManager(new YoutubeSourceOptions().setItemLoadCoalescing(false), client);
+
+        // Every caller loads on its own, so none of them wait for another.
+        client.release.countDown();
+        loadConcurrently(source, client);
+
+        Assertions.assertEquals(IDENTIFIERS.size(), client.loads.get());
+    }
+
+    private static List<AudioItem> loadConcurrently(YoutubeAudioSourceManager source, BlockingClient client) throws Exception {
+        DefaultAudioPlayerManager manager = new DefaultAudioPlayerManager();
+        ExecutorService executor = Executors.newFixedThreadPool(IDENTIFIERS.size());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        List<Future<AudioItem>> futures = new ArrayList<>();
+
+        try {
+            futures.add(executor.submit(() -> source.loadItem(manager, new AudioReference(IDENTIFIERS.get(0), null))));
+            Assertions.assertTrue(client.started.await(5, TimeUnit.SECONDS));
+
+            for (String identifier : IDENTIFIERS.subList(1, IDENTIFIERS.size())) {
+                futures.add(executor.submit(() -> {
+                    threads.add(Thread.currentThread());
+                    return source.loadItem(manager, new AudioReference(identifier, null));
+                }));
+            }
+
+            if (client.release.getCount() > 0) {
+                awaitWaiting(threads, IDENTIFIERS.size() - 1);
+                client.release.countDown();
+            }
+
+            List<AudioItem> items = new ArrayList<>();
+
+            for (Future<AudioItem> future : futures) {
+                items.add(future.get(5, TimeUnit.SECONDS));
+            }
+
+            return items;
+        } finally {
+            executor.shutdownNow();
+            manager.shutdown();
+        }
+    }
+
+    /**
+     * Waits until the given number of callers are parked waiting for the load in flight.
+     */
+    private static void awaitWaiting(List<Thread> threads, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (System.nanoTime() < deadline) {
+            Set<Thread> waiting = new HashSet<>();
+
+            synchronized (threads) {
+                for (Thread thread : threads) {
+                    if (thread.getState() == Thread.State.WAITING) {
+                        waiting.add(thread);
+                    }
+                }
+            }
+
+            if (waiting.size() >= count) {
+                return;
+            }
+
+            Thread.sleep(10);
+        }
+
+        Assertions.fail("Callers did not wait for the load in flight");
+    }
+
+    private static class BlockingClient implements Client {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public AudioItem loadVideo(@NotNull YoutubeAudioSourceManager source,
+                                   @NotNull HttpInterface httpInterface,
+                                   @NotNull String videoId) throws InterruptedIOException {
+            loads.incrementAndGet();
+            started.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+
+            return new YoutubeAudioTrack(new AudioTrackInfo("Title", "Author", 1000, videoId, false,
+                "https://www.youtube.com/watch?v=" + videoId), source);
+        }
+
+        @Override
+        public String getIdentifier() {
+            return "BLOCKING";
+        }
+
+        @Override
+        public String getPlayerParams() {
+            return null;
+        }
+
+        @Override
+        public ClientOptions getOptions() {
+            return ClientOptions.DEFAULT;
+        }
+
+        @Override
+        public boolean canHandleRequest(@NotNull String identifier) {
+            return true;
+        }
+
+        @Override
+        public void setPlaylistPageCount(int count) {
+
+        }
+
+        @Override
+        public TrackFormats loadFormats(@NotNull YoutubeAudioSourceManager source,
+                                        @NotNull HttpInterface httpInterface,
+                                        @NotNull String videoId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AudioItem loadSearch(@NotNull YoutubeAudioSourceManager source,
+                                    @NotNull HttpInterface httpInterface,
+                                    @NotNull String searchQuery) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AudioItem loadSearchMusic(@NotNull YoutubeAudioSourceManager source,
+                                         @NotNull HttpInterface httpInterface,
+                                         @NotNull String searchQuery) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AudioItem loadMix(@NotNull YoutubeAudioSourceManager source,
+                                 @NotNull HttpInterface httpInterface,
+                                 @NotNull String mixId,
+                                 @Nullable String selectedVideoId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AudioItem loadPlaylist(@NotNull YoutubeAudioSourceManager source,
+                                      @NotNull HttpInterface httpInterface,
+                                      @NotNull String playlistId,
+                                      @Nullable String selectedVideoId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
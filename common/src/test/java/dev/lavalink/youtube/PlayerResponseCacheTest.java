@@ -0,0 +1,60 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PlayerResponseCacheTest {
+    @Test
+    public void testPlayableResponseIsReused() throws IOException {
+        PlayerResponseCache cache = new PlayerResponseCache(60_000);
+        JsonBrowser response = createResponse("OK", 21540);
+        cache.put("WEB", "dQw4w9WgXcQ", "20000", response);
+
+        Assertions.assertSame(response, cache.get("WEB", "dQw4w9WgXcQ", "20000"));
+        Assertions.assertNull(cache.get("ANDROID_VR", "dQw4w9WgXcQ", "20000"));
+    }
+
+    @Test
+    public void testResponseIsNotReusedWithNewPlayerScript() throws IOException {
+        PlayerResponseCache cache = new PlayerResponseCache(60_000);
+        cache.put("WEB", "dQw4w9WgXcQ", "20000", createResponse("OK", 21540));
+
+        Assertions.assertNull(cache.get("WEB", "dQw4w9WgXcQ", "20001"));
+    }
+
+    @Test
+    public void testResponseExpiresBeforeItsStreamUrls() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        PlayerResponseCache cache = new PlayerResponseCache(PlayerResponseCache.DEFAULT_MAX_ENTRIES, TimeUnit.HOURS.toMillis(1), clock::get);
+        JsonBrowser response = createResponse("OK", 600);
+        cache.put("WEB", "dQw4w9WgXcQ", "20000", response);
+
+        long expiresInMs = TimeUnit.SECONDS.toMillis(600) - PlayerResponseCache.EXPIRY_MARGIN_MS;
+
+        clock.set(expiresInMs - 1);
+        Assertions.assertSame(response, cache.get("WEB", "dQw4w9WgXcQ", "20000"));
+
+        clock.set(expiresInMs);
+        Assertions.assertNull(cache.get("WEB", "dQw4w9WgXcQ", "20000"));
+    }
+
+    @Test
+    public void testUnplayableOrExpiringResponsesAreNotCached() throws IOException {
+        PlayerResponseCache cache = new PlayerResponseCache(60_000);
+        cache.put("WEB", "dQw4w9WgXcQ", null, createResponse("LOGIN_REQUIRED", 21540));
+        // The stream URLs would expire within the expiry margin.
+        cache.put("TV", "dQw4w9WgXcQ", null, createResponse("OK", 60));
+
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    private static JsonBrowser createResponse(String status, long expiresInSeconds) throws IOException {
+        return JsonBrowser.parse("{\"playabilityStatus\":{\"status\":\"" + status + "\"},"
+            + "\"streamingData\":{\"expiresInSeconds\":\"" + expiresInSeconds + "\"}}");
+    }
+}
@@ -0,0 +1,65 @@
+package dev.lavalink.youtube;
+
+import dev.lavalink.youtube.PlaylistCache.CachedPlaylist;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PlaylistCacheTest {
+    private static final String PLAYLIST_ID = "PLFgquLnL59alCl_2TQvOiD5Vgm1hCaGSI";
+    private static final List<String> FIRST_PAGE = Arrays.asList("dQw4w9WgXcQ", "kJQP7kiw5Fk");
+
+    @Test
+    public void testUnchangedPlaylistIsRevalidated() {
+        AtomicLong clock = new AtomicLong();
+        PlaylistCache cache = new PlaylistCache(PlaylistCache.DEFAULT_MAX_ENTRIES, 1000, clock::get);
+        cache.put(PLAYLIST_ID, "Playlist", Collections.emptyList(), FIRST_PAGE, 250);
+        Assertions.assertFalse(cache.get(PLAYLIST_ID).isExpired());
+
+        clock.set(1000);
+        CachedPlaylist playlist = cache.get(PLAYLIST_ID);
+        Assertions.assertNotNull(playlist);
+        Assertions.assertTrue(playlist.isExpired());
+        Assertions.assertTrue(cache.revalidate(PLAYLIST_ID, playlist, "Renamed", FIRST_PAGE, 250));
+
+        CachedPlaylist renewed = cache.get(PLAYLIST_ID);
+        Assertions.assertEquals("Renamed", renewed.getName());
+        Assertions.assertFalse(renewed.isExpired());
+        Assertions.assertEquals(1, cache.getRevalidations());
+
+        clock.set(2000);
+        Assertions.assertTrue(renewed.isExpired());
+    }
+
+    @Test
+    public void testChangedPlaylistIsNotRevalidated() {
+        PlaylistCache cache = new PlaylistCache(0);
+        cache.put(PLAYLIST_ID, "Playlist", Collections.emptyList(), FIRST_PAGE, 250);
+        CachedPlaylist playlist = cache.get(PLAYLIST_ID);
+
+        // A video was added beyond the first page.
+        Assertions.assertFalse(cache.revalidate(PLAYLIST_ID, playlist, "Playlist", FIRST_PAGE, 251));
+        // The first page was reordered.
+        Assertions.assertFalse(cache.revalidate(PLAYLIST_ID, playlist, "Playlist", Arrays.asList("kJQP7kiw5Fk", "dQw4w9WgXcQ"), 250));
+        // The video count could not be read.
+        Assertions.assertFalse(cache.revalidate(PLAYLIST_ID, playlist, "Playlist", FIRST_PAGE, -1));
+        Assertions.assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPlaylistIsEvicted() {
+        PlaylistCache cache = new PlaylistCache(2, 60_000);
+        cache.put("PL1", "One", Collections.emptyList(), FIRST_PAGE, 2);
+        cache.put("PL2", "Two", Collections.emptyList(), FIRST_PAGE, 2);
+        cache.get("PL1");
+        cache.put("PL3", "Three", Collections.emptyList(), FIRST_PAGE, 2);
+
+        Assertions.assertNotNull(cache.get("PL1"));
+        Assertions.assertNull(cache.get("PL2"));
+        Assertions.assertFalse(cache.get("PL3").isExpired());
+    }
+}
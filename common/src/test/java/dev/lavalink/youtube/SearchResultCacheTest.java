@@ -0,0 +1,97 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SearchResultCacheTest {
+    @Test
+    public void testQueriesAreNormalized() {
+        Assertions.assertEquals("never gonna give you up", SearchResultCache.normalizeQuery("  Never   gonna\tGIVE you up "));
+    }
+
+    @Test
+    public void testEquivalentQueriesShareResults() throws IOException {
+        SearchResultCache cache = new SearchResultCache(60_000);
+        AtomicInteger searches = new AtomicInteger();
+        SingleFlight.Loader<AudioItem> loader = () -> {
+            searches.incrementAndGet();
+            return AudioReference.NO_TRACK;
+        };
+
+        cache.load("ytsearch:Never Gonna  Give You Up", loader);
+        cache.load("ytsearch:never gonna give you up", loader);
+        // Music searches are cached separately.
+        cache.load("ytmsearch:never gonna give you up", loader);
+
+        Assertions.assertEquals(2, searches.get());
+        Assertions.assertEquals(1, cache.getHits(YoutubeAudioSourceManager.SEARCH_PREFIX));
+        Assertions.assertEquals(0, cache.getHits(YoutubeAudioSourceManager.MUSIC_SEARCH_PREFIX));
+        Assertions.assertEquals(0.5, cache.getHitRate(YoutubeAudioSourceManager.SEARCH_PREFIX));
+    }
+
+    @Test
+    public void testResultsAreSearchedAgainAfterExpiry() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        SearchResultCache cache = new SearchResultCache(SearchResultCache.DEFAULT_MAX_ENTRIES, 1000, clock::get);
+        AtomicInteger searches = new AtomicInteger();
+        SingleFlight.Loader<AudioItem> loader = () -> {
+            searches.incrementAndGet();
+            return AudioReference.NO_TRACK;
+        };
+
+        cache.load("ytsearch:query", loader);
+        clock.set(999);
+        cache.load("ytsearch:query", loader);
+        Assertions.assertEquals(1, searches.get());
+
+        clock.set(1000);
+        cache.load("ytsearch:query", loader);
+        Assertions.assertEquals(2, searches.get());
+    }
+
+    @Test
+    public void testConcurrentSearchesAreCoalesced() throws Exception {
+        SearchResultCache cache = new SearchResultCache(60_000);
+        AtomicInteger searches = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            SingleFlight.Loader<AudioItem> loader = () -> {
+                searches.incrementAndGet();
+
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                // Not cached, so the second caller only gets it by waiting on the first search.
+                return new AudioReference("result", null);
+            };
+
+            Future<AudioItem> first = executor.submit(() -> cache.load("ytsearch:query", loader));
+            Thread.sleep(100);
+            Future<AudioItem> second = executor.submit(() -> cache.load("ytsearch:QUERY", loader));
+            Thread.sleep(100);
+            release.countDown();
+
+            Assertions.assertEquals("result", ((AudioReference) first.get(5, TimeUnit.SECONDS)).identifier);
+            Assertions.assertEquals("result", ((AudioReference) second.get(5, TimeUnit.SECONDS)).identifier);
+            Assertions.assertEquals(1, searches.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package dev.lavalink.youtube;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SingleFlightTest {
+    private static final int WAITERS = 3;
+
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testWaitersShareResult() throws Exception {
+        Object value = new Object();
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> block(value)));
+        List<Future<Object>> waiters = startWaiters(() -> {
+            throw new AssertionError("Waiters should not load");
+        });
+
+        release.countDown();
+
+        Assertions.assertSame(value, leader.get(5, TimeUnit.SECONDS));
+
+        for (Future<Object> waiter : waiters) {
+            Assertions.assertSame(value, waiter.get(5, TimeUnit.SECONDS));
+        }
+
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testRuntimeExceptionIsPropagatedToWaiters() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Simulated failure");
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            block(null);
+            throw failure;
+        }));
+        List<Future<Object>> waiters = startWaiters(Object::new);
+
+        release.countDown();
+
+        Assertions.assertSame(failure, getFailure(leader));
+
+        for (Future<Object> waiter : waiters) {
+            Assertions.assertSame(failure, getFailure(waiter));
+        }
+    }
+
+    @Test
+    public void testIOExceptionIsPropagatedToWaiters() throws Exception {
+        IOException failure = new IOException("Simulated failure");
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            block(null);
+            throw failure;
+        }));
+        List<Future<Object>> waiters = startWaiters(Object::new);
+
+        release.countDown();
+
+        Assertions.assertSame(failure, getFailure(leader));
+
+        for (Future<Object> waiter : waiters) {
+            // Wrapped, so that the stack trace includes the waiter.
+            Throwable thrown = getFailure(waiter);
+            Assertions.assertTrue(thrown instanceof IOException);
+            Assertions.assertSame(failure, thrown.getCause());
+        }
+    }
+
+    @Test
+    public void testKeyIsRemovedAfterCompletion() throws Exception {
+        Assertions.assertEquals("first", singleFlight.execute("key", () -> "first"));
+        Assertions.assertEquals(0, singleFlight.getInFlightCount());
+
+        Assertions.assertThrows(IOException.class, () -> singleFlight.execute("key", () -> {
+            throw new IOException("Simulated failure");
+        }));
+        Assertions.assertEquals(0, singleFlight.getInFlightCount());
+
+        // Neither result is retained, so the next call loads again.
+        Assertions.assertEquals("second", singleFlight.execute("key", () -> "second"));
+    }
+
+    @Test
+    public void testDifferentKeysAreNotShared() throws Exception {
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> block("first")));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals("other", singleFlight.execute("other", () -> "other"));
+        Assertions.assertEquals(1, singleFlight.getInFlightCount());
+
+        release.countDown();
+        Assertions.assertEquals("first", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testInterruptedWaiterStopsWaiting() throws Exception {
+        Object value = new Object();
+        Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> block(value)));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<Thread> waiterThread = new AtomicReference<>();
+        AtomicReference<Boolean> interruptFlag = new AtomicReference<>();
+        Future<Object> waiter = executor.submit(() -> {
+            waiterThread.set(Thread.currentThread());
+
+            try {
+                return singleFlight.execute("key", Object::new);
+            } finally {
+                interruptFlag.set(Thread.currentThread().isInterrupted());
+            }
+        });
+
+        awaitWaiting(waiterThread);
+        waiterThread.get().interrupt();
+
+        Assertions.assertTrue(getFailure(waiter) instanceof InterruptedIOException);
+        Assertions.assertTrue(interruptFlag.get());
+
+        // The load itself carries on for the caller that started it.
+        release.countDown();
+        Assertions.assertSame(value, leader.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    private Object block(Object value) throws InterruptedIOException {
+        loads.incrementAndGet();
+        started.countDown();
+
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+
+        return value;
+    }
+
+    /**
+     * Starts callers for the key once its load has started, and waits until all of them are waiting for it.
+     */
+    private List<Future<Object>> startWaiters(SingleFlight.Loader<Object> loader) throws Exception {
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<Future<Object>> waiters = new ArrayList<>();
+
+        for (int i = 0; i < WAITERS; i++) {
+            AtomicReference<Thread> thread = new AtomicReference<>();
+
+            waiters.add(executor.submit(() -> {
+                thread.set(Thread.currentThread());
+                return singleFlight.execute("key", loader);
+            }));
+
+            awaitWaiting(thread);
+        }
+
+        return waiters;
+    }
+
+    private static void awaitWaiting(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (System.nanoTime() < deadline) {
+            Thread current = thread.get();
+
+            if (current != null && current.getState() == Thread.State.WAITING) {
+                return;
+            }
+
+            Thread.sleep(1);
+        }
+
+        Assertions.fail("Caller did not wait for the load in flight");
+    }
+
+    private static Throwable getFailure(Future<Object> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+
+        throw new AssertionError("Expected the call to fail");
+    }
+}
@@ -0,0 +1,49 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.tools.Units;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class VideoMetadataCacheTest {
+    @Test
+    public void testMetadataIsServedUntilExpiry() {
+        AtomicLong clock = new AtomicLong();
+        VideoMetadataCache cache = new VideoMetadataCache(VideoMetadataCache.DEFAULT_MAX_ENTRIES, 50, clock::get);
+        AudioTrackInfo info = createInfo("dQw4w9WgXcQ", 213_000, false);
+        cache.put(info);
+
+        clock.set(49);
+        Assertions.assertSame(info, cache.get("dQw4w9WgXcQ"));
+
+        clock.set(50);
+        Assertions.assertNull(cache.get("dQw4w9WgXcQ"));
+    }
+
+    @Test
+    public void testIncompleteMetadataIsNotCached() {
+        VideoMetadataCache cache = new VideoMetadataCache(60_000);
+        cache.put(createInfo("jfKfPfyJRdk", Units.DURATION_MS_UNKNOWN, true));
+        cache.put(createInfo("aqz-KE-bpKQ", 0, false));
+
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        VideoMetadataCache cache = new VideoMetadataCache(2, 60_000);
+        cache.put(createInfo("aaaaaaaaaaa", 1000, false));
+        cache.put(createInfo("bbbbbbbbbbb", 1000, false));
+        cache.get("aaaaaaaaaaa");
+        cache.put(createInfo("ccccccccccc", 1000, false));
+
+        Assertions.assertNotNull(cache.get("aaaaaaaaaaa"));
+        Assertions.assertNull(cache.get("bbbbbbbbbbb"));
+    }
+
+    private static AudioTrackInfo createInfo(String videoId, long length, boolean isStream) {
+        return new AudioTrackInfo("title", "author", length, videoId, isStream, "https://www.youtube.com/watch?v=" + videoId);
+    }
+}
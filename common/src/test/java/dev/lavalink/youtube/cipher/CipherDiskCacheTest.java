@@ -0,0 +1,77 @@
+package dev.lavalink.youtube.cipher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static dev.lavalink.youtube.cipher.CipherTestScripts.*;
+
+public class CipherDiskCacheTest {
+    private static final String SCRIPT_URL = "/s/player/aaaaaaaa/player_ias.vflset/en_US/base.js";
+
+    @Test
+    public void testCipherRoundTrip() throws Exception {
+        CipherDiskCache cache = new CipherDiskCache(Files.createTempDirectory("cipher-cache"), CipherDiskCache.DEFAULT_MAX_SIZE_BYTES);
+        cache.storeCipher(SCRIPT_URL, "hash", createCipher());
+
+        CipherDiskCache.CipherEntry entry = cache.loadCipher(SCRIPT_URL);
+
+        Assertions.assertNotNull(entry);
+        Assertions.assertEquals("hash", entry.scriptHash);
+        Assertions.assertEquals(TIMESTAMP, entry.timestamp);
+        Assertions.assertEquals(SIG_ACTIONS, entry.sigActions);
+        Assertions.assertEquals(N_FUNCTION, entry.nFunction);
+        Assertions.assertNull(cache.loadCipher("/s/player/bbbbbbbb/player_ias.vflset/en_US/base.js"));
+    }
+
+    @Test
+    public void testTamperedEntryIsDiscarded() throws Exception {
+        Path directory = Files.createTempDirectory("cipher-cache");
+        CipherDiskCache cache = new CipherDiskCache(directory, CipherDiskCache.DEFAULT_MAX_SIZE_BYTES);
+        cache.storeCipher(SCRIPT_URL, "hash", createCipher());
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String contents = new String(Files.readAllBytes(entry), StandardCharsets.UTF_8);
+                Files.write(entry, contents.replace(TIMESTAMP, "19999").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        Assertions.assertNull(cache.loadCipher(SCRIPT_URL));
+    }
+
+    @Test
+    public void testEntriesAreEvictedOverSizeLimit() throws Exception {
+        Path directory = Files.createTempDirectory("cipher-cache");
+        CipherDiskCache cache = new CipherDiskCache(directory, 1);
+        cache.storeCipher(SCRIPT_URL, "hash", createCipher());
+
+        Assertions.assertNull(cache.loadCipher(SCRIPT_URL));
+    }
+
+    @Test
+    public void testEntryFromOtherSourceVersionIsDiscarded() throws Exception {
+        Path directory = Files.createTempDirectory("cipher-cache");
+        new CipherDiskCache(directory, CipherDiskCache.DEFAULT_MAX_SIZE_BYTES, "1.0.0").storeCipher(SCRIPT_URL, "hash", createCipher());
+
+        CipherDiskCache cache = new CipherDiskCache(directory, CipherDiskCache.DEFAULT_MAX_SIZE_BYTES, "1.1.0");
+
+        Assertions.assertNull(cache.loadCipher(SCRIPT_URL));
+    }
+
+    @Test
+    public void testNoTemporaryFilesAreLeft() throws Exception {
+        Path directory = Files.createTempDirectory("cipher-cache");
+        CipherDiskCache cache = new CipherDiskCache(directory, CipherDiskCache.DEFAULT_MAX_SIZE_BYTES);
+        cache.storeCipher(SCRIPT_URL, "hash", createCipher());
+        cache.storeCipher(SCRIPT_URL, "hash", createCipher());
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*.tmp")) {
+            Assertions.assertFalse(entries.iterator().hasNext());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.lavalink.youtube.cipher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static dev.lavalink.youtube.cipher.CipherTestScripts.*;
+
+public class CipherOperationParserTest {
+    @Test
+    public void testParsesActions() {
+        List<CipherOperation> operations = CipherOperationParser.parse(GLOBAL_VARS, SIG_ACTIONS, SIG_FUNCTION);
+
+        Assertions.assertNotNull(operations);
+        Assertions.assertEquals(4, operations.size());
+        Assertions.assertEquals(CipherOperationType.SWAP, operations.get(0).type);
+        Assertions.assertEquals(19, operations.get(0).parameter);
+        Assertions.assertEquals(CipherOperationType.REVERSE, operations.get(1).type);
+        Assertions.assertEquals(CipherOperationType.SPLICE, operations.get(2).type);
+        Assertions.assertEquals(3, operations.get(2).parameter);
+        Assertions.assertEquals(CipherOperationType.SWAP, operations.get(3).type);
+        Assertions.assertEquals(35, operations.get(3).parameter);
+    }
+
+    @Test
+    public void testParsesActionsReferencingGlobalVars() {
+        String globalVars = "var Xq=[\"split\",\"\",\"join\",\"reverse\",\"length\",\"splice\"]";
+        String sigActions = "var Tz={Jb:function(b){b[Xq[3]]()},Kk:function(x,y){x[Xq[5]](0,y)}," +
+            "Wq:function(q,r){var t=q[0];q[0]=q[r%q[Xq[4]]];q[r%q[Xq[4]]]=t}};";
+        String sigFunction = "function zz(p){p=p[Xq[0]](Xq[1]);Tz.Wq(p,19);Tz[\"Jb\"](p,54);Tz.Kk(p,3);return p[Xq[2]](Xq[1])};";
+
+        List<CipherOperation> operations = CipherOperationParser.parse(globalVars, sigActions, sigFunction);
+
+        Assertions.assertNotNull(operations);
+        Assertions.assertEquals(3, operations.size());
+        Assertions.assertEquals(CipherOperationType.REVERSE, operations.get(1).type);
+    }
+
+    @Test
+    public void testUnrecognisedStatementFallsBack() {
+        String sigFunction = "function(a){a=a.split(\"\");Tz.Wq(a,19);a=foo(a);return a.join(\"\")};";
+        Assertions.assertNull(CipherOperationParser.parse(GLOBAL_VARS, SIG_ACTIONS, sigFunction));
+    }
+
+    @Test
+    public void testOperationsMatchScript() throws Exception {
+        SignatureCipher cipher = createCipher();
+
+        Assertions.assertNotNull(cipher.getOperations());
+        Assertions.assertEquals(
+            "9Oq0QJ8wRAIgXmPlOPSBkkUs1bYFYlJCfe2Axx8j7v1pDL0QwbdV96sCIEzpWqMGkFR20CFOg51Tp-7vj_E2u-m37KtXJoOySqa0qaM",
+            cipher.apply(SIGNATURE)
+        );
+    }
+}
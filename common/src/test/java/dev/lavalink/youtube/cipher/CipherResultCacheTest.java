@@ -0,0 +1,45 @@
+package dev.lavalink.youtube.cipher;
+
+import dev.lavalink.youtube.cipher.CipherResultCache.ValueType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CipherResultCacheTest {
+    private static final String SCRIPT_A = "https://www.youtube.com/s/player/aaaaaaaa/player_ias.vflset/en_US/base.js";
+    private static final String SCRIPT_B = "https://www.youtube.com/s/player/bbbbbbbb/player_ias.vflset/en_US/base.js";
+
+    @Test
+    public void testHitsAreScopedToScriptAndType() {
+        CipherResultCache cache = new CipherResultCache();
+        cache.put(SCRIPT_A, ValueType.N_PARAMETER, "in", "out");
+
+        Assertions.assertEquals("out", cache.get(SCRIPT_A, ValueType.N_PARAMETER, "in"));
+        Assertions.assertNull(cache.get(SCRIPT_B, ValueType.N_PARAMETER, "in"));
+        Assertions.assertNull(cache.get(SCRIPT_A, ValueType.SIGNATURE, "in"));
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        CipherResultCache cache = new CipherResultCache(2, CipherResultCache.DEFAULT_TTL_MS);
+        cache.put(SCRIPT_A, ValueType.SIGNATURE, "1", "a");
+        cache.put(SCRIPT_A, ValueType.SIGNATURE, "2", "b");
+        cache.get(SCRIPT_A, ValueType.SIGNATURE, "1");
+        cache.put(SCRIPT_A, ValueType.SIGNATURE, "3", "c");
+
+        Assertions.assertEquals("a", cache.get(SCRIPT_A, ValueType.SIGNATURE, "1"));
+        Assertions.assertNull(cache.get(SCRIPT_A, ValueType.SIGNATURE, "2"));
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testExpiredEntriesAreNotReturned() {
+        CipherResultCache cache = new CipherResultCache(10, -1);
+        cache.put(SCRIPT_A, ValueType.SIGNATURE, "1", "a");
+
+        Assertions.assertNull(cache.get(SCRIPT_A, ValueType.SIGNATURE, "1"));
+        Assertions.assertEquals(0, cache.size());
+    }
+}
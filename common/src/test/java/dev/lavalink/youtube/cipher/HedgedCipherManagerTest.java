@@ -0,0 +1,131 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.entity.ContentType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HedgedCipherManagerTest {
+    private static final String PLAYER_SCRIPT = "https://www.youtube.com/s/player/aaaaaaaa/player_ias.vflset/en_US/base.js";
+    private static final StreamFormat FORMAT = new StreamFormat(ContentType.parse("audio/webm; codecs=\"opus\""), 251, 160_000, 1_000,
+        2, "https://example.com/videoplayback", "n", null, null, true, false);
+
+    private HttpInterfaceManager httpInterfaceManager;
+
+    @BeforeEach
+    public void setUp() {
+        httpInterfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        httpInterfaceManager.close();
+    }
+
+    @Test
+    public void testPrimaryWithinHedgeDelayWins() throws Exception {
+        HedgedCipherManager manager = createManager(new DelayedCipherManager("https://primary", 0),
+            new DelayedCipherManager("https://secondary", 1000), HedgedCipherManager.DEFAULT_MAX_THREADS);
+        URI url = resolve(manager);
+
+        Assertions.assertEquals("https://primary", url.toString());
+        Assertions.assertEquals(1, manager.getPrimaryWins());
+        Assertions.assertEquals(0, manager.getHedges());
+        manager.close();
+    }
+
+    @Test
+    public void testSecondaryWinsWhenPrimaryIsSlow() throws Exception {
+        HedgedCipherManager manager = createManager(new DelayedCipherManager("https://primary", 1000),
+            new DelayedCipherManager("https://secondary", 0), HedgedCipherManager.DEFAULT_MAX_THREADS);
+        URI url = resolve(manager);
+
+        Assertions.assertEquals("https://secondary", url.toString());
+        Assertions.assertEquals(1, manager.getSecondaryWins());
+        Assertions.assertEquals(1, manager.getHedges());
+        manager.close();
+    }
+
+    @Test
+    public void testLosingResolutionIsCancelled() throws Exception {
+        DelayedCipherManager primary = new DelayedCipherManager("https://primary", 60_000);
+        HedgedCipherManager manager = createManager(primary, new DelayedCipherManager("https://secondary", 0),
+            HedgedCipherManager.DEFAULT_MAX_THREADS);
+        URI url = resolve(manager);
+
+        Assertions.assertEquals("https://secondary", url.toString());
+        Assertions.assertTrue(primary.interrupted.await(5, TimeUnit.SECONDS), "primary resolution was not interrupted");
+        manager.close();
+    }
+
+    @Test
+    public void testWaitsForPrimaryWhenPoolIsExhausted() throws Exception {
+        HedgedCipherManager manager = createManager(new DelayedCipherManager("https://primary", 200),
+            new DelayedCipherManager("https://secondary", 0), 1);
+        URI url = resolve(manager);
+
+        Assertions.assertEquals("https://primary", url.toString());
+        Assertions.assertEquals(1, manager.getPrimaryWins());
+        Assertions.assertEquals(0, manager.getHedges());
+        manager.close();
+    }
+
+    private URI resolve(HedgedCipherManager manager) throws IOException {
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            return manager.resolveFormatUrl(httpInterface, PLAYER_SCRIPT, FORMAT);
+        }
+    }
+
+    private HedgedCipherManager createManager(CipherManager primary, CipherManager secondary, int maxThreads) {
+        HedgedCipherManager manager = new HedgedCipherManager(primary, secondary, 50, maxThreads);
+        manager.setHttpInterfaceManager(httpInterfaceManager);
+        return manager;
+    }
+
+    private static class DelayedCipherManager implements CipherManager {
+        private final String url;
+        private final long delayMs;
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        private DelayedCipherManager(String url, long delayMs) {
+            this.url = url;
+            this.delayMs = delayMs;
+        }
+
+        @NotNull
+        @Override
+        public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
+                                    @NotNull String playerScript,
+                                    @NotNull StreamFormat format) throws IOException {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+
+            return URI.create(url);
+        }
+
+        @Override
+        public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
+            return null;
+        }
+
+        @Override
+        public String getTimestamp(HttpInterface httpInterface, String sourceUrl) {
+            return null;
+        }
+    }
+}
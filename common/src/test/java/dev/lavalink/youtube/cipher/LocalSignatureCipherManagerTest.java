@@ -0,0 +1,108 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.cipher.CipherResultCache.ValueType;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.lavalink.youtube.cipher.CipherTestScripts.*;
+
+public class LocalSignatureCipherManagerTest {
+    private static final String PLAYER_SCRIPT = "https://www.youtube.com/s/player/aaaaaaaa/player_ias.vflset/en_US/base.js";
+    private static final String STREAM_URL = "https://example.com/videoplayback";
+    private static final StreamFormat FORMAT = new StreamFormat(ContentType.parse("audio/webm; codecs=\"opus\""), 251, 160_000, 1_000,
+        2, STREAM_URL, N_PARAMETER, null, null, true, false);
+
+    @Test
+    public void testThrottledScriptIsExtractedAgainAndNotCached() throws Exception {
+        LocalSignatureCipherManager manager = new LocalSignatureCipherManager();
+        manager.getCipherCache().put(PLAYER_SCRIPT, "hash", createCipher());
+
+        try (HttpInterfaceManager interfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+             HttpInterface httpInterface = interfaceManager.getInterface()) {
+            // The cipher is cached, so no request is made.
+            URI resolved = manager.resolveFormatUrl(httpInterface, PLAYER_SCRIPT, FORMAT);
+            String transformed = manager.getResultCache().get(PLAYER_SCRIPT, ValueType.N_PARAMETER, N_PARAMETER);
+            Assertions.assertNotNull(transformed);
+
+            for (int i = 0; i < LocalSignatureCipherManager.SUSPECT_THROTTLE_REPORTS; i++) {
+                manager.reportThrottled(PLAYER_SCRIPT, FORMAT);
+            }
+
+            Assertions.assertTrue(manager.isNTransformSuspect(PLAYER_SCRIPT));
+            Assertions.assertNull(manager.getResultCache().get(PLAYER_SCRIPT, ValueType.N_PARAMETER, N_PARAMETER));
+            Assertions.assertNull(manager.getCipherCache().get(PLAYER_SCRIPT));
+
+            // Stands in for extracting the cipher again.
+            manager.getCipherCache().put(PLAYER_SCRIPT, "hash", createCipher());
+
+            Assertions.assertEquals(resolved, manager.resolveFormatUrl(httpInterface, PLAYER_SCRIPT, FORMAT));
+            Assertions.assertNull(manager.getResultCache().get(PLAYER_SCRIPT, ValueType.N_PARAMETER, N_PARAMETER));
+        }
+    }
+
+    @Test
+    public void testUnthrottledScriptIsNotSuspect() throws Exception {
+        LocalSignatureCipherManager manager = new LocalSignatureCipherManager();
+        manager.getCipherCache().put(PLAYER_SCRIPT, "hash", createCipher());
+
+        try (HttpInterfaceManager interfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+             HttpInterface httpInterface = interfaceManager.getInterface()) {
+            manager.resolveFormatUrl(httpInterface, PLAYER_SCRIPT, FORMAT);
+        }
+
+        Assertions.assertFalse(manager.isNTransformSuspect(PLAYER_SCRIPT));
+        Assertions.assertNotNull(manager.getCipherCache().get(PLAYER_SCRIPT));
+    }
+
+    @Test
+    public void testSingleThrottleReportDoesNotMarkScriptSuspect() throws Exception {
+        LocalSignatureCipherManager manager = new LocalSignatureCipherManager();
+        manager.getCipherCache().put(PLAYER_SCRIPT, "hash", createCipher());
+
+        try (HttpInterfaceManager interfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+             HttpInterface httpInterface = interfaceManager.getInterface()) {
+            manager.resolveFormatUrl(httpInterface, PLAYER_SCRIPT, FORMAT);
+            manager.reportThrottled(PLAYER_SCRIPT, FORMAT);
+
+            // The throttled n parameter is dropped, but the script keeps its cipher and caching.
+            Assertions.assertFalse(manager.isNTransformSuspect(PLAYER_SCRIPT));
+            Assertions.assertNull(manager.getResultCache().get(PLAYER_SCRIPT, ValueType.N_PARAMETER, N_PARAMETER));
+            Assertions.assertNotNull(manager.getCipherCache().get(PLAYER_SCRIPT));
+
+            manager.resolveFormatUrl(httpInterface, PLAYER_SCRIPT, FORMAT);
+            Assertions.assertNotNull(manager.getResultCache().get(PLAYER_SCRIPT, ValueType.N_PARAMETER, N_PARAMETER));
+        }
+    }
+
+    @Test
+    public void testExtractionFailureIsRemembered() throws Exception {
+        AtomicInteger extractions = new AtomicInteger();
+
+        LocalSignatureCipherManager manager = new LocalSignatureCipherManager() {
+            @Override
+            SignatureCipher extractFromScript(String script, String sourceUrl) {
+                extractions.incrementAndGet();
+                return super.extractFromScript(script, sourceUrl);
+            }
+        };
+
+        // The script has a timestamp, but none of the cipher functions.
+        manager.getScriptStore().store(PLAYER_SCRIPT, "var a={signatureTimestamp:20000};");
+
+        try (HttpInterfaceManager interfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+             HttpInterface httpInterface = interfaceManager.getInterface()) {
+            Assertions.assertEquals("20000", manager.getTimestamp(httpInterface, PLAYER_SCRIPT));
+            Assertions.assertEquals("20000", manager.getTimestamp(httpInterface, PLAYER_SCRIPT));
+        }
+
+        Assertions.assertEquals(1, extractions.get());
+    }
+}
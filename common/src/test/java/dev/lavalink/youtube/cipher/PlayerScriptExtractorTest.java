@@ -0,0 +1,97 @@
+package dev.lavalink.youtube.cipher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static dev.lavalink.youtube.cipher.CipherTestScripts.*;
+
+/**
+ * Checks the single pass extraction of {@link PlayerScriptExtractor} against searching the whole
+ * script with each pattern in turn. Real player scripts can be checked by pointing the
+ * {@code youtube.playerScriptCorpus} system property at a directory of them, otherwise a synthetic
+ * script of a similar size is used.
+ */
+public class PlayerScriptExtractorTest {
+    @Test
+    public void testSinglePassMatchesFullScan() {
+        String script = createSyntheticPlayerScript();
+        PlayerScriptExtractor.Components components = PlayerScriptExtractor.extract(script);
+
+        assertComponentsEqual(PlayerScriptExtractor.extractWithFullScan(script), components);
+        Assertions.assertEquals(TIMESTAMP, components.timestamp);
+        Assertions.assertEquals(GLOBAL_VARS, components.globalVars);
+        Assertions.assertEquals(SIG_ACTIONS, components.sigActions);
+        Assertions.assertEquals(SIG_FUNCTION, components.sigFunction);
+        Assertions.assertEquals(N_FUNCTION, components.nFunction);
+    }
+
+    @Test
+    public void testMissingComponentsFallBack() {
+        PlayerScriptExtractor.Components components = PlayerScriptExtractor.extract("var a=1;function b(c){return c}");
+
+        Assertions.assertNull(components.timestamp);
+        Assertions.assertNull(components.globalVars);
+        Assertions.assertNull(components.sigActions);
+        Assertions.assertNull(components.sigFunction);
+        Assertions.assertNull(components.nFunction);
+    }
+
+    @Test
+    public void testSinglePassMatchesFullScanOnCorpus() throws IOException {
+        for (Map.Entry<String, String> entry : loadCorpus().entrySet()) {
+            String script = entry.getValue();
+            PlayerScriptExtractor.Components expected = PlayerScriptExtractor.extractWithFullScan(script);
+            PlayerScriptExtractor.Components actual = PlayerScriptExtractor.extract(script);
+
+            // The full scan may run on past the end of a function when several share a line,
+            // whereas the single pass stops at the function's closing brace.
+            assertStartsWith(expected.timestamp, actual.timestamp);
+            assertStartsWith(expected.globalVars, actual.globalVars);
+            assertStartsWith(expected.sigActions, actual.sigActions);
+            assertStartsWith(expected.sigFunction, actual.sigFunction);
+            assertStartsWith(expected.nFunction, actual.nFunction);
+        }
+    }
+
+    private static Map<String, String> loadCorpus() throws IOException {
+        Map<String, String> corpus = new LinkedHashMap<>();
+        String directory = System.getProperty("youtube.playerScriptCorpus");
+
+        if (directory != null) {
+            try (DirectoryStream<Path> scripts = Files.newDirectoryStream(Paths.get(directory), "*.js")) {
+                for (Path script : scripts) {
+                    corpus.put(script.getFileName().toString(), new String(Files.readAllBytes(script), StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        if (corpus.isEmpty()) {
+            corpus.put("synthetic", createSyntheticPlayerScript());
+        }
+
+        return corpus;
+    }
+
+    private static void assertComponentsEqual(PlayerScriptExtractor.Components expected,
+                                              PlayerScriptExtractor.Components actual) {
+        Assertions.assertEquals(expected.timestamp, actual.timestamp);
+        Assertions.assertEquals(expected.globalVars, actual.globalVars);
+        Assertions.assertEquals(expected.sigActions, actual.sigActions);
+        Assertions.assertEquals(expected.sigFunction, actual.sigFunction);
+        Assertions.assertEquals(expected.nFunction, actual.nFunction);
+    }
+
+    private static void assertStartsWith(String expected, String actual) {
+        Assertions.assertEquals(expected == null, actual == null);
+        Assertions.assertTrue(expected == null || expected.startsWith(actual));
+    }
+}
@@ -0,0 +1,203 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.cipher.CipherManager.CachedPlayerScript;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class PlayerScriptRefresherTest {
+    private static final long REFRESH_AHEAD_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long MAX_STALE_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private ScheduledExecutorService scheduler;
+    private HttpInterfaceManager interfaceManager;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        interfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        scheduler.shutdownNow();
+        interfaceManager.close();
+    }
+
+    @Test
+    public void testRefreshesAheadOfExpiry() throws Exception {
+        CachedPlayerScript old = script("old", REFRESH_AHEAD_MS / 2);
+        CachedPlayerScript fresh = script("new", TimeUnit.HOURS.toMillis(1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch swapped = new CountDownLatch(1);
+
+        PlayerScriptRefresher refresher = create((httpInterface, background) -> {
+            Assertions.assertTrue(background);
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+
+            return fresh;
+        }, script -> {
+            if (script == fresh) {
+                swapped.countDown();
+            }
+        }, TimeUnit.HOURS.toMillis(1));
+
+        refresher.seed(old);
+
+        try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+            // The current script is served while the replacement is fetched.
+            Assertions.assertSame(old, refresher.get(httpInterface));
+            release.countDown();
+            Assertions.assertTrue(swapped.await(5, TimeUnit.SECONDS));
+            Assertions.assertSame(fresh, refresher.get(httpInterface));
+        }
+    }
+
+    @Test
+    public void testFailedRefreshIsRetriedAfterDelay() throws Exception {
+        CachedPlayerScript old = script("old", REFRESH_AHEAD_MS / 2);
+        CachedPlayerScript fresh = script("new", TimeUnit.HOURS.toMillis(1));
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch swapped = new CountDownLatch(1);
+
+        PlayerScriptRefresher refresher = create((httpInterface, background) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("Simulated failure");
+            }
+
+            return fresh;
+        }, script -> {
+            if (script == fresh) {
+                swapped.countDown();
+            }
+        }, 50);
+
+        refresher.seed(old);
+
+        try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+            Assertions.assertSame(old, refresher.get(httpInterface));
+            Assertions.assertTrue(swapped.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, attempts.get());
+            Assertions.assertSame(fresh, refresher.get(httpInterface));
+        }
+    }
+
+    @Test
+    public void testFailedRefreshIsNotRetriedByReaders() throws Exception {
+        CachedPlayerScript old = script("old", REFRESH_AHEAD_MS / 2);
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch attempted = new CountDownLatch(1);
+
+        PlayerScriptRefresher refresher = create((httpInterface, background) -> {
+            attempts.incrementAndGet();
+            attempted.countDown();
+            throw new IOException("Simulated failure");
+        }, script -> { }, TimeUnit.HOURS.toMillis(1));
+
+        refresher.seed(old);
+
+        try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+            Assertions.assertSame(old, refresher.get(httpInterface));
+            Assertions.assertTrue(attempted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertSame(old, refresher.get(httpInterface));
+            }
+        }
+
+        // Anything the readers might have started would have run by now.
+        scheduler.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        scheduler.submit(() -> { }).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testLoadsSynchronouslyOnceTooStale() throws Exception {
+        CachedPlayerScript old = script("old", -MAX_STALE_MS - 1);
+        CachedPlayerScript fresh = script("new", TimeUnit.HOURS.toMillis(1));
+        Thread caller = Thread.currentThread();
+
+        PlayerScriptRefresher refresher = create((httpInterface, background) -> {
+            Assertions.assertFalse(background);
+            Assertions.assertSame(caller, Thread.currentThread());
+            return fresh;
+        }, script -> { }, TimeUnit.HOURS.toMillis(1));
+
+        refresher.seed(old);
+
+        try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+            Assertions.assertSame(fresh, refresher.get(httpInterface));
+        }
+    }
+
+    @Test
+    public void testServesStaleScriptWithinMaxStale() throws Exception {
+        CachedPlayerScript old = script("old", -MAX_STALE_MS / 2);
+        Thread caller = Thread.currentThread();
+
+        PlayerScriptRefresher refresher = create((httpInterface, background) -> {
+            Assertions.assertNotSame(caller, Thread.currentThread());
+            throw new IOException("Simulated failure");
+        }, script -> { }, TimeUnit.HOURS.toMillis(1));
+
+        refresher.seed(old);
+
+        try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+            Assertions.assertSame(old, refresher.get(httpInterface));
+        }
+    }
+
+    @Test
+    public void testClosedRefresherServesScriptWithoutRefreshing() throws Exception {
+        CachedPlayerScript old = script("old", REFRESH_AHEAD_MS / 2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        PlayerScriptRefresher refresher = create((httpInterface, background) -> {
+            attempts.incrementAndGet();
+            throw new IOException("Simulated failure");
+        }, script -> { }, TimeUnit.HOURS.toMillis(1));
+
+        refresher.close();
+        refresher.seed(old);
+
+        try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+            Assertions.assertSame(old, refresher.get(httpInterface));
+        }
+
+        Assertions.assertTrue(scheduler.isShutdown());
+        Assertions.assertEquals(0, attempts.get());
+    }
+
+    private PlayerScriptRefresher create(PlayerScriptRefresher.Loader loader,
+                                         Consumer<CachedPlayerScript> listener,
+                                         long retryDelayMs) {
+        PlayerScriptRefresher refresher = new PlayerScriptRefresher(loader, listener, scheduler, REFRESH_AHEAD_MS,
+            retryDelayMs, MAX_STALE_MS);
+
+        refresher.setHttpInterfaceManager(interfaceManager);
+        return refresher;
+    }
+
+    private static CachedPlayerScript script(String name, long expiresInMs) {
+        return new CachedPlayerScript("https://www.youtube.com/s/player/" + name + "/base.js", "20000",
+            System.currentTimeMillis() + expiresInMs);
+    }
+}
@@ -0,0 +1,166 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.lavalink.youtube.CircuitBreaker;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.client.config.RequestConfig;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RemoteCipherManagerTest {
+    private static final String PLAYER_SCRIPT = "https://www.youtube.com/s/player/aaaaaaaa/player_ias.vflset/en_US/base.js";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpInterfaceManager interfaceManager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        server.start();
+        interfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        interfaceManager.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentRequestsAreLimited() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        server.createContext("/get_sts", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            inFlight.decrementAndGet();
+            respond(exchange, "{\"sts\":\"20000\"}");
+        });
+
+        RemoteCipherManager manager = new RemoteCipherManager(getServerUrl(), 2, null);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+
+        try {
+            List<Future<String>> timestamps = new ArrayList<>();
+
+            for (int i = 0; i < 6; i++) {
+                // Distinct scripts, so that the lookups are not coalesced.
+                String playerScript = PLAYER_SCRIPT + "?" + i;
+
+                timestamps.add(executor.submit(() -> {
+                    try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+                        return manager.getTimestamp(httpInterface, playerScript);
+                    }
+                }));
+            }
+
+            for (Future<String> timestamp : timestamps) {
+                Assertions.assertEquals("20000", timestamp.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertTrue(maxInFlight.get() <= 2, "At most 2 requests should be in flight, saw " + maxInFlight.get());
+        Assertions.assertEquals(6, manager.getRequestCount());
+        Assertions.assertEquals(0, manager.getInFlightRequests());
+    }
+
+    @Test
+    public void testTimeoutsOpenCircuitAndFallBack() throws Exception {
+        server.createContext("/get_sts", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            respond(exchange, "{\"sts\":\"20000\"}");
+        });
+
+        interfaceManager.configureRequests(config -> RequestConfig.copy(config).setSocketTimeout(100).build());
+        RemoteCipherManager manager = new RemoteCipherManager(getServerUrl(), 2, new FixedTimestampCipherManager("10000"));
+
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) {
+            try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+                // Distinct scripts, so that the results are not cached.
+                Assertions.assertEquals("10000", manager.getTimestamp(httpInterface, PLAYER_SCRIPT + "?" + i));
+            }
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, manager.getCircuitBreaker().getState());
+        Assertions.assertEquals(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, manager.getFallbackCount());
+    }
+
+    private String getServerUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static class FixedTimestampCipherManager implements CipherManager {
+        private final String timestamp;
+
+        private FixedTimestampCipherManager(String timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        @NotNull
+        @Override
+        public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
+                                    @NotNull String playerScript,
+                                    @NotNull StreamFormat format) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getTimestamp(HttpInterface httpInterface, String sourceUrl) {
+            return timestamp;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package dev.lavalink.youtube.cipher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.lavalink.youtube.cipher.CipherTestScripts.N_PARAMETER;
+import static dev.lavalink.youtube.cipher.CipherTestScripts.createCipher;
+
+public class SignatureCipherCacheTest {
+    @Test
+    public void testIdenticalScriptsShareCipher() {
+        SignatureCipherCache cache = new SignatureCipherCache();
+        SignatureCipher cipher = cache.put("/a/base.js", "hash", createCipher());
+
+        Assertions.assertSame(cipher, cache.put("/b/base.js", "hash", createCipher()));
+        Assertions.assertSame(cipher, cache.get("/b/base.js"));
+        Assertions.assertEquals(1, cache.getEntryCount());
+    }
+
+    @Test
+    public void testEvictsOverEntryLimit() {
+        AtomicLong clock = new AtomicLong();
+        SignatureCipherCache cache = new SignatureCipherCache(1, SignatureCipherCache.DEFAULT_MAX_IDLE_MS, clock::get);
+        cache.put("/a/base.js", "a", createCipher());
+        clock.addAndGet(1);
+        cache.put("/b/base.js", "b", createCipher());
+
+        Assertions.assertNull(cache.get("/a/base.js"));
+        Assertions.assertNotNull(cache.get("/b/base.js"));
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertTrue(cache.getEstimatedBytes() > 0);
+    }
+
+    @Test
+    public void testEvictsIdleEntriesOnLookup() {
+        AtomicLong clock = new AtomicLong();
+        SignatureCipherCache cache = new SignatureCipherCache(SignatureCipherCache.DEFAULT_MAX_ENTRIES, 1000, clock::get);
+        cache.put("/a/base.js", "a", createCipher());
+        cache.put("/b/base.js", "b", createCipher());
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+
+        // Looking up one script also releases the other idle cipher, without another being added.
+        Assertions.assertNull(cache.get("/a/base.js"));
+        Assertions.assertEquals(0, cache.getEntryCount());
+        Assertions.assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    public void testEstimatedBytesIncludeExecutionScopes() throws Exception {
+        SignatureCipherCache cache = new SignatureCipherCache();
+        SignatureCipher cipher = cache.put("/a/base.js", "a", createCipher());
+        long extractedBytes = cache.getEstimatedBytes();
+        cipher.transform(N_PARAMETER);
+
+        Assertions.assertTrue(cache.getEstimatedBytes() >= extractedBytes + CipherExecutionPool.ESTIMATED_SCOPE_BYTES);
+    }
+}
@@ -0,0 +1,95 @@
+package dev.lavalink.youtube.cipher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mozilla.javascript.engine.RhinoScriptEngineFactory;
+
+import javax.script.Invocable;
+import javax.script.ScriptEngine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static dev.lavalink.youtube.cipher.CipherTestScripts.*;
+
+/**
+ * Checks that the compile-once execution of {@link SignatureCipher} gives the same results as evaluating
+ * the cipher source on every call, which is how ciphers used to be executed. Performance is measured by the
+ * JMH benchmarks instead.
+ */
+public class SignatureCipherTest {
+    private static final int CALLS_PER_THREAD = 50;
+
+    @Test
+    public void testCompiledMatchesEvaluated() throws Exception {
+        ScriptEngine engine = new RhinoScriptEngineFactory().getScriptEngine();
+        SignatureCipher cipher = createCipher();
+
+        String signature = cipher.apply(SIGNATURE);
+        String n = cipher.transform(N_PARAMETER);
+
+        Assertions.assertNotEquals(SIGNATURE, signature);
+        Assertions.assertNotEquals(N_PARAMETER, n);
+        Assertions.assertEquals(evaluateSignature(engine, SIGNATURE), signature);
+        Assertions.assertEquals(evaluateN(engine, N_PARAMETER), n);
+    }
+
+    @Test
+    public void testBytecodeMatchesInterpreted() throws Exception {
+        SignatureCipher interpreted = createCipher();
+        CipherExecutionMetrics metrics = new CipherExecutionMetrics();
+        SignatureCipher compiled = new SignatureCipher(TIMESTAMP, GLOBAL_VARS, SIG_ACTIONS, SIG_FUNCTION, N_FUNCTION, "",
+            SignatureCipher.DEFAULT_MAX_EXECUTION_CONTEXTS, SignatureCipher.MAX_OPTIMIZATION_LEVEL, metrics);
+
+        Assertions.assertEquals(interpreted.transform(N_PARAMETER), compiled.transform(N_PARAMETER));
+        Assertions.assertEquals(interpreted.apply(SIGNATURE), compiled.apply(SIGNATURE));
+        Assertions.assertEquals(1, metrics.getCompiledScripts());
+        Assertions.assertEquals(0, metrics.getCompilationFallbacks());
+    }
+
+    @Test
+    public void testConcurrentExecutionMatches() throws Exception {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        for (int poolSize : new int[] { 1, threads }) {
+            SignatureCipher cipher = new SignatureCipher(TIMESTAMP, GLOBAL_VARS, SIG_ACTIONS, SIG_FUNCTION, N_FUNCTION, "",
+                poolSize, new CipherExecutionMetrics());
+            String expectedSignature = cipher.apply(SIGNATURE);
+            String expectedN = cipher.transform(N_PARAMETER);
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+
+            try {
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                            Assertions.assertEquals(expectedSignature, cipher.apply(SIGNATURE));
+                            Assertions.assertEquals(expectedN, cipher.transform(N_PARAMETER));
+                        }
+
+                        return null;
+                    }));
+                }
+
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static String evaluateSignature(ScriptEngine engine, String text) throws Exception {
+        engine.eval(GLOBAL_VARS + ";" + SIG_ACTIONS + ";decrypt_sig=" + SIG_FUNCTION);
+        return (String) ((Invocable) engine).invokeFunction("decrypt_sig", text);
+    }
+
+    private static String evaluateN(ScriptEngine engine, String text) throws Exception {
+        engine.eval(GLOBAL_VARS + ";decrypt_nsig=" + N_FUNCTION);
+        return (String) ((Invocable) engine).invokeFunction("decrypt_nsig", text);
+    }
+}
@@ -0,0 +1,50 @@
+package dev.lavalink.youtube.track;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class ThroughputMonitorTest {
+    private static final long THRESHOLD = 64 * 1024;
+
+    @Test
+    public void testSustainedSlowReadsAreThrottled() {
+        ThroughputMonitor monitor = new ThroughputMonitor(THRESHOLD);
+
+        // 16 KiB per second, for one window.
+        Assertions.assertFalse(readForOneWindow(monitor, 16 * 1024));
+        Assertions.assertEquals(16 * 1024, monitor.getLastBytesPerSecond());
+
+        Assertions.assertTrue(readForOneWindow(monitor, 16 * 1024));
+    }
+
+    @Test
+    public void testFastWindowResetsSlowWindows() {
+        ThroughputMonitor monitor = new ThroughputMonitor(THRESHOLD);
+
+        Assertions.assertFalse(readForOneWindow(monitor, 16 * 1024));
+        Assertions.assertFalse(readForOneWindow(monitor, 4 * 1024 * 1024));
+        Assertions.assertFalse(readForOneWindow(monitor, 16 * 1024));
+    }
+
+    @Test
+    public void testDisabled() {
+        ThroughputMonitor monitor = new ThroughputMonitor(0);
+
+        Assertions.assertFalse(readForOneWindow(monitor, 1));
+        Assertions.assertFalse(readForOneWindow(monitor, 1));
+        Assertions.assertEquals(-1, monitor.getLastBytesPerSecond());
+    }
+
+    private static boolean readForOneWindow(ThroughputMonitor monitor, long bytesPerSecond) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(ThroughputMonitor.WINDOW_NANOS);
+        boolean throttled = false;
+
+        for (int i = 0; i < seconds; i++) {
+            throttled = monitor.record(bytesPerSecond, TimeUnit.SECONDS.toNanos(1));
+        }
+
+        return throttled;
+    }
+}
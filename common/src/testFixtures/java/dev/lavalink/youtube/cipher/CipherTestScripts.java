@@ -0,0 +1,68 @@
+package dev.lavalink.youtube.cipher;
+
+/**
+ * Cipher components shaped like the ones extracted from YouTube player scripts,
+ * so that cipher execution can be tested, and benchmarked, without fetching a live script.
+ */
+public final class CipherTestScripts {
+    public static final String TIMESTAMP = "20111";
+
+    public static final String GLOBAL_VARS = "var Xq=\"split;;join\".split(\";\")";
+
+    public static final String SIG_ACTIONS = "var Tz={" +
+        "Jb:function(a){a.reverse()}," +
+        "Kk:function(a,b){a.splice(0,b)}," +
+        "Wq:function(a,b){var c=a[0];a[0]=a[b%a.length];a[b%a.length]=c}};";
+
+    public static final String SIG_FUNCTION = "function(a){a=a.split(\"\");Tz.Wq(a,19);Tz.Jb(a,54);Tz.Kk(a,3);Tz.Wq(a,35);return a.join(\"\")};";
+
+    public static final String N_FUNCTION = "function(a){var b=a[Xq[0]](Xq[1]),c=b.length;" +
+        "try{for(var d=0;d<c;d++){var e=b[d];b[d]=b[(d*7+3)%c];b[(d*7+3)%c]=e}b.reverse()}" +
+        "catch(f){return\"enhanced_except_\"+a}" +
+        "return b[Xq[2]](Xq[1])};";
+
+    public static final String SIGNATURE = "2aq0aqSyOoJXtK73m-uME_jv7-pT15gOFC02RFkGMqWpzEICs69VdbwQ0LDp1v7j8xx92efCJlYFYb1sUkkBSPOlPmXgIARw8JQ0qOAOAA";
+    public static final String N_PARAMETER = "o_L251jm8yhZkWtBW";
+
+    private static final int FILLER_LINES = 2_000;
+    private static final int STATEMENTS_PER_LINE = 20;
+
+    private CipherTestScripts() {
+    }
+
+    public static SignatureCipher createCipher() {
+        return new SignatureCipher(TIMESTAMP, GLOBAL_VARS, SIG_ACTIONS, SIG_FUNCTION, N_FUNCTION, "");
+    }
+
+    /**
+     * Builds a script of a few megabytes with the cipher components spread throughout. Like a minified
+     * player script, the filler is made up of long lines of small functions, some of which resemble the
+     * components, and contains the constructs that could mislead a scan: braces in strings, templates,
+     * comments and regular expressions, as well as division.
+     */
+    public static String createSyntheticPlayerScript() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("'use strict';").append(GLOBAL_VARS).append(";\n");
+
+        for (int i = 0; i < FILLER_LINES; i++) {
+            if (i == FILLER_LINES / 4) {
+                builder.append(SIG_ACTIONS).append('\n');
+            } else if (i == FILLER_LINES / 2) {
+                builder.append("var Ys={signatureTimestamp:").append(TIMESTAMP).append("};\n");
+                builder.append("Yn.prototype.decode=").append(SIG_FUNCTION).append('\n');
+            } else if (i == FILLER_LINES * 3 / 4) {
+                builder.append("Yt=").append(N_FUNCTION).append('\n');
+            }
+
+            for (int j = 0; j < STATEMENTS_PER_LINE; j++) {
+                builder.append("var f").append(j).append("={k:").append(i).append(",v:\"}{\"};")
+                    .append("g.h").append(j).append("=function(a){a=a.trim();if(/[}{]\\/x/.test(a))return a/2/1;")
+                    .append("return `${a}{${a+\"}\"}`};/* } */");
+            }
+
+            builder.append("// {\n");
+        }
+
+        return builder.toString();
+    }
+}
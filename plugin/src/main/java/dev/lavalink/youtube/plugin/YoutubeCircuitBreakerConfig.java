@@ -0,0 +1,34 @@
+package dev.lavalink.youtube.plugin;
+
+import dev.lavalink.youtube.ClientCircuitBreakers;
+
+public class YoutubeCircuitBreakerConfig {
+    private int failureThreshold = ClientCircuitBreakers.DEFAULT_FAILURE_THRESHOLD;
+    private long failureWindowMs = ClientCircuitBreakers.DEFAULT_FAILURE_WINDOW_MS;
+    private long openDurationMs = ClientCircuitBreakers.DEFAULT_OPEN_DURATION_MS;
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public long getFailureWindowMs() {
+        return failureWindowMs;
+    }
+
+    public long getOpenDurationMs() {
+        return openDurationMs;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public void setFailureWindowMs(long failureWindowMs) {
+        this.failureWindowMs = failureWindowMs;
+    }
+
+    public void setOpenDurationMs(long openDurationMs) {
+        this.openDurationMs = openDurationMs;
+    }
+
+}
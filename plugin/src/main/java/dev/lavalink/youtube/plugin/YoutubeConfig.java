@@ -1,5 +1,6 @@
 package dev.lavalink.youtube.plugin;
 
+import dev.lavalink.youtube.ClientScoreboard;
 import dev.lavalink.youtube.clients.ClientOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -15,10 +16,21 @@ public class YoutubeConfig {
     private boolean allowDirectVideoIds = true;
     private boolean allowDirectPlaylistIds = true;
     private YoutubeRemoteCipherConfig remoteCipher;
+    private YoutubeLocalCipherConfig localCipher;
+    private YoutubeCircuitBreakerConfig clientCircuitBreaker;
     private Pot pot = null;
     private String[] clients;
     private Map<String, ClientOptions> clientOptions = new HashMap<>();
     private YoutubeOauthConfig oauth = null;
+    private long throttleThresholdBytesPerSecond = 0;
+    private long clientFanOutDelayMs = -1;
+    private boolean adaptiveClientOrdering = false;
+    private int clientExplorationInterval = ClientScoreboard.DEFAULT_EXPLORATION_INTERVAL;
+    private long playerResponseCacheTtlMs = 0;
+    private long videoMetadataCacheTtlMs = 0;
+    private long searchResultCacheTtlMs = 0;
+    private long playlistCacheTtlMs = 0;
+    private boolean itemLoadCoalescing = true;
 
     public boolean getEnabled() {
         return enabled;
@@ -92,4 +104,92 @@ public class YoutubeConfig {
         this.remoteCipher = remoteCipher;
     }
 
+    public YoutubeLocalCipherConfig getLocalCipher() {
+        return localCipher;
+    }
+
+    public void setLocalCipher(YoutubeLocalCipherConfig localCipher) {
+        this.localCipher = localCipher;
+    }
+
+    public YoutubeCircuitBreakerConfig getClientCircuitBreaker() {
+        return clientCircuitBreaker;
+    }
+
+    public void setClientCircuitBreaker(YoutubeCircuitBreakerConfig clientCircuitBreaker) {
+        this.clientCircuitBreaker = clientCircuitBreaker;
+    }
+
+    public long getThrottleThresholdBytesPerSecond() {
+        return throttleThresholdBytesPerSecond;
+    }
+
+    public void setThrottleThresholdBytesPerSecond(long throttleThresholdBytesPerSecond) {
+        this.throttleThresholdBytesPerSecond = throttleThresholdBytesPerSecond;
+    }
+
+    public long getClientFanOutDelayMs() {
+        return clientFanOutDelayMs;
+    }
+
+    public void setClientFanOutDelayMs(long clientFanOutDelayMs) {
+        this.clientFanOutDelayMs = clientFanOutDelayMs;
+    }
+
+    public boolean getAdaptiveClientOrdering() {
+        return adaptiveClientOrdering;
+    }
+
+    public void setAdaptiveClientOrdering(boolean adaptiveClientOrdering) {
+        this.adaptiveClientOrdering = adaptiveClientOrdering;
+    }
+
+    public int getClientExplorationInterval() {
+        return clientExplorationInterval;
+    }
+
+    public void setClientExplorationInterval(int clientExplorationInterval) {
+        this.clientExplorationInterval = clientExplorationInterval;
+    }
+
+    public long getPlayerResponseCacheTtlMs() {
+        return playerResponseCacheTtlMs;
+    }
+
+    public void setPlayerResponseCacheTtlMs(long playerResponseCacheTtlMs) {
+        this.playerResponseCacheTtlMs = playerResponseCacheTtlMs;
+    }
+
+    public long getVideoMetadataCacheTtlMs() {
+        return videoMetadataCacheTtlMs;
+    }
+
+    public void setVideoMetadataCacheTtlMs(long videoMetadataCacheTtlMs) {
+        this.videoMetadataCacheTtlMs = videoMetadataCacheTtlMs;
+    }
+
+    public long getSearchResultCacheTtlMs() {
+        return searchResultCacheTtlMs;
+    }
+
+    public void setSearchResultCacheTtlMs(long searchResultCacheTtlMs) {
+        this.searchResultCacheTtlMs = searchResultCacheTtlMs;
+    }
+
+    public long getPlaylistCacheTtlMs() {
+        return playlistCacheTtlMs;
+    }
+
+    public void setPlaylistCacheTtlMs(long playlistCacheTtlMs) {
+        this.playlistCacheTtlMs = playlistCacheTtlMs;
+    }
+
+    public boolean getItemLoadCoalescing() {
+        return itemLoadCoalescing;
+    }
+
+    public void setItemLoadCoalescing(boolean itemLoadCoalescing) {
+        this.itemLoadCoalescing = itemLoadCoalescing;
+    }
+
 }
@@ -0,0 +1,44 @@
+package dev.lavalink.youtube.plugin;
+
+import dev.lavalink.youtube.cipher.CipherDiskCache;
+import dev.lavalink.youtube.cipher.SignatureCipher;
+
+public class YoutubeLocalCipherConfig {
+    private int executionPoolSize = -1;
+    private int optimizationLevel = SignatureCipher.INTERPRETED_OPTIMIZATION_LEVEL;
+    private String cacheDirectory;
+    private long cacheMaxSizeBytes = CipherDiskCache.DEFAULT_MAX_SIZE_BYTES;
+
+    public int getExecutionPoolSize() {
+        return executionPoolSize;
+    }
+
+    public int getOptimizationLevel() {
+        return optimizationLevel;
+    }
+
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public long getCacheMaxSizeBytes() {
+        return cacheMaxSizeBytes;
+    }
+
+    public void setExecutionPoolSize(int executionPoolSize) {
+        this.executionPoolSize = executionPoolSize;
+    }
+
+    public void setOptimizationLevel(int optimizationLevel) {
+        this.optimizationLevel = optimizationLevel;
+    }
+
+    public void setCacheDirectory(String cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public void setCacheMaxSizeBytes(long cacheMaxSizeBytes) {
+        this.cacheMaxSizeBytes = cacheMaxSizeBytes;
+    }
+
+}
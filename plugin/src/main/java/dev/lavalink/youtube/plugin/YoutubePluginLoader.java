@@ -10,6 +10,7 @@ import dev.arbjerg.lavalink.api.AudioPlayerManagerConfiguration;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.YoutubeSource;
 import dev.lavalink.youtube.YoutubeSourceOptions;
+import dev.lavalink.youtube.cipher.SignatureCipher;
 import dev.lavalink.youtube.clients.ClientOptions;
 import dev.lavalink.youtube.clients.skeleton.Client;
 import lavalink.server.config.RateLimitConfig;
@@ -152,6 +153,18 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
             .setAllowDirectVideoIds(youtubeConfig == null || youtubeConfig.getAllowDirectVideoIds())
             .setAllowDirectPlaylistIds(youtubeConfig == null || youtubeConfig.getAllowDirectPlaylistIds());
 
+        if (youtubeConfig != null) {
+            sourceOptions.setThrottleThresholdBytesPerSecond(youtubeConfig.getThrottleThresholdBytesPerSecond());
+            sourceOptions.setClientFanOutDelayMs(youtubeConfig.getClientFanOutDelayMs());
+            sourceOptions.setAdaptiveClientOrdering(youtubeConfig.getAdaptiveClientOrdering());
+            sourceOptions.setClientExplorationInterval(youtubeConfig.getClientExplorationInterval());
+            sourceOptions.setPlayerResponseCacheTtlMs(youtubeConfig.getPlayerResponseCacheTtlMs());
+            sourceOptions.setVideoMetadataCacheTtlMs(youtubeConfig.getVideoMetadataCacheTtlMs());
+            sourceOptions.setSearchResultCacheTtlMs(youtubeConfig.getSearchResultCacheTtlMs());
+            sourceOptions.setPlaylistCacheTtlMs(youtubeConfig.getPlaylistCacheTtlMs());
+            sourceOptions.setItemLoadCoalescing(youtubeConfig.getItemLoadCoalescing());
+        }
+
         Client[] clients;
 
         if (youtubeConfig == null) {
@@ -167,6 +180,8 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
 
             Pot pot = youtubeConfig.getPot();
             YoutubeRemoteCipherConfig cipherConfig = youtubeConfig.getRemoteCipher();
+            YoutubeLocalCipherConfig localCipherConfig = youtubeConfig.getLocalCipher();
+            YoutubeCircuitBreakerConfig circuitBreakerConfig = youtubeConfig.getClientCircuitBreaker();
 
             if (pot != null) {
                 String token = pot.getToken();
@@ -183,6 +198,30 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
             if (cipherConfig != null && cipherConfig.getUrl() != null) {
                 log.info("Using remote cipher server with URL \"{}\"", cipherConfig.getUrl());
                 sourceOptions.setRemoteCipher(cipherConfig.getUrl(), cipherConfig.getPassword(), cipherConfig.getUserAgent());
+                sourceOptions.setRemoteCipherMaxConcurrentRequests(cipherConfig.getMaxConcurrentRequests());
+                sourceOptions.setRemoteCipherLocalFallback(cipherConfig.isLocalFallback());
+                sourceOptions.setRemoteCipherHedgeDelayMs(cipherConfig.getHedgeDelayMs());
+            }
+
+            if (localCipherConfig != null) {
+                if (localCipherConfig.getExecutionPoolSize() > 0) {
+                    sourceOptions.setCipherExecutionPoolSize(localCipherConfig.getExecutionPoolSize());
+                }
+
+                if (localCipherConfig.getOptimizationLevel() != SignatureCipher.INTERPRETED_OPTIMIZATION_LEVEL) {
+                    log.info("Compiling cipher functions at optimization level {}", localCipherConfig.getOptimizationLevel());
+                    sourceOptions.setCipherOptimizationLevel(localCipherConfig.getOptimizationLevel());
+                }
+
+                if (localCipherConfig.getCacheDirectory() != null) {
+                    log.info("Persisting extracted ciphers to \"{}\"", localCipherConfig.getCacheDirectory());
+                    sourceOptions.setCipherCacheDirectory(localCipherConfig.getCacheDirectory(), localCipherConfig.getCacheMaxSizeBytes());
+                }
+            }
+
+            if (circuitBreakerConfig != null) {
+                sourceOptions.setClientCircuitBreaker(circuitBreakerConfig.getFailureThreshold(),
+                    circuitBreakerConfig.getFailureWindowMs(), circuitBreakerConfig.getOpenDurationMs());
             }
         }
 
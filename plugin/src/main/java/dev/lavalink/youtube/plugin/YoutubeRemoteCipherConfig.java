@@ -1,9 +1,14 @@
 package dev.lavalink.youtube.plugin;
 
+import dev.lavalink.youtube.cipher.RemoteCipherManager;
+
 public class YoutubeRemoteCipherConfig {
     private String url;
     private String password;
     private String userAgent = "yt-source";
+    private int maxConcurrentRequests = RemoteCipherManager.DEFAULT_MAX_CONCURRENT_REQUESTS;
+    private boolean localFallback = true;
+    private long hedgeDelayMs = -1;
 
     public String getUrl() {
         return url;
@@ -17,6 +22,18 @@ public class YoutubeRemoteCipherConfig {
         return userAgent;
     }
 
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public boolean isLocalFallback() {
+        return localFallback;
+    }
+
+    public long getHedgeDelayMs() {
+        return hedgeDelayMs;
+    }
+
     public void setUrl(String url) {
         this.url = url;
     }
@@ -29,4 +46,16 @@ public class YoutubeRemoteCipherConfig {
         this.userAgent = userAgent;
     }
 
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public void setLocalFallback(boolean localFallback) {
+        this.localFallback = localFallback;
+    }
+
+    public void setHedgeDelayMs(long hedgeDelayMs) {
+        this.hedgeDelayMs = hedgeDelayMs;
+    }
+
 }
@@ -3,6 +3,8 @@ rootProject.name = "youtube-source"
 include("v2")
 include("common")
 include("plugin")
+include("cipher-server")
+include("benchmarks")
 
 enableFeaturePreview("TYPESAFE_PROJECT_ACCESSORS")
 
@@ -22,8 +24,10 @@ dependencyResolutionManagement {
             library("rhino-engine", "org.mozilla", "rhino-engine").version("1.7.15")
             library("nanojson", "com.grack", "nanojson").version("1.7")
             library("slf4j", "org.slf4j", "slf4j-api").version("1.7.25")
+            library("slf4j-simple", "org.slf4j", "slf4j-simple").version("1.7.25")
             library("annotations", "org.jetbrains", "annotations").version("24.1.0")
 
+            plugin("jmh", "me.champeau.jmh").version("0.7.2")
             plugin("lavalink-gradle-plugin", "dev.arbjerg.lavalink.gradle-plugin").version("1.0.15")
 
             val mavenPublishPlugin = version("maven-publish-plugin", "0.25.3")